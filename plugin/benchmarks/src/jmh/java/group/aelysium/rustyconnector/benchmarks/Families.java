@@ -0,0 +1,52 @@
+package group.aelysium.rustyconnector.benchmarks;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds fake families of {@link PlayerServer}s for benchmarking.
+ * The servers are never registered, so they don't need RustyConnector to be running.
+ */
+public class Families {
+    public static final int SOFT_PLAYER_CAP = 40;
+    public static final int HARD_PLAYER_CAP = 50;
+
+    /**
+     * Build a family of `size` servers with a realistic spread of player counts.
+     * Most servers sit somewhere around 60% of their soft cap, a few are empty (just booted), and a few are full.
+     * Most servers have a weight of 0, with some weighted 1 to 3.
+     * @param size The number of servers to build.
+     * @param seed The seed to use, so that every run builds the same family.
+     * @return The servers.
+     */
+    public static List<PlayerServer> build(int size, long seed) {
+        Random random = new Random(seed);
+        List<PlayerServer> servers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            ServerInfo info = new ServerInfo("server" + i, InetSocketAddress.createUnresolved("localhost", 30000 + (i % 30000)));
+
+            int weight = random.nextInt(10) < 8 ? 0 : 1 + random.nextInt(3);
+            PlayerServer server = new PlayerServer(info, SOFT_PLAYER_CAP, HARD_PLAYER_CAP, weight, 15);
+
+            server.setPlayerCount(playerCount(random));
+            servers.add(server);
+        }
+
+        return servers;
+    }
+
+    private static int playerCount(Random random) {
+        int roll = random.nextInt(100);
+        if(roll < 5) return 0;
+        if(roll < 10) return HARD_PLAYER_CAP;
+
+        int count = (int) Math.round(random.nextGaussian() * 8 + SOFT_PLAYER_CAP * 0.6);
+        return Math.max(0, Math.min(HARD_PLAYER_CAP, count));
+    }
+}
@@ -0,0 +1,62 @@
+package group.aelysium.rustyconnector.benchmarks;
+
+import group.aelysium.rustyconnector.core.lib.load_balancing.AlgorithmType;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.*;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the routing hot path of each load balancer.
+ * Every operation is one `current()` followed by one `iterate()`, which is what a family does for each connection.
+ */
+@State(Scope.Benchmark)
+public class LoadBalancerBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int servers;
+
+    @Param({"LEAST_CONNECTION", "MOST_CONNECTION", "ROUND_ROBIN", "POWER_OF_TWO", "LATENCY_AWARE", "CONSISTENT_HASH", "COMPOSITE"})
+    public AlgorithmType algorithm;
+
+    @Param({"false", "true"})
+    public boolean weighted;
+
+    private LoadBalancer loadBalancer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.loadBalancer = switch (this.algorithm) {
+            case LEAST_CONNECTION -> new LeastConnection();
+            case MOST_CONNECTION -> new MostConnection();
+            case ROUND_ROBIN -> new RoundRobin();
+            case POWER_OF_TWO -> new PowerOfTwo();
+            case LATENCY_AWARE -> new LatencyAware();
+            case CONSISTENT_HASH -> new ConsistentHash();
+            case COMPOSITE -> new Composite();
+            default -> throw new IllegalArgumentException("No benchmark has been set up for " + this.algorithm);
+        };
+        this.loadBalancer.setWeighted(this.weighted);
+
+        Families.build(this.servers, 42).forEach(this.loadBalancer::add);
+        this.loadBalancer.completeSort();
+    }
+
+    @Benchmark
+    public PlayerServer currentAndIterate() {
+        PlayerServer server = this.loadBalancer.current();
+        this.loadBalancer.iterate();
+        return server;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public PlayerServer currentAndIterateContended() {
+        PlayerServer server = this.loadBalancer.current();
+        this.loadBalancer.iterate();
+        return server;
+    }
+
+    @Benchmark
+    public void completeSort() {
+        this.loadBalancer.completeSort();
+    }
+}
@@ -0,0 +1,77 @@
+package group.aelysium.rustyconnector.benchmarks;
+
+import group.aelysium.rustyconnector.core.lib.algorithm.QuickSort;
+import group.aelysium.rustyconnector.core.lib.algorithm.SingleSort;
+import group.aelysium.rustyconnector.core.lib.algorithm.WeightOnlyQuickSort;
+import group.aelysium.rustyconnector.core.lib.algorithm.WeightedQuickSort;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks the sorting algorithms that load balancers use on every heartbeat.
+ * <p>
+ * `SHUFFLED` sorts the family from a random order every time.
+ * `SORTED` re-sorts a family that is already in order, which is the usual state of a load balancer between heartbeats.
+ */
+@State(Scope.Thread)
+public class SortingBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int servers;
+
+    @Param({"SHUFFLED", "SORTED"})
+    public String order;
+
+    private List<PlayerServer> source;
+    private List<PlayerServer> working;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.source = Families.build(this.servers, 42);
+        if(this.order.equals("SHUFFLED")) Collections.shuffle(this.source, new Random(42));
+        else QuickSort.sort(this.source);
+
+        this.working = new ArrayList<>(this.source);
+    }
+
+    /**
+     * Reset the working list to the source order without allocating.
+     */
+    private List<PlayerServer> reset() {
+        for (int i = 0; i < this.source.size(); i++)
+            this.working.set(i, this.source.get(i));
+        return this.working;
+    }
+
+    @Benchmark
+    public List<PlayerServer> quickSort() {
+        List<PlayerServer> list = this.reset();
+        QuickSort.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<PlayerServer> weightedQuickSort() {
+        List<PlayerServer> list = this.reset();
+        WeightedQuickSort.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<PlayerServer> weightOnlyQuickSort() {
+        List<PlayerServer> list = this.reset();
+        WeightOnlyQuickSort.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<PlayerServer> singleSort() {
+        List<PlayerServer> list = this.reset();
+        SingleSort.sort(list, list.size() / 2);
+        return list;
+    }
+}
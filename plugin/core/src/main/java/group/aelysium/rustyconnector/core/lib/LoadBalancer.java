@@ -2,6 +2,10 @@ package group.aelysium.rustyconnector.core.lib;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface LoadBalancer<I> {
     int index = 0;
@@ -34,6 +38,36 @@ public interface LoadBalancer<I> {
      */
     I current();
 
+    /**
+     * Reserve a slot on the current item for a connection that is still in-flight.
+     * `admission` is checked and the slot is claimed as one atomic step, after which the load balancer iterates.
+     * Until the returned lease is committed or rolled back, the reserved slot counts as a player on that item.
+     * This lets concurrent callers spread across items instead of all picking the same one.
+     * @param admission Checks whether the item can accept the connection.
+     * @return A lease on the reserved item. Or an empty optional if `admission` refused the current item.
+     */
+    Optional<Lease<I>> reserve(Predicate<I> admission);
+
+    /**
+     * Reserve a slot for a connection that belongs to `key`.
+     * Load balancers with affinity use the key to send the same caller to the same item whenever they can.
+     * All other load balancers ignore the key and behave exactly like {@link #reserve(Predicate)}.
+     * @param key The key to route by. Usually a player's UUID.
+     * @param admission Checks whether the item can accept the connection.
+     * @return A lease on the reserved item. Or an empty optional if `admission` refused the chosen item.
+     */
+    Optional<Lease<I>> reserve(UUID key, Predicate<I> admission);
+
+    /**
+     * Reserve a slot for a connection that belongs to `key`, without picking any of the `excluded` items.
+     * Retries use this so that an item which just failed to connect isn't picked again.
+     * @param key The key to route by. Usually a player's UUID.
+     * @param excluded The items which must not be picked. Usually the ones that have already been tried.
+     * @param admission Checks whether the item can accept the connection.
+     * @return A lease on the reserved item. Or an empty optional if every item is excluded, or `admission` refused the chosen item.
+     */
+    Optional<Lease<I>> reserve(UUID key, Set<I> excluded, Predicate<I> admission);
+
     /**
      * Get the index number of the currently selected item.
      * @return The current index.
@@ -64,6 +98,13 @@ public interface LoadBalancer<I> {
      */
     void singleSort();
 
+    /**
+     * Let the load balancer know that the sort index of an item has changed.
+     * Load balancers which keep their items ordered at all times can use this to re-position only that one item.
+     * @param item The item whose sort index has changed.
+     */
+    void update(I item);
+
     /**
      * Add an item to the load balancer.
      */
@@ -109,4 +150,26 @@ public interface LoadBalancer<I> {
      * Resets the index of the load balancer.
      */
     void resetIndex();
-}
+
+    /**
+     * A slot which has been reserved on an item by {@link LoadBalancer#reserve(Predicate)}.
+     * Every lease must be either committed or rolled back exactly once. Any further calls are ignored.
+     */
+    interface Lease<I> {
+        /**
+         * Get the item that this lease reserved a slot on.
+         * @return The item.
+         */
+        I item();
+
+        /**
+         * The connection succeeded. Releases the reservation.
+         */
+        void commit();
+
+        /**
+         * The connection failed. Releases the reservation and gives the slot back to the item.
+         */
+        void rollback();
+    }
+}
\ No newline at end of file
@@ -10,13 +10,15 @@ public class SingleSort {
      * @param index The index to sort.
      */
     public static <I extends Sortable> void sort(List<I> array, int index) {
-        I item = array.get(index);
-        array.remove(item);
+        I item = array.remove(index);
+        int sortIndex = item.sortIndex();
 
-        for (I entry : array) {
-            if(item.sortIndex() < entry.sortIndex()) continue;
-            array.add(array.indexOf(entry), item);
+        for (int i = 0; i < array.size(); i++) {
+            if(sortIndex < array.get(i).sortIndex()) continue;
+            array.add(i, item);
             return;
         }
+
+        array.add(item);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package group.aelysium.rustyconnector.core.lib.algorithm;
+
+import group.aelysium.rustyconnector.core.lib.model.Sortable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The sorting engine behind {@link QuickSort}, {@link WeightedQuickSort} and {@link WeightOnlyQuickSort}.
+ * <p>
+ * The `sortIndex` and `weight` of every entry is read exactly once and cached as a primitive key.
+ * Each key is packed together with the entry's original position into a `long`, which makes every sort stable
+ * and lets it run on {@link Arrays#sort(long[], int, int)} which is O(n log n) in the worst case.
+ * Weights are grouped using a counting sort whenever their range is small enough.
+ * <p>
+ * Scratch buffers are kept per-thread and only grow, so steady-state sorting doesn't allocate.
+ */
+public class SortEngine {
+    /**
+     * The largest range of weights that will be grouped using a counting sort.
+     */
+    private static final int COUNTING_SORT_RANGE = 1024;
+
+    private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Stable sort by `sortIndex`, lowest first.
+     * @param array The list to sort.
+     */
+    public static <I extends Sortable> void sortByIndex(List<I> array) {
+        int size = array.size();
+        if(size < 2) return;
+
+        Buffers buffers = SortEngine.buffers.get().ensure(size);
+        Object[] items = buffers.items;
+        long[] keys = buffers.keys;
+
+        for (int i = 0; i < size; i++) {
+            Sortable item = array.get(i);
+            items[i] = item;
+            keys[i] = pack(item.sortIndex(), i);
+        }
+
+        Arrays.sort(keys, 0, size);
+
+        apply(array, items, keys, size);
+        Arrays.fill(items, 0, size, null);
+    }
+
+    /**
+     * Stable sort by `weight`, highest first.
+     * @param array The list to sort.
+     */
+    public static <I extends Sortable> void sortByWeight(List<I> array) {
+        int size = array.size();
+        if(size < 2) return;
+
+        Buffers buffers = SortEngine.buffers.get().ensure(size);
+        Object[] items = buffers.items;
+
+        for (int i = 0; i < size; i++)
+            items[i] = array.get(i);
+
+        groupByWeight(array, items, buffers, size);
+        Arrays.fill(items, 0, size, null);
+    }
+
+    /**
+     * Stable sort by `weight`, highest first.
+     * Entries of the same weight are then sorted by `sortIndex`, lowest first.
+     * @param array The list to sort.
+     */
+    public static <I extends Sortable> void sortByWeightThenIndex(List<I> array) {
+        int size = array.size();
+        if(size < 2) return;
+
+        Buffers buffers = SortEngine.buffers.get().ensure(size);
+        Object[] items = buffers.items;
+        Object[] ordered = buffers.ordered;
+        long[] keys = buffers.keys;
+
+        for (int i = 0; i < size; i++) {
+            Sortable item = array.get(i);
+            items[i] = item;
+            keys[i] = pack(item.sortIndex(), i);
+        }
+
+        Arrays.sort(keys, 0, size);
+
+        for (int i = 0; i < size; i++)
+            ordered[i] = items[(int) keys[i]];
+
+        groupByWeight(array, ordered, buffers, size);
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(ordered, 0, size, null);
+    }
+
+    /**
+     * Writes `items` into `array` grouped by weight, highest first, keeping the current order within each weight.
+     */
+    @SuppressWarnings("unchecked")
+    private static <I extends Sortable> void groupByWeight(List<I> array, Object[] items, Buffers buffers, int size) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int weight = ((Sortable) items[i]).weight();
+            if(weight < min) min = weight;
+            if(weight > max) max = weight;
+        }
+
+        long range = (long) max - min + 1;
+        if(range == 1) {
+            for (int i = 0; i < size; i++)
+                array.set(i, (I) items[i]);
+            return;
+        }
+
+        if(range > COUNTING_SORT_RANGE) {
+            long[] keys = buffers.keys;
+            for (int i = 0; i < size; i++)
+                keys[i] = pack(~((Sortable) items[i]).weight(), i); // ~weight puts the highest weight first
+
+            Arrays.sort(keys, 0, size);
+
+            apply(array, items, keys, size);
+            return;
+        }
+
+        // Counting sort. Bucket 0 holds the highest weight.
+        int[] counts = buffers.counts((int) range + 1);
+        for (int i = 0; i < size; i++)
+            counts[max - ((Sortable) items[i]).weight() + 1]++;
+        for (int i = 1; i <= range; i++)
+            counts[i] += counts[i - 1];
+
+        for (int i = 0; i < size; i++) {
+            I item = (I) items[i];
+            array.set(counts[max - item.weight()]++, item);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I extends Sortable> void apply(List<I> array, Object[] items, long[] keys, int size) {
+        for (int i = 0; i < size; i++)
+            array.set(i, (I) items[(int) keys[i]]);
+    }
+
+    /**
+     * Packs a key and an entry's position into a single `long`.
+     * Sorting the packed values sorts by key, and ties are broken by position which keeps the sort stable.
+     */
+    private static long pack(int key, int position) {
+        return ((long) key << 32) | position;
+    }
+
+    private static class Buffers {
+        private Object[] items = new Object[0];
+        private Object[] ordered = new Object[0];
+        private long[] keys = new long[0];
+        private int[] counts = new int[0];
+
+        private Buffers ensure(int size) {
+            if(this.keys.length >= size) return this;
+
+            int capacity = Math.max(size, this.keys.length * 2);
+            this.items = new Object[capacity];
+            this.ordered = new Object[capacity];
+            this.keys = new long[capacity];
+            return this;
+        }
+
+        private int[] counts(int size) {
+            if(this.counts.length < size) this.counts = new int[Math.max(size, COUNTING_SORT_RANGE + 1)];
+            else Arrays.fill(this.counts, 0, size, 0);
+            return this.counts;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package group.aelysium.rustyconnector.core.lib.data_transit;
 
+import group.aelysium.rustyconnector.core.lib.packets.BinaryPacketCodec;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import group.aelysium.rustyconnector.core.lib.exception.BlockedMessageException;
 import group.aelysium.rustyconnector.core.lib.exception.NoOutputException;
@@ -36,12 +37,12 @@ public class DataTransitService extends Service {
      * @throws BlockedMessageException If the message should be blocked.
      */
     public void validate(GenericPacket message) throws BlockedMessageException, NoOutputException {
-        if(message.messageVersion() > GenericPacket.protocolVersion())
-            throw new BlockedMessageException("The incoming message contained a protocol version greater than expected! " + message.messageVersion() + " > " + GenericPacket.protocolVersion() + ". Make sure you are using the same version of RustyConnector on your proxy and sub-servers!");
+        if(message.messageVersion() > BinaryPacketCodec.PROTOCOL_VERSION)
+            throw new BlockedMessageException("The incoming message contained a protocol version greater than expected! " + message.messageVersion() + " > " + BinaryPacketCodec.PROTOCOL_VERSION + ". Make sure you are using the same version of RustyConnector on your proxy and sub-servers!");
         if(message.messageVersion() < GenericPacket.protocolVersion())
             throw new BlockedMessageException("The incoming message contained a protocol version that was less than expected! " + message.messageVersion() + " < " + GenericPacket.protocolVersion() + ". Make sure you are using the same version of RustyConnector on your proxy and sub-servers!");
 
-        if(message.toString().length() > this.maxLength)
+        if(message.rawLength() > this.maxLength)
             throw new BlockedMessageException("The message is to long!");
 
         if(hasBlacklist)
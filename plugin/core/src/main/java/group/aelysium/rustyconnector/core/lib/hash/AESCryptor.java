@@ -1,22 +1,93 @@
 package group.aelysium.rustyconnector.core.lib.hash;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.security.SecureRandom;
 import java.util.Base64;
 
+/**
+ * Encrypts and decrypts data with AES.
+ * <p>
+ * Data is encrypted using the cryptor's {@link EncryptionMode}, which also decides what can be decrypted.
+ * GCM data can always be decrypted, but ECB data is refused in {@link EncryptionMode#GCM} mode.
+ * That way a fleet can be moved over to GCM one node at a time, using the same key that it's always used, and then locked down.
+ * <p>
+ * In GCM mode, encrypted data is laid out as:
+ * <pre>
+ * [marker: byte] [nonce: 12 bytes] [ciphertext + tag]
+ * </pre>
+ * Ciphers are expensive to create, so each thread keeps it's own.
+ */
 public class AESCryptor {
+    private static final String ECB_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /**
+     * The first byte of all data encrypted in GCM mode.
+     * ECB data can start with this byte too. Modes which accept ECB data anyway will try it as ECB after it's failed to authenticate as GCM.
+     */
+    protected static final byte GCM_MARKER = 0x47;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+    private static final int GCM_OVERHEAD = 1 + NONCE_LENGTH + TAG_LENGTH / 8;
+    private static final int BLOCK_SIZE = 16;
+
+    private static final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+
     private final SecretKey key;
-    private static final int DATA_LENGTH = 128;
-    private Cipher encryptionCipher;
+    private final EncryptionMode mode;
+    private final ThreadLocal<Cipher> ecbEncryption;
+    private final ThreadLocal<Cipher> ecbDecryption;
+    private final ThreadLocal<Cipher> gcm;
 
     public AESCryptor(SecretKey key) {
+        this(key, EncryptionMode.ECB);
+    }
+
+    public AESCryptor(SecretKey key, EncryptionMode mode) {
         this.key = key;
+        this.mode = mode;
+        this.ecbEncryption = ThreadLocal.withInitial(() -> cipher(ECB_TRANSFORMATION, Cipher.ENCRYPT_MODE));
+        this.ecbDecryption = ThreadLocal.withInitial(() -> cipher(ECB_TRANSFORMATION, Cipher.DECRYPT_MODE));
+        // GCM needs a new nonce for every message, so these are initialized each time they're used.
+        this.gcm = ThreadLocal.withInitial(() -> cipher(GCM_TRANSFORMATION, null));
+    }
+
+    public EncryptionMode mode() {
+        return this.mode;
+    }
+
+    /**
+     * Get a cryptor which uses the same key as this one, but encrypts using a different mode.
+     * @param mode The mode to encrypt with.
+     * @return A cryptor.
+     */
+    public AESCryptor withMode(EncryptionMode mode) {
+        if(mode == this.mode) return this;
+        return new AESCryptor(this.key, mode);
+    }
+
+    private Cipher cipher(String transformation, Integer operation) {
+        try {
+            Cipher cipher = Cipher.getInstance(transformation);
+            if(operation != null) cipher.init(operation, this.key);
+            return cipher;
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to create a cipher for " + transformation + "!", e);
+        }
+    }
+
+    private static byte[] nonce() {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.get().nextBytes(nonce);
+        return nonce;
     }
 
     private String encode(byte[] data) {
@@ -28,23 +99,147 @@ public class AESCryptor {
     }
 
     public String encrypt(String data) throws Exception {
-        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-        cipher.init(Cipher.ENCRYPT_MODE, this.key);
-        byte[] encryptedBytes = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        return this.encrypt(data.getBytes(StandardCharsets.UTF_8));
+    }
 
-        return Base64.getEncoder().encodeToString(encryptedBytes);
+    /**
+     * Encrypt some bytes.
+     * @param data The bytes to encrypt.
+     * @return The encrypted bytes, as Base64.
+     */
+    public String encrypt(byte[] data) throws Exception {
+        return Base64.getEncoder().encodeToString(this.encryptBytes(data));
     }
 
     public String decrypt(String encryptedData) throws Exception {
-        byte[] encryptedBytes = Base64.getDecoder().decode(encryptedData);
+        return new String(this.decryptToBytes(encryptedData), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypt some Base64 data, without turning it back into a string.
+     * @param encryptedData The Base64 data to decrypt.
+     * @return The decrypted bytes.
+     */
+    public byte[] decryptToBytes(String encryptedData) throws Exception {
+        return this.decryptBytes(Base64.getDecoder().decode(encryptedData));
+    }
+
+    /**
+     * Encrypt some bytes, without turning them into Base64.
+     * @param data The bytes to encrypt.
+     * @return The encrypted bytes.
+     */
+    public byte[] encryptBytes(byte[] data) throws Exception {
+        if(this.mode == EncryptionMode.ECB) return this.ecbEncryption.get().doFinal(data);
+
+        byte[] nonce = nonce();
+        Cipher cipher = this.gcm.get();
+        cipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, nonce));
+
+        byte[] encrypted = new byte[1 + NONCE_LENGTH + cipher.getOutputSize(data.length)];
+        encrypted[0] = GCM_MARKER;
+        System.arraycopy(nonce, 0, encrypted, 1, NONCE_LENGTH);
+        cipher.doFinal(data, 0, data.length, encrypted, 1 + NONCE_LENGTH);
+
+        return encrypted;
+    }
+
+    /**
+     * Decrypt some bytes, which were encrypted using any mode that this cryptor accepts.
+     * @param encryptedData The bytes to decrypt.
+     * @return The decrypted bytes.
+     * @throws AEADBadTagException If the data isn't GCM data which authenticates, and this cryptor doesn't accept ECB data.
+     */
+    public byte[] decryptBytes(byte[] encryptedData) throws Exception {
+        if(encryptedData.length >= GCM_OVERHEAD && encryptedData[0] == GCM_MARKER)
+            try {
+                Cipher cipher = this.gcm.get();
+                cipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, encryptedData, 1, NONCE_LENGTH));
+                return cipher.doFinal(encryptedData, 1 + NONCE_LENGTH, encryptedData.length - 1 - NONCE_LENGTH);
+            } catch (AEADBadTagException e) {
+                if(!this.retryAsECB(encryptedData.length)) throw e;
+            }
+        else if(!this.mode.acceptsECB()) throw new AEADBadTagException("Only GCM encrypted data is accepted!");
+
+        try {
+            return this.ecbDecryption.get().doFinal(encryptedData);
+        } catch (Exception e) {
+            this.ecbDecryption.remove(); // A failed cipher isn't guaranteed to be reusable
+            throw e;
+        }
+    }
+
+    /**
+     * Encrypt the remaining bytes in a buffer.
+     * @param data The bytes to encrypt. The buffer's position is moved to it's limit.
+     * @return A buffer containing the encrypted bytes, ready to be read.
+     */
+    public ByteBuffer encrypt(ByteBuffer data) throws Exception {
+        if(this.mode == EncryptionMode.ECB) {
+            Cipher cipher = this.ecbEncryption.get();
+            ByteBuffer encrypted = ByteBuffer.allocate(cipher.getOutputSize(data.remaining()));
+            cipher.doFinal(data, encrypted);
+            return encrypted.flip();
+        }
+
+        byte[] nonce = nonce();
+        Cipher cipher = this.gcm.get();
+        cipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, nonce));
+
+        ByteBuffer encrypted = ByteBuffer.allocate(1 + NONCE_LENGTH + cipher.getOutputSize(data.remaining()));
+        encrypted.put(GCM_MARKER).put(nonce);
+        cipher.doFinal(data, encrypted);
+        return encrypted.flip();
+    }
+
+    /**
+     * Decrypt the remaining bytes in a buffer, which were encrypted using any mode that this cryptor accepts.
+     * @param encryptedData The bytes to decrypt. The buffer's position is moved to it's limit.
+     * @return A buffer containing the decrypted bytes, ready to be read.
+     * @throws AEADBadTagException If the data isn't GCM data which authenticates, and this cryptor doesn't accept ECB data.
+     */
+    public ByteBuffer decrypt(ByteBuffer encryptedData) throws Exception {
+        int length = encryptedData.remaining();
+        if(length >= GCM_OVERHEAD && encryptedData.get(encryptedData.position()) == GCM_MARKER)
+            try {
+                ByteBuffer data = encryptedData.duplicate();
+                byte[] nonce = new byte[NONCE_LENGTH];
+                data.get();
+                data.get(nonce);
 
-        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
-        cipher.init(Cipher.DECRYPT_MODE, this.key);
-        byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
+                Cipher cipher = this.gcm.get();
+                cipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, nonce));
 
-        return new String(decryptedBytes, StandardCharsets.UTF_8);
+                ByteBuffer decrypted = ByteBuffer.allocate(cipher.getOutputSize(data.remaining()));
+                cipher.doFinal(data, decrypted);
+                encryptedData.position(encryptedData.limit());
+                return decrypted.flip();
+            } catch (AEADBadTagException e) {
+                if(!this.retryAsECB(length)) throw e;
+            }
+        else if(!this.mode.acceptsECB()) throw new AEADBadTagException("Only GCM encrypted data is accepted!");
+
+        try {
+            Cipher cipher = this.ecbDecryption.get();
+            ByteBuffer decrypted = ByteBuffer.allocate(cipher.getOutputSize(length));
+            cipher.doFinal(encryptedData, decrypted);
+            return decrypted.flip();
+        } catch (Exception e) {
+            this.ecbDecryption.remove(); // A failed cipher isn't guaranteed to be reusable
+            throw e;
+        }
     }
 
+    /**
+     * Data which starts with the GCM marker but fails to authenticate might just be ECB data that happens to start with the same byte.
+     * Modes which accept ECB data try it as ECB, which doesn't give up anything they aren't already giving up.
+     * {@link EncryptionMode#GCM} treats it as tampered with. Otherwise, failing the tag check would just be a way of getting ECB data accepted.
+     * @param length The length of the data.
+     * @return `true` if the data should be tried as ECB.
+     */
+    private boolean retryAsECB(int length) {
+        return this.mode.acceptsECB() && length % BLOCK_SIZE == 0;
+    }
 
     public static byte[] createKey() throws NoSuchAlgorithmException {
         KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
@@ -59,4 +254,4 @@ public class AESCryptor {
 
         return new AESCryptor(secretKey);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package group.aelysium.rustyconnector.core.lib.hash;
+
+/**
+ * The cipher mode that an {@link AESCryptor} encrypts with, and which modes it will accept when decrypting.
+ * Every mode uses the same key.
+ * <p>
+ * To move a fleet over to GCM, update every node, switch every node to {@link #GCM_MIGRATING}, and then switch every node to {@link #GCM}.
+ */
+public enum EncryptionMode {
+    /**
+     * AES in ECB mode. It's what every version of RustyConnector understands.
+     * Identical blocks encrypt to identical ciphertext, and nothing stops ciphertext from being tampered with.
+     * GCM data is still accepted, so that peers which have already moved to {@link #GCM_MIGRATING} can be read.
+     */
+    ECB,
+
+    /**
+     * Encrypts with GCM, but still accepts ECB data from peers which haven't been switched over yet.
+     * Since ECB data is accepted, this doesn't protect against tampering. It only exists to get a fleet over to {@link #GCM}.
+     * Don't stay in it for longer than the switch-over takes.
+     */
+    GCM_MIGRATING,
+
+    /**
+     * AES in GCM mode, with a random nonce for every message.
+     * Only GCM data is accepted. Ciphertext is authenticated, so tampered, corrupted, or ECB messages are rejected instead of being decrypted.
+     */
+    GCM;
+
+    /**
+     * Does this mode accept data that was encrypted with ECB?
+     * @return `true` if ECB data is accepted. `false` otherwise.
+     */
+    public boolean acceptsECB() {
+        return this != GCM;
+    }
+}
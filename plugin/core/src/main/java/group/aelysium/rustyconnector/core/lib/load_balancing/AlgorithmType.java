@@ -15,5 +15,29 @@ public enum AlgorithmType {
     /**
      * Used when the proxy should fill the servers that have the highest number of players, first.
      */
-    MOST_CONNECTION
+    MOST_CONNECTION,
+
+    /**
+     * Used when the proxy should sample two random servers and fill whichever one has fewer players.
+     * Doesn't need any sorting, so it scales well to very large families.
+     */
+    POWER_OF_TWO,
+
+    /**
+     * Used when the proxy should fill servers based on both their player count and how quickly players have recently been able to connect to them.
+     * Servers that are lagging or failing connections are avoided.
+     */
+    LATENCY_AWARE,
+
+    /**
+     * Used when returning players should be sent back to the same server they were on last time.
+     * Players are hashed onto a ring of servers, and no server is allowed to go too far over the average load.
+     */
+    CONSISTENT_HASH,
+
+    /**
+     * Used when the proxy should fill servers based on a weighted score of their TPS, MSPT, used heap, loaded chunks and player count.
+     * New players are sent to whichever server has the most real headroom.
+     */
+    COMPOSITE
 }
\ No newline at end of file
@@ -10,10 +10,12 @@ import group.aelysium.rustyconnector.core.lib.lang.log_gate.GateKey;
 import group.aelysium.rustyconnector.core.lib.packets.*;
 
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public abstract class MessengerSubscriber {
     private final AESCryptor cryptor;
+    private final PacketCodec codec;
     private final PluginLogger logger;
     private MessageCacheService messageCache;
     private Map<PacketType.Mapping, PacketHandler> handlers;
@@ -21,7 +23,12 @@ public abstract class MessengerSubscriber {
     private InetSocketAddress originAddress;
 
     public MessengerSubscriber(AESCryptor cryptor, MessageCacheService messageCache, PluginLogger logger, Map<PacketType.Mapping, PacketHandler> handlers, PacketOrigin origin, InetSocketAddress originAddress) {
+        this(cryptor, new PacketCodec(PacketFormat.JSON, origin), messageCache, logger, handlers, origin, originAddress);
+    }
+
+    public MessengerSubscriber(AESCryptor cryptor, PacketCodec codec, MessageCacheService messageCache, PluginLogger logger, Map<PacketType.Mapping, PacketHandler> handlers, PacketOrigin origin, InetSocketAddress originAddress) {
         this.cryptor = cryptor;
+        this.codec = codec;
         this.messageCache = messageCache;
         this.logger = logger;
         this.handlers = handlers;
@@ -41,18 +48,24 @@ public abstract class MessengerSubscriber {
 
         CacheableMessage cachedMessage = null;
         try {
-            String decryptedMessage;
+            byte[] decryptedMessage;
             try {
-                decryptedMessage = this.cryptor().decrypt(rawMessage);
-                cachedMessage = messageCache.cacheMessage(decryptedMessage, PacketStatus.UNDEFINED);
+                decryptedMessage = this.cryptor().decryptToBytes(rawMessage);
             } catch (Exception e) {
                 cachedMessage = messageCache.cacheMessage(rawMessage, PacketStatus.UNDEFINED);
                 cachedMessage.sentenceMessage(PacketStatus.AUTH_DENIAL, "This message was encrypted using a different private key from what I have!");
                 return;
             }
 
-            GenericPacket.Serializer serializer = new GenericPacket.Serializer();
-            GenericPacket message = serializer.parseReceived(decryptedMessage);
+            // Binary packets are cached as JSON so that they can still be read with `/rc message get`.
+            GenericPacket message;
+            if(BinaryPacketCodec.isBinary(decryptedMessage)) {
+                message = this.codec.decode(decryptedMessage);
+                cachedMessage = messageCache.cacheMessage(message.toString(), PacketStatus.UNDEFINED);
+            } else {
+                cachedMessage = messageCache.cacheMessage(new String(decryptedMessage, StandardCharsets.UTF_8), PacketStatus.UNDEFINED);
+                message = this.codec.decode(decryptedMessage);
+            }
 
             if(messageCache.ignoredType(message)) messageCache.removeMessage(cachedMessage.getSnowflake());
             if(message.origin() == this.origin) throw new Exception("Message from the "+this.origin.name()+"! Ignoring...");
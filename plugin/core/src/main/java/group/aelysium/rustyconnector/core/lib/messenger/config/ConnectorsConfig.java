@@ -1,7 +1,9 @@
 package group.aelysium.rustyconnector.core.lib.messenger.config;
 
 import group.aelysium.rustyconnector.core.lib.config.YAML;
+import group.aelysium.rustyconnector.core.lib.hash.EncryptionMode;
 import group.aelysium.rustyconnector.core.lib.model.UserPass;
+import group.aelysium.rustyconnector.core.lib.packets.PacketFormat;
 import io.lettuce.core.protocol.ProtocolVersion;
 
 import java.io.File;
@@ -13,6 +15,9 @@ public class ConnectorsConfig extends YAML {
     private ProtocolVersion redis_protocol;
 
     private String redis_dataChannel;
+    private boolean redis_legacyDataChannel;
+    private PacketFormat redis_packetFormat;
+    private EncryptionMode redis_encryption;
 
     private InetSocketAddress mysql_address;
     private UserPass mysql_user;
@@ -34,6 +39,18 @@ public class ConnectorsConfig extends YAML {
         return redis_dataChannel;
     }
 
+    public boolean getRedis_legacyDataChannel() {
+        return redis_legacyDataChannel;
+    }
+
+    public PacketFormat getRedis_packetFormat() {
+        return redis_packetFormat;
+    }
+
+    public EncryptionMode getRedis_encryption() {
+        return redis_encryption;
+    }
+
 
     public InetSocketAddress getMysql_address() {
         return mysql_address;
@@ -70,6 +87,21 @@ public class ConnectorsConfig extends YAML {
 
             this.redis_dataChannel = this.getNode(this.data, "redis.data-channel", String.class);
             if (this.redis_dataChannel.equals("")) throw new IllegalStateException("Please configure your connector settings. `dataChannel` cannot be empty for Redis connectors.");
+
+            this.redis_legacyDataChannel = true;
+            try {
+                this.redis_legacyDataChannel = this.getNode(this.data, "redis.legacy-data-channel", Boolean.class);
+            } catch (Exception ignore) {}
+
+            this.redis_packetFormat = PacketFormat.JSON;
+            try {
+                this.redis_packetFormat = PacketFormat.valueOf(this.getNode(this.data, "redis.packet-format", String.class).toUpperCase());
+            } catch (Exception ignore) {}
+
+            this.redis_encryption = EncryptionMode.ECB;
+            try {
+                this.redis_encryption = EncryptionMode.valueOf(this.getNode(this.data, "redis.encryption", String.class).toUpperCase());
+            } catch (Exception ignore) {}
         }
 
         if(loadStorage) {
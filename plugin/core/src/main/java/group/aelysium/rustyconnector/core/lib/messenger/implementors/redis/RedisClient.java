@@ -8,24 +8,60 @@ import io.lettuce.core.protocol.ProtocolVersion;
 import io.lettuce.core.resource.ClientResources;
 import org.jetbrains.annotations.NotNull;
 
+import java.net.InetSocketAddress;
 import java.time.Duration;
 
+/**
+ * A Redis client which knows which channels RustyConnector talks over.
+ * <p>
+ * Packets for the proxy are published on the {@link #proxyChannel() proxy channel}, and packets for a server are published on that {@link #serverChannel(InetSocketAddress) server's channel}.
+ * That way servers only ever decrypt packets that were meant for them.
+ * <p>
+ * The {@link #dataChannel() data channel} is what older versions of RustyConnector send everything over.
+ * While {@link #legacyDataChannel()} is enabled, everyone still listens to it, and packets that nobody heard on their own channel are sent over it,
+ * so that peers that haven't been updated yet can still be talked to.
+ */
 public class RedisClient extends io.lettuce.core.RedisClient {
     private final String dataChannel;
+    private final boolean legacyDataChannel;
 
-    protected RedisClient(ClientResources clientResources, RedisURI redisURI, @NotNull String dataChannel) {
+    protected RedisClient(ClientResources clientResources, RedisURI redisURI, @NotNull String dataChannel, boolean legacyDataChannel) {
         super(clientResources, redisURI);
 
         this.dataChannel = dataChannel;
+        this.legacyDataChannel = legacyDataChannel;
     }
 
     public String dataChannel() {
         return dataChannel;
     }
 
+    /**
+     * Is the data channel still used to talk to peers running older versions?
+     * Once every node has been updated, this can be turned off so that nobody decrypts packets that weren't meant for them.
+     * @return `true` if the data channel is used. `false` otherwise.
+     */
+    public boolean legacyDataChannel() {
+        return legacyDataChannel;
+    }
+
+    public String proxyChannel() {
+        return this.dataChannel + ":proxy";
+    }
 
-    public static RedisClient create(ClientResources resources, RedisURI uri, @NotNull String dataChannel) {
-        return new RedisClient(resources, uri, dataChannel);
+    /**
+     * Get the channel that packets for a specific server are published on.
+     * @param address The address of the server.
+     * @return The name of the channel.
+     */
+    public String serverChannel(InetSocketAddress address) {
+        // Addresses are written the same way they are in packets, so that the proxy and the server agree on the name.
+        return this.dataChannel + ":server:" + address.getHostString() + ":" + address.getPort();
+    }
+
+
+    public static RedisClient create(ClientResources resources, RedisURI uri, @NotNull String dataChannel, boolean legacyDataChannel) {
+        return new RedisClient(resources, uri, dataChannel, legacyDataChannel);
     }
 
     public static class Builder {
@@ -36,6 +72,7 @@ public class RedisClient extends io.lettuce.core.RedisClient {
         private char[] password = null;
         private ProtocolVersion protocolVersion = ProtocolVersion.newestSupported();
         private String dataChannel = "rusty-connector";
+        private boolean legacyDataChannel = true;
 
         public Builder() {}
 
@@ -64,6 +101,11 @@ public class RedisClient extends io.lettuce.core.RedisClient {
             return this;
         }
 
+        public Builder setLegacyDataChannel(boolean legacyDataChannel) {
+            this.legacyDataChannel = legacyDataChannel;
+            return this;
+        }
+
         public Builder setProtocol(ProtocolVersion protocolVersion) {
             this.protocolVersion = protocolVersion;
             return this;
@@ -104,7 +146,7 @@ public class RedisClient extends io.lettuce.core.RedisClient {
                         .withAuthentication(this.user, this.password)
                         .build();
 
-            RedisClient client = RedisClient.create(this.resources, uri, dataChannel);
+            RedisClient client = RedisClient.create(this.resources, uri, dataChannel, legacyDataChannel);
             client.setOptions(options);
 
             return client;
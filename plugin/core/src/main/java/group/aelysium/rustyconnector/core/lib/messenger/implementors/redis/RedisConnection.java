@@ -7,6 +7,7 @@ import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import group.aelysium.rustyconnector.core.lib.messenger.MessengerConnection;
 import group.aelysium.rustyconnector.core.lib.model.FailService;
 import group.aelysium.rustyconnector.core.lib.model.LiquidTimestamp;
+import group.aelysium.rustyconnector.core.lib.packets.PacketCodec;
 import group.aelysium.rustyconnector.core.lib.packets.PacketHandler;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
@@ -28,12 +29,14 @@ public class RedisConnection extends MessengerConnection {
     private ExecutorService executorService;
     private final FailService failService;
     private AESCryptor cryptor;
+    private final PacketCodec codec;
 
-    public RedisConnection(PacketOrigin origin, RedisClient.Builder clientBuilder, AESCryptor cryptor) {
+    public RedisConnection(PacketOrigin origin, RedisClient.Builder clientBuilder, AESCryptor cryptor, PacketCodec codec) {
         super(origin);
         this.clientBuilder = clientBuilder;
+        this.codec = codec;
 
-        this.publisher = new RedisPublisher(this.clientBuilder.build(), cryptor);
+        this.publisher = new RedisPublisher(this.clientBuilder.build(), cryptor, codec);
         this.failService = new FailService(5, LiquidTimestamp.from(2, TimeUnit.SECONDS));
         this.cryptor = cryptor;
     }
@@ -44,7 +47,7 @@ public class RedisConnection extends MessengerConnection {
 
         this.executorService.submit(() -> {
             try {
-                RedisSubscriber redis = new RedisSubscriber(this.cryptor, RedisConnection.this.clientBuilder.build(), cache, logger, handlers, this.origin, originAddress);
+                RedisSubscriber redis = new RedisSubscriber(this.cryptor, this.codec, RedisConnection.this.clientBuilder.build(), cache, logger, handlers, this.origin, originAddress);
                 RedisConnection.this.subscribers.add(redis);
 
                 redis.subscribeToChannel(RedisConnection.this.failService);
@@ -70,6 +73,7 @@ public class RedisConnection extends MessengerConnection {
         this.executorService = Executors.newFixedThreadPool(3);
 
         this.isAlive = true;
+        this.publisher.setLogger(logger);
 
         this.subscribe(cache, logger, handlers, originAddress);
     }
@@ -105,4 +109,12 @@ public class RedisConnection extends MessengerConnection {
     public void publish(GenericPacket message) {
         this.publisher.publish(message);
     }
+
+    /**
+     * Get a snapshot of how publishing is going.
+     * @return The publisher's metrics.
+     */
+    public RedisPublisher.Metrics publisherMetrics() {
+        return this.publisher.metrics();
+    }
 }
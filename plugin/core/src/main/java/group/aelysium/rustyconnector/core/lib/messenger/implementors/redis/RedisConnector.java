@@ -3,6 +3,9 @@ package group.aelysium.rustyconnector.core.lib.messenger.implementors.redis;
 import group.aelysium.rustyconnector.core.lib.model.UserPass;
 import group.aelysium.rustyconnector.core.lib.messenger.MessengerConnector;
 import group.aelysium.rustyconnector.core.lib.hash.AESCryptor;
+import group.aelysium.rustyconnector.core.lib.hash.EncryptionMode;
+import group.aelysium.rustyconnector.core.lib.packets.PacketCodec;
+import group.aelysium.rustyconnector.core.lib.packets.PacketFormat;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import io.lettuce.core.protocol.ProtocolVersion;
 import io.lettuce.core.resource.ClientResources;
@@ -13,12 +16,16 @@ import java.net.InetSocketAddress;
 public class RedisConnector extends MessengerConnector<RedisConnection> {
     private static final ClientResources resources = ClientResources.create();
     protected final String dataChannel;
+    protected final boolean legacyDataChannel;
     protected final ProtocolVersion protocolVersion;
+    protected final PacketFormat packetFormat;
 
-    private RedisConnector(AESCryptor cryptor, PacketOrigin origin, InetSocketAddress address, UserPass userPass, ProtocolVersion protocolVersion, String dataChannel) {
+    private RedisConnector(AESCryptor cryptor, PacketOrigin origin, InetSocketAddress address, UserPass userPass, ProtocolVersion protocolVersion, String dataChannel, boolean legacyDataChannel, PacketFormat packetFormat) {
         super(cryptor, origin, address, userPass);
         this.protocolVersion = protocolVersion;
         this.dataChannel = dataChannel;
+        this.legacyDataChannel = legacyDataChannel;
+        this.packetFormat = packetFormat;
     }
 
     @Override
@@ -26,7 +33,8 @@ public class RedisConnector extends MessengerConnector<RedisConnection> {
         this.connection = new RedisConnection(
             origin,
             this.toClientBuilder(),
-            this.cryptor
+            this.cryptor,
+            new PacketCodec(this.packetFormat, this.origin)
         );
 
         return this.connection;
@@ -39,19 +47,20 @@ public class RedisConnector extends MessengerConnector<RedisConnection> {
                 .setUser(this.userPass.user())
                 .setPassword(this.userPass.password())
                 .setDataChannel(this.dataChannel)
+                .setLegacyDataChannel(this.legacyDataChannel)
                 .setResources(resources)
                 .setProtocol(this.protocolVersion);
     }
 
     /**
      * Creates a new {@link RedisConnector} and returns it.
-     * @param cryptor The cryptor to use when shipping messages.
+     * @param cryptor The cryptor to use when shipping messages. Messages are encrypted using the spec's encryption mode.
      * @param spec The spec to load the connector with.
      * @return A {@link RedisConnector}.
      */
     public static RedisConnector create(AESCryptor cryptor, RedisConnectorSpec spec) {
-        return new RedisConnector(cryptor, spec.origin(), spec.address(), spec.userPass(), spec.protocolVersion(), spec.dataChannel());
+        return new RedisConnector(cryptor.withMode(spec.encryption()), spec.origin(), spec.address(), spec.userPass(), spec.protocolVersion(), spec.dataChannel(), spec.legacyDataChannel(), spec.packetFormat());
     }
 
-    public record RedisConnectorSpec(PacketOrigin origin, InetSocketAddress address, UserPass userPass, ProtocolVersion protocolVersion, String dataChannel) { }
+    public record RedisConnectorSpec(PacketOrigin origin, InetSocketAddress address, UserPass userPass, ProtocolVersion protocolVersion, String dataChannel, boolean legacyDataChannel, PacketFormat packetFormat, EncryptionMode encryption) { }
 }
@@ -1,55 +1,299 @@
 package group.aelysium.rustyconnector.core.lib.messenger.implementors.redis;
 
+import group.aelysium.rustyconnector.core.central.PluginLogger;
 import group.aelysium.rustyconnector.core.lib.hash.AESCryptor;
+import group.aelysium.rustyconnector.core.lib.model.ExponentialMovingAverage;
+import group.aelysium.rustyconnector.core.lib.model.RollingPercentile;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
+import group.aelysium.rustyconnector.core.lib.packets.PacketCodec;
+import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import io.lettuce.core.RedisChannelHandler;
 import io.lettuce.core.RedisConnectionStateAdapter;
+import io.lettuce.core.RedisFuture;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.pubsub.api.async.RedisPubSubAsyncCommands;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Publishes packets to Redis.
+ * <p>
+ * Packets are signed on the thread that publishes them, and then queued up.
+ * A single writer thread takes everything that's queued, writes it to Redis without flushing, and then flushes the whole batch at once.
+ * So a burst of packets, like when every server registers at the same time, is sent in a handful of round trips instead of one per packet.
+ * <p>
+ * The writer waits for Redis to answer each batch before sending the next one. If Redis falls behind, the queue fills up.
+ * Publishing never blocks, so once the queue is full new packets are dropped and counted as {@link Metrics#rejected() rejected}.
+ * If a batch can't be sent, it's sent again over a new connection before it's given up on.
+ * Dropped packets are reported through the plugin's logger, at most once every {@link #REPORT_INTERVAL} seconds.
+ */
 public class RedisPublisher {
+    /**
+     * The most packets that can be waiting to be published at once.
+     */
+    protected static final int QUEUE_SIZE = 8192;
+
+    /**
+     * The most packets that are written to Redis in a single flush.
+     */
+    protected static final int BATCH_SIZE = 256;
+
+    /**
+     * How many times a batch is sent, each over a new connection, before it's given up on.
+     */
+    protected static final int SEND_ATTEMPTS = 2;
+
+    /**
+     * How long, in seconds, to wait for Redis to answer a batch.
+     */
+    protected static final long BATCH_TIMEOUT = 10;
+
+    /**
+     * The shortest time, in seconds, between two reports of dropped packets.
+     */
+    protected static final long REPORT_INTERVAL = 30;
+
     private final RedisClient client;
-    private StatefulRedisPubSubConnection<String, String> connection;
     private final AESCryptor cryptor;
-    protected RedisPublisher(RedisClient client, AESCryptor cryptor) {
+    private final PacketCodec codec;
+    private final BlockingQueue<Outgoing> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Thread writer;
+    private volatile boolean alive = true;
+    private volatile PluginLogger logger = null;
+
+    /**
+     * Only ever used by the writer thread.
+     */
+    private StatefulRedisPubSubConnection<String, String> connection;
+    private long reportedRejections = 0;
+    private long lastReport = 0;
+
+    private final ExponentialMovingAverage averageLatency = new ExponentialMovingAverage(0.05);
+    private final RollingPercentile latency = new RollingPercentile(1024);
+    private final AtomicLong published = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    protected RedisPublisher(RedisClient client, AESCryptor cryptor, PacketCodec codec) {
         this.client = client;
         this.client.addListener(new RedisPublisherListener());
         this.cryptor = cryptor;
+        this.codec = codec;
+
+        this.writer = new Thread(this::write, "RustyConnector-RedisPublisher");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Set the logger that dropped packets are reported to.
+     * @param logger The logger to use. If `null`, dropped packets are only counted.
+     */
+    protected void setLogger(PluginLogger logger) {
+        this.logger = logger;
     }
 
     /**
+     * Stop publishing. Packets that are already queued are given a moment to be sent.
      * This RedisPublisher becomes worthless after this is used.
      */
     public void shutdown() {
+        this.alive = false;
+
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException ignore) {}
+
         try {
             this.client.shutdownAsync(2, 2, TimeUnit.SECONDS);
         } catch (Exception ignore) {}
     }
 
     /**
-     * Sends a message over a Redis data channel.
+     * Sends a message over the Redis channel of whoever it's meant for.
+     * If nobody is listening on that channel, for example because the peer is running an older version, the message is sent over the data channel instead.
+     * That only happens while the legacy data channel is enabled. Otherwise, a message that nobody hears is dropped.
      * If a message is not already, this method will sign messages with the private key provided via the RedisClient used to init this RedisPublisher.
      * @param message The message to send.
      * @throws IllegalStateException If you attempt to send a received RedisMessage.
      */
     public void publish(GenericPacket message) {
+        String signedPacket = this.sign(message);
+
+        String channel;
+        if(message.origin() == PacketOrigin.SERVER) channel = this.client.proxyChannel();
+        else channel = this.client.serverChannel(message.address());
+
+        this.enqueue(new Outgoing(channel, signedPacket, this.client.legacyDataChannel(), System.nanoTime()));
+    }
+
+    private String sign(GenericPacket message) {
         if(!message.sendable()) throw new IllegalStateException("Attempted to send a RedisMessage that isn't sendable!");
 
-        String signedPacket;
         try {
-            signedPacket = this.cryptor.encrypt(message.toString());
+            return this.cryptor.encrypt(this.codec.encode(message));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+    }
+
+    /**
+     * Queue a packet to be published. If the publisher has been shut down, or Redis is too far behind to take any more packets, it's dropped.
+     */
+    private void enqueue(Outgoing outgoing) {
+        if(this.alive && this.queue.offer(outgoing)) return;
+
+        this.rejected.incrementAndGet();
+    }
+
+    private void write() {
+        List<Outgoing> batch = new ArrayList<>(BATCH_SIZE);
+
+        while (this.alive || !this.queue.isEmpty()) {
+            try {
+                this.reportRejections();
+
+                Outgoing first = this.queue.poll(1, TimeUnit.SECONDS);
+                if(first == null) continue;
+
+                batch.add(first);
+                this.queue.drainTo(batch, BATCH_SIZE - 1);
+
+                this.deliver(batch);
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                batch.clear();
+            }
+        }
+
+        this.disconnect();
+    }
+
+    /**
+     * Send a batch, along with any messages that have to be sent again over the data channel.
+     * If sending fails, the connection is thrown away and what's left is sent again over a new one.
+     * Once {@link #SEND_ATTEMPTS} is used up, whatever couldn't be sent is counted as rejected.
+     */
+    private void deliver(List<Outgoing> batch) throws InterruptedException {
+        List<Outgoing> pending = batch;
+        int failures = 0;
+
+        while (!pending.isEmpty()) {
+            try {
+                pending = this.send(pending);
+                failures = 0;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                this.disconnect();
+                if(++failures < SEND_ATTEMPTS) continue;
+
+                e.printStackTrace();
+                this.rejected.addAndGet(pending.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Report any packets that were dropped since the last report.
+     * Nothing is reported if a report was made less than {@link #REPORT_INTERVAL} seconds ago, the dropped packets are included in the next one instead.
+     */
+    private void reportRejections() {
+        PluginLogger logger = this.logger;
+        if(logger == null) return;
+
+        long rejected = this.rejected.get();
+        if(rejected == this.reportedRejections) return;
+
+        long now = System.nanoTime();
+        if(this.lastReport != 0 && now - this.lastReport < TimeUnit.SECONDS.toNanos(REPORT_INTERVAL)) return;
+
+        logger.warn((rejected - this.reportedRejections) + " packet(s) couldn't be published to Redis and were dropped! Redis is either unreachable or isn't keeping up. Packets waiting to be published: " + this.queue.size());
+        this.reportedRejections = rejected;
+        this.lastReport = now;
+    }
+
+    private void disconnect() {
+        try {
+            if(this.connection != null) this.connection.close();
+        } catch (Exception ignore) {}
+        this.connection = null;
+    }
+
+    /**
+     * Write a batch to Redis, flush it, and wait for Redis to answer.
+     * Messages that Redis didn't accept in time are counted as rejected.
+     * @return The messages that nobody heard, which have to be sent again over the data channel.
+     */
+    private List<Outgoing> send(List<Outgoing> batch) throws InterruptedException {
+        if(this.connection == null || !this.connection.isOpen()) {
+            this.connection = this.client.connectPubSub();
+            this.connection.setAutoFlushCommands(false);
+        }
+
+        RedisPubSubAsyncCommands<String, String> async = this.connection.async();
+        List<RedisFuture<Long>> futures = new ArrayList<>(batch.size());
+        for (Outgoing outgoing : batch)
+            futures.add(async.publish(outgoing.channel(), outgoing.message()));
+        this.connection.flushCommands();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(BATCH_TIMEOUT);
+        List<Outgoing> unheard = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Outgoing outgoing = batch.get(i);
+            try {
+                long receivers = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
 
-        if(this.connection == null) this.connection = this.client.connectPubSub();
-        if(!this.connection.isOpen()) this.connection = this.client.connectPubSub();
+                if(receivers == 0 && outgoing.fallback())
+                    unheard.add(new Outgoing(this.client.dataChannel(), outgoing.message(), false, outgoing.queuedAt()));
+                else
+                    this.record(outgoing);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                e.printStackTrace();
+                this.rejected.incrementAndGet();
+            }
+        }
+
+        return unheard;
+    }
+
+    private void record(Outgoing outgoing) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - outgoing.queuedAt());
+        this.averageLatency.add(latency);
+        this.latency.add(latency);
+        this.published.incrementAndGet();
+    }
 
-        RedisPubSubAsyncCommands<String, String> async = connection.async();
+    /**
+     * Get the number of packets that are waiting to be published.
+     * @return The number of waiting packets.
+     */
+    public int queueDepth() {
+        return this.queue.size();
+    }
 
-        async.publish(this.client.dataChannel(), signedPacket);
+    /**
+     * Get a snapshot of how publishing is going.
+     * @return The publisher's metrics.
+     */
+    public Metrics metrics() {
+        return new Metrics(
+                this.queue.size(),
+                this.published.get(),
+                this.rejected.get(),
+                this.averageLatency.get(),
+                this.latency.percentile(0.99).orElse(0)
+        );
     }
 
     /**
@@ -67,6 +311,24 @@ public class RedisPublisher {
         }
     }
 
+    /**
+     * A signed packet that's waiting to be published.
+     * @param fallback Whether the packet should be sent over the data channel if nobody hears it.
+     * @param queuedAt When the packet was queued, from {@link System#nanoTime()}.
+     */
+    protected record Outgoing(String channel, String message, boolean fallback, long queuedAt) {}
+
+    /**
+     * How publishing is going.
+     * Latencies are in milliseconds, and are measured from when a packet is queued until Redis has accepted it.
+     * @param queueDepth The number of packets that are waiting to be published.
+     * @param published The number of packets that have been published.
+     * @param rejected The number of packets that were dropped, because the queue was full or because Redis couldn't be reached.
+     * @param averageLatency The moving average of the publish latency.
+     * @param p99Latency The 99th percentile of recent publish latencies.
+     */
+    public record Metrics(int queueDepth, long published, long rejected, double averageLatency, long p99Latency) {}
+
     static class RedisPublisherListener extends RedisConnectionStateAdapter {
         @Override
         public void onRedisExceptionCaught(RedisChannelHandler<?, ?> connection, Throwable cause) {
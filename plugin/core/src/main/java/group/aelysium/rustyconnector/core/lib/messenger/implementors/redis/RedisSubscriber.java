@@ -5,6 +5,7 @@ import group.aelysium.rustyconnector.core.lib.messenger.MessengerSubscriber;
 import group.aelysium.rustyconnector.core.lib.data_transit.cache.MessageCacheService;
 import group.aelysium.rustyconnector.core.lib.hash.AESCryptor;
 import group.aelysium.rustyconnector.core.lib.model.FailService;
+import group.aelysium.rustyconnector.core.lib.packets.PacketCodec;
 import group.aelysium.rustyconnector.core.lib.packets.PacketHandler;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
@@ -15,6 +16,8 @@ import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.pubsub.api.sync.RedisPubSubCommands;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -22,14 +25,23 @@ import java.util.concurrent.TimeUnit;
 public class RedisSubscriber extends MessengerSubscriber {
     private CountDownLatch lock = new CountDownLatch(0);
     private final RedisClient client;
-    public RedisSubscriber(AESCryptor cryptor, RedisClient client, MessageCacheService cache, PluginLogger logger, Map<PacketType.Mapping, PacketHandler > handlers, PacketOrigin origin, InetSocketAddress originAddress) {
-        super(cryptor, cache, logger, handlers, origin, originAddress);
+    private final String[] channels;
+    public RedisSubscriber(AESCryptor cryptor, PacketCodec codec, RedisClient client, MessageCacheService cache, PluginLogger logger, Map<PacketType.Mapping, PacketHandler > handlers, PacketOrigin origin, InetSocketAddress originAddress) {
+        super(cryptor, codec, cache, logger, handlers, origin, originAddress);
         this.client = client;
         this.client.addListener(new RedisSubscriberListener());
+
+        List<String> channels = new ArrayList<>();
+        if(origin == PacketOrigin.PROXY) channels.add(client.proxyChannel());
+        else channels.add(client.serverChannel(originAddress));
+        if(client.legacyDataChannel()) channels.add(client.dataChannel());
+        this.channels = channels.toArray(new String[0]);
     }
 
     /**
-     * Subscribe to a specific Redis data channel.
+     * Subscribe to the Redis channels that packets for us are published on.
+     * The proxy listens on the proxy channel, and servers listen on their own channel.
+     * If the legacy data channel is enabled, both also listen on the data channel, for peers that are running older versions.
      * This method is thread locking.
      */
     public void subscribeToChannel(FailService failService) {
@@ -42,7 +54,7 @@ public class RedisSubscriber extends MessengerSubscriber {
 
             connection.addListener(new RedisMessageListener());
 
-            sync.subscribe(this.client.dataChannel());
+            sync.subscribe(this.channels);
 
             this.lock.await();
         } catch (Exception e) {
@@ -0,0 +1,55 @@
+package group.aelysium.rustyconnector.core.lib.model;
+
+/**
+ * A thread-safe exponentially weighted moving average.
+ * Recent samples count more than old ones, so the average follows changes without storing any history.
+ */
+public class ExponentialMovingAverage {
+    private final double alpha;
+    private volatile double value;
+    private volatile boolean primed;
+
+    /**
+     * Create a new moving average which will take the value of the first sample it's given.
+     * @param alpha How much each new sample counts towards the average. Must be between 0 and 1.
+     */
+    public ExponentialMovingAverage(double alpha) {
+        if(alpha <= 0 || alpha > 1) throw new IllegalArgumentException("Alpha must be greater than 0 and at most 1!");
+        this.alpha = alpha;
+        this.value = 0;
+        this.primed = false;
+    }
+
+    /**
+     * Create a new moving average which starts at `initial`.
+     * @param alpha How much each new sample counts towards the average. Must be between 0 and 1.
+     * @param initial The value to start at.
+     */
+    public ExponentialMovingAverage(double alpha, double initial) {
+        this(alpha);
+        this.value = initial;
+        this.primed = true;
+    }
+
+    /**
+     * Add a sample to the average.
+     * @param sample The sample to add.
+     */
+    public synchronized void add(double sample) {
+        if(!this.primed) {
+            this.value = sample;
+            this.primed = true;
+            return;
+        }
+
+        this.value += this.alpha * (sample - this.value);
+    }
+
+    /**
+     * Get the current average.
+     * @return The average. If no samples have been added yet, this is the initial value or `0`.
+     */
+    public double get() {
+        return this.value;
+    }
+}
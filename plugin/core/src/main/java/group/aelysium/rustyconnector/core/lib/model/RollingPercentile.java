@@ -0,0 +1,47 @@
+package group.aelysium.rustyconnector.core.lib.model;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * A thread-safe window over the most recent samples, which can be asked for any percentile of them.
+ * Once the window is full, each new sample replaces the oldest one.
+ */
+public class RollingPercentile {
+    private final long[] samples;
+    private int count = 0;
+    private int next = 0;
+
+    /**
+     * @param size The number of recent samples to keep.
+     */
+    public RollingPercentile(int size) {
+        if(size <= 0) throw new IllegalArgumentException("Size must be at least 1!");
+        this.samples = new long[size];
+    }
+
+    /**
+     * Add a sample to the window.
+     * @param sample The sample to add.
+     */
+    public synchronized void add(long sample) {
+        this.samples[this.next] = sample;
+        this.next = (this.next + 1) % this.samples.length;
+        if(this.count < this.samples.length) this.count++;
+    }
+
+    /**
+     * Get a percentile of the samples currently in the window.
+     * @param percentile The percentile to get, between 0 and 1. `0.95` returns the p95.
+     * @return The percentile. Or an empty optional if no samples have been added yet.
+     */
+    public synchronized OptionalLong percentile(double percentile) {
+        if(this.count == 0) return OptionalLong.empty();
+
+        long[] sorted = Arrays.copyOf(this.samples, this.count);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile * this.count) - 1;
+        return OptionalLong.of(sorted[Math.max(0, Math.min(index, this.count - 1))]);
+    }
+}
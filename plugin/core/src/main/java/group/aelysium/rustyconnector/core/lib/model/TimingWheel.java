@@ -0,0 +1,106 @@
+package group.aelysium.rustyconnector.core.lib.model;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel.
+ * Every item is placed into one of a ring of buckets based on when it expires, and each tick only looks at a single bucket.
+ * Scheduling, rescheduling and cancelling an item are all O(1), and the only items that are ever looked at are the ones in the bucket that just came up.
+ * Items which expire more than one turn of the wheel away stay in their bucket until their turn comes around.
+ * @param <T> The type of item being timed.
+ */
+public class TimingWheel<T> {
+    private final long tick;
+    private final long start = System.nanoTime();
+    private final List<Set<T>> buckets;
+    private final Map<T, Long> deadlines = new IdentityHashMap<>();
+    private long current = 0;
+
+    /**
+     * @param tick How long each tick of the wheel is. Items expire no later than one tick after they're due.
+     * @param unit The unit of `tick`.
+     * @param size The number of buckets on the wheel.
+     */
+    public TimingWheel(long tick, TimeUnit unit, int size) {
+        if(tick <= 0) throw new IllegalArgumentException("Tick must be at least 1!");
+        if(size <= 0) throw new IllegalArgumentException("Size must be at least 1!");
+
+        this.tick = unit.toNanos(tick);
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            this.buckets.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Schedule an item to expire.
+     * If the item has already been scheduled, it's old expiry is replaced.
+     * @param item The item to schedule.
+     * @param delay How long from now the item should expire.
+     * @param unit The unit of `delay`.
+     */
+    public synchronized void schedule(T item, long delay, TimeUnit unit) {
+        long elapsed = System.nanoTime() - this.start + unit.toNanos(delay);
+        long deadline = Math.max((elapsed + this.tick - 1) / this.tick, this.current + 1);
+
+        Long previous = this.deadlines.put(item, deadline);
+        if(previous != null) this.bucket(previous).remove(item);
+        this.bucket(deadline).add(item);
+    }
+
+    /**
+     * Stop an item from expiring.
+     * @param item The item to cancel.
+     */
+    public synchronized void cancel(T item) {
+        Long deadline = this.deadlines.remove(item);
+        if(deadline == null) return;
+        this.bucket(deadline).remove(item);
+    }
+
+    /**
+     * Turn the wheel up to the current time.
+     * If this hasn't been called for a while, every tick that was missed is caught up on.
+     * @return Every item that expired. Expired items are no longer scheduled.
+     */
+    public synchronized List<T> advance() {
+        long target = (System.nanoTime() - this.start) / this.tick;
+        List<T> expired = new ArrayList<>();
+
+        while (this.current < target) {
+            this.current++;
+
+            Set<T> bucket = this.bucket(this.current);
+            if(bucket.isEmpty()) continue;
+
+            Iterator<T> iterator = bucket.iterator();
+            while (iterator.hasNext()) {
+                T item = iterator.next();
+                if(this.deadlines.get(item) > this.current) continue; // This item's turn hasn't come around yet
+
+                iterator.remove();
+                this.deadlines.remove(item);
+                expired.add(item);
+            }
+        }
+
+        return expired;
+    }
+
+    /**
+     * Get the number of items that are currently scheduled.
+     * @return The number of items.
+     */
+    public synchronized int size() {
+        return this.deadlines.size();
+    }
+
+    public synchronized void clear() {
+        this.buckets.forEach(Set::clear);
+        this.deadlines.clear();
+    }
+
+    private Set<T> bucket(long deadline) {
+        return this.buckets.get((int) (deadline % this.buckets.size()));
+    }
+}
@@ -0,0 +1,106 @@
+package group.aelysium.rustyconnector.core.lib.packets;
+
+import group.aelysium.rustyconnector.core.lib.packets.variants.*;
+import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+
+/**
+ * Encodes packets into, and decodes them from, the compact binary format.
+ * <p>
+ * Every packet starts with a header:
+ * <pre>
+ * [magic: byte] [protocol version: byte] [type: short] [origin: byte] [host: utf] [port: unsigned short] [body length: int]
+ * </pre>
+ * and is followed by `body length` bytes of parameters, which each {@link PacketType} writes in it's own fixed order.
+ * Because the body is length-prefixed, newer versions can add parameters to the end of a body and older versions will just skip over them.
+ */
+public class BinaryPacketCodec {
+    /**
+     * The protocol version of packets sent in the binary format.
+     */
+    public static final int PROTOCOL_VERSION = 3;
+
+    /**
+     * The first byte of every binary packet.
+     * JSON packets always start with `{`, so this can never be confused for one.
+     */
+    protected static final byte MAGIC = (byte) 0xB7;
+
+    /**
+     * Check if some data is a packet in the binary format.
+     * @param data The data to check.
+     * @return `true` if the data is a binary packet. `false` otherwise.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] == MAGIC;
+    }
+
+    /**
+     * Encode a packet into the binary format.
+     * @param packet The packet to encode.
+     * @return The encoded packet.
+     */
+    public static byte[] encode(GenericPacket packet) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+        packet.writeBinary(new DataOutputStream(body));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.size() + 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeByte(MAGIC);
+        out.writeByte(PROTOCOL_VERSION);
+        out.writeShort(packet.type().id());
+        out.writeByte(packet.origin().ordinal());
+        if(packet.address() == null) {
+            out.writeUTF("");
+            out.writeShort(0);
+        } else {
+            out.writeUTF(packet.address().getHostString());
+            out.writeShort(packet.address().getPort());
+        }
+        out.writeInt(body.size());
+        body.writeTo(out);
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a packet from the binary format.
+     * @param data The data to decode.
+     * @return A received packet.
+     * @throws IllegalStateException If the data isn't a binary packet, or it's type is unknown.
+     */
+    public static GenericPacket decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+        if(in.readByte() != MAGIC) throw new IllegalStateException("The message isn't a binary packet!");
+        int protocolVersion = in.readUnsignedByte();
+        PacketType.Mapping type = PacketType.mapping(in.readUnsignedShort());
+        PacketOrigin origin = PacketOrigin.values()[in.readUnsignedByte()];
+        String host = in.readUTF();
+        int port = in.readUnsignedShort();
+        // Parsed the same way as JSON packets, so that addresses compare equal no matter which format they arrived in.
+        InetSocketAddress address = host.isEmpty() ? null : AddressUtil.stringToAddress(host + ":" + port);
+
+        byte[] bodyBytes = new byte[in.readInt()];
+        in.readFully(bodyBytes);
+        DataInputStream body = new DataInputStream(new ByteArrayInputStream(bodyBytes));
+
+        GenericPacket packet = decode(type, protocolVersion, address, origin, body);
+        packet.rawLength(data.length);
+        return packet;
+    }
+
+    private static GenericPacket decode(PacketType.Mapping type, int protocolVersion, InetSocketAddress address, PacketOrigin origin, DataInput body) throws IOException {
+        if (type == PacketType.PING)              return new ServerPingPacket(protocolVersion, address, origin, body);
+        if (type == PacketType.PING_RESPONSE)     return new ServerPingResponsePacket(protocolVersion, address, origin, body);
+        if (type == PacketType.SEND_PLAYER)       return new SendPlayerPacket(protocolVersion, address, origin, body);
+        if (type == PacketType.COORDINATE_REQUEST_QUEUE)  return new CoordinateRequestQueuePacket(protocolVersion, address, origin, body);
+        if (type == PacketType.UNLOCK_SERVER)     return new UnlockServerPacket(protocolVersion, address, origin, body);
+        if (type == PacketType.LOCK_SERVER)       return new LockServerPacket(protocolVersion, address, origin, body);
+
+        throw new IllegalStateException("Invalid RedisMessage type encountered!");
+    }
+}
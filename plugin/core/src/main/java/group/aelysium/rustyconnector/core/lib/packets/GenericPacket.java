@@ -1,6 +1,8 @@
 package group.aelysium.rustyconnector.core.lib.packets;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import group.aelysium.rustyconnector.core.lib.packets.variants.LockServerPacket;
 import group.aelysium.rustyconnector.core.lib.packets.variants.CoordinateRequestQueuePacket;
 import group.aelysium.rustyconnector.core.lib.packets.variants.UnlockServerPacket;
@@ -10,9 +12,11 @@ import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingRespons
 import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
 import io.lettuce.core.KeyValue;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.InetSocketAddress;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class GenericPacket {
     private static final int protocolVersion = 2;
@@ -27,9 +31,31 @@ public class GenericPacket {
     private final PacketType.Mapping type;
     private final InetSocketAddress address;
     private final PacketOrigin origin;
+    private int maxProtocolVersion;
+    private int rawLength = -1;
 
     public int messageVersion() { return this.messageVersion; }
 
+    /**
+     * The newest protocol version that the sender of this packet understands.
+     * Senders which don't say are assumed to only understand {@link #messageVersion()}.
+     */
+    public int maxProtocolVersion() { return this.maxProtocolVersion; }
+
+    /**
+     * The length of this packet as it was received.
+     * Sendable packets, and packets which didn't record their length, fall back to the length of {@link #toString()}.
+     */
+    public int rawLength() {
+        if(this.rawLength < 0) this.rawLength = this.toString().length();
+        return this.rawLength;
+    }
+
+    /**
+     * Record the length of this packet as it was received.
+     */
+    protected void rawLength(int rawLength) { this.rawLength = rawLength; }
+
     public boolean sendable() { return this.sendable; }
     public String rawMessage() { return this.rawMessage; }
     public InetSocketAddress address() { return this.address; }
@@ -41,6 +67,7 @@ public class GenericPacket {
      */
     protected GenericPacket(PacketType.Mapping type, InetSocketAddress address, PacketOrigin origin) {
         this.messageVersion = protocolVersion;
+        this.maxProtocolVersion = protocolVersion;
         this.sendable = true;
         this.rawMessage = null;
         this.type = type;
@@ -53,6 +80,7 @@ public class GenericPacket {
      */
     protected GenericPacket(int messageVersion, String rawMessage, PacketType.Mapping type, InetSocketAddress address, PacketOrigin origin) {
         this.messageVersion = messageVersion;
+        this.maxProtocolVersion = messageVersion;
         this.sendable = false;
         this.rawMessage = rawMessage;
         this.type = type;
@@ -85,6 +113,13 @@ public class GenericPacket {
         return object;
     }
 
+    /**
+     * Write this packet's parameters in the binary format.
+     * Parameters are written in a fixed order for each {@link PacketType}, so no keys are needed.
+     * @param out The output to write to.
+     */
+    protected void writeBinary(DataOutput out) throws IOException {}
+
     /**
      * Checks if the two parameter lists (checking keys) match.
      * @param requiredParameters The parameters that are required.
@@ -92,10 +127,9 @@ public class GenericPacket {
      * @return `true` if all keys are present. `false` otherwise.
      */
     public static boolean validateParameters(List<String> requiredParameters, List<KeyValue<String, JsonPrimitive>> parametersToCheck) {
-        List<String> keysToCheck = new ArrayList<>();
+        Set<String> keysToCheck = new HashSet<>(parametersToCheck.size() * 2);
         parametersToCheck.forEach(entry -> keysToCheck.add(entry.getKey()));
-        List<String> matches = requiredParameters.stream().filter(keysToCheck::contains).toList();
-        return requiredParameters.size() == matches.size();
+        return keysToCheck.containsAll(requiredParameters);
     }
 
     public static class Builder {
@@ -225,17 +259,77 @@ public class GenericPacket {
     }
 
     public static class Serializer {
+        /**
+         * Builds received packets of each type straight from their parameters.
+         */
+        private static final Map<PacketType.Mapping, ReceivedFactory> factories = Map.of(
+                PacketType.PING, ServerPingPacket::new,
+                PacketType.PING_RESPONSE, ServerPingResponsePacket::new,
+                PacketType.SEND_PLAYER, SendPlayerPacket::new,
+                PacketType.COORDINATE_REQUEST_QUEUE, CoordinateRequestQueuePacket::new,
+                PacketType.UNLOCK_SERVER, UnlockServerPacket::new,
+                PacketType.LOCK_SERVER, LockServerPacket::new
+        );
+
         /**
          * Parses a raw string into a received RedisMessage.
+         * <p>
+         * The message is read as a stream, and each parameter is decoded straight into the packet without building a JSON tree.
+         * Every version of RustyConnector writes the header before the parameters, but if a message doesn't, it's parsed the slow way instead.
          * @param rawMessage The raw message to parse.
          * @return A received RedisMessage.
          */
         public GenericPacket parseReceived(String rawMessage) {
-            Gson gson = new Gson();
-            JsonObject messageObject = gson.fromJson(rawMessage, JsonObject.class);
+            try (JsonReader reader = new JsonReader(new StringReader(rawMessage))) {
+                Integer protocolVersion = null;
+                PacketType.Mapping type = null;
+                InetSocketAddress address = null;
+                PacketOrigin origin = null;
+                int maxProtocolVersion = 0;
+                GenericPacket packet = null;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case MasterValidParameters.PROTOCOL_VERSION -> protocolVersion = reader.nextInt();
+                        case MasterValidParameters.TYPE -> type = PacketType.mapping(reader.nextInt());
+                        case MasterValidParameters.ADDRESS -> address = AddressUtil.stringToAddress(reader.nextString());
+                        case MasterValidParameters.ORIGIN -> origin = PacketOrigin.valueOf(reader.nextString());
+                        case MasterValidParameters.MAX_PROTOCOL_VERSION_OPTIONAL -> maxProtocolVersion = reader.nextInt();
+                        case MasterValidParameters.PARAMETERS -> {
+                            if(protocolVersion == null || type == null || address == null || origin == null)
+                                return this.parseTree(rawMessage);
+
+                            ReceivedFactory factory = factories.get(type);
+                            if(factory == null) throw new IllegalStateException("Invalid RedisMessage type encountered!");
+                            packet = factory.create(protocolVersion, rawMessage, address, origin, reader);
+                        }
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                if(packet == null) throw new IllegalStateException("The message didn't contain any parameters!");
+                if(reader.peek() != JsonToken.END_DOCUMENT) throw new IllegalStateException("The message contained more than one packet!");
+
+                packet.maxProtocolVersion = Math.max(packet.messageVersion, maxProtocolVersion);
+                packet.rawLength(rawMessage.length());
+                return packet;
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to parse the message! " + e.getMessage());
+            }
+        }
+
+        /**
+         * Parses a raw string into a received RedisMessage by building a JSON tree first.
+         * Only used for messages which don't put their header before their parameters.
+         */
+        private GenericPacket parseTree(String rawMessage) {
+            JsonObject messageObject = JsonParser.parseString(rawMessage).getAsJsonObject();
 
             GenericPacket.Builder redisMessageBuilder = new GenericPacket.Builder();
             redisMessageBuilder.setRawMessage(rawMessage);
+            int[] maxProtocolVersion = { 0 };
 
             messageObject.entrySet().forEach(entry -> {
                 String key = entry.getKey();
@@ -247,10 +341,14 @@ public class GenericPacket {
                     case MasterValidParameters.TYPE -> redisMessageBuilder.setType(PacketType.mapping(value.getAsInt()));
                     case MasterValidParameters.ORIGIN -> redisMessageBuilder.setOrigin(PacketOrigin.valueOf(value.getAsString()));
                     case MasterValidParameters.PARAMETERS -> parseParams(value.getAsJsonObject(), redisMessageBuilder);
+                    case MasterValidParameters.MAX_PROTOCOL_VERSION_OPTIONAL -> maxProtocolVersion[0] = value.getAsInt();
                 }
             });
 
-            return redisMessageBuilder.buildReceived();
+            GenericPacket packet = redisMessageBuilder.buildReceived();
+            packet.maxProtocolVersion = Math.max(packet.messageVersion, maxProtocolVersion[0]);
+            packet.rawLength(rawMessage.length());
+            return packet;
         }
 
         private void parseParams(JsonObject object, GenericPacket.Builder redisMessageBuilder) {
@@ -262,6 +360,9 @@ public class GenericPacket {
             });
         }
 
+        private interface ReceivedFactory {
+            GenericPacket create(int messageVersion, String rawMessage, InetSocketAddress address, PacketOrigin origin, JsonReader parameters) throws IOException;
+        }
     }
 
     public interface MasterValidParameters {
@@ -270,6 +371,7 @@ public class GenericPacket {
         String ADDRESS = "a";
         String ORIGIN = "o";
         String PARAMETERS = "p";
+        String MAX_PROTOCOL_VERSION_OPTIONAL = "mv";
 
         static List<String> toList() {
             List<String> list = new ArrayList<>();
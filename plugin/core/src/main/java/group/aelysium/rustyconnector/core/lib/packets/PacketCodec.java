@@ -0,0 +1,97 @@
+package group.aelysium.rustyconnector.core.lib.packets;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns packets into bytes to send over the messenger, and bytes received from the messenger back into packets.
+ * <p>
+ * Both formats are always understood when receiving, so fleets with a mix of versions keep working.
+ * When sending, the binary format is only used if it's enabled and the peer has said it understands it.
+ * Peers say so by sending JSON packets with a {@link GenericPacket.MasterValidParameters#MAX_PROTOCOL_VERSION_OPTIONAL max protocol version},
+ * which older versions of RustyConnector just ignore, or by sending binary packets.
+ * <p>
+ * The proxy keeps track of which servers understand the binary format, and servers keep track of whether the proxy does.
+ */
+public class PacketCodec {
+    private final PacketFormat format;
+    private final PacketOrigin origin;
+    private final Set<InetSocketAddress> binaryServers = ConcurrentHashMap.newKeySet();
+    private volatile boolean binaryProxy = false;
+
+    /**
+     * @param format The format that packets should be sent in, if the peer understands it.
+     * @param origin Who is using this codec.
+     */
+    public PacketCodec(PacketFormat format, PacketOrigin origin) {
+        this.format = format;
+        this.origin = origin;
+    }
+
+    public PacketFormat format() {
+        return this.format;
+    }
+
+    /**
+     * Encode a packet so that it can be sent.
+     * @param packet The packet to encode.
+     * @return The encoded packet.
+     */
+    public byte[] encode(GenericPacket packet) throws IOException {
+        if(this.sendBinary(packet)) return BinaryPacketCodec.encode(packet);
+        if(this.format == PacketFormat.JSON) return packet.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Let the peer know that we understand the binary format, so they can start sending it to us.
+        JsonObject object = packet.toJSON();
+        object.add(GenericPacket.MasterValidParameters.MAX_PROTOCOL_VERSION_OPTIONAL, new JsonPrimitive(BinaryPacketCodec.PROTOCOL_VERSION));
+        return object.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode a received packet, in whichever format it was sent in.
+     * @param data The data to decode.
+     * @return A received packet.
+     */
+    public GenericPacket decode(byte[] data) throws IOException {
+        GenericPacket packet;
+        if(BinaryPacketCodec.isBinary(data)) packet = BinaryPacketCodec.decode(data);
+        else packet = new GenericPacket.Serializer().parseReceived(new String(data, StandardCharsets.UTF_8));
+
+        this.learn(packet);
+
+        return packet;
+    }
+
+    /**
+     * Remember whether the sender of a packet understands the binary format.
+     * A peer which stops saying so, for example because it was downgraded, is sent JSON again.
+     */
+    private void learn(GenericPacket packet) {
+        if(packet.origin() == this.origin) return;
+        boolean binary = packet.maxProtocolVersion() >= BinaryPacketCodec.PROTOCOL_VERSION;
+
+        if(packet.origin() == PacketOrigin.PROXY) {
+            this.binaryProxy = binary;
+            return;
+        }
+
+        if(packet.address() == null) return;
+        if(binary) this.binaryServers.add(packet.address());
+        else this.binaryServers.remove(packet.address());
+    }
+
+    private boolean sendBinary(GenericPacket packet) {
+        if(this.format != PacketFormat.BINARY) return false;
+
+        // Servers only ever send packets to the proxy.
+        if(this.origin == PacketOrigin.SERVER) return this.binaryProxy;
+
+        return packet.address() != null && this.binaryServers.contains(packet.address());
+    }
+}
@@ -0,0 +1,17 @@
+package group.aelysium.rustyconnector.core.lib.packets;
+
+/**
+ * The formats that packets can be sent over the messenger in.
+ */
+public enum PacketFormat {
+    /**
+     * Packets are sent as JSON. Every version of RustyConnector understands this.
+     */
+    JSON,
+
+    /**
+     * Packets are sent in a compact binary format.
+     * Packets are only sent this way to peers which have said they understand it, everyone else still gets JSON.
+     */
+    BINARY
+}
@@ -1,8 +1,6 @@
 package group.aelysium.rustyconnector.core.lib.packets;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 public class PacketType {
     /**
@@ -42,6 +40,11 @@ public class PacketType {
      */
     public static Mapping LOCK_SERVER = new Mapping(401, "LOCK_SERVER");
 
+    private static final Map<Integer, Mapping> byId = new HashMap<>();
+    static {
+        toList().forEach(mapping -> byId.put(mapping.id(), mapping));
+    }
+
     public static List<Mapping> toList() {
         List<Mapping> list = new ArrayList<>();
         list.add(PING);
@@ -58,7 +61,9 @@ public class PacketType {
         return toList().stream().filter(entry -> Objects.equals(entry.name(), name)).findFirst().orElseThrow(NullPointerException::new);
     }
     public static Mapping mapping(int id) {
-        return toList().stream().filter(entry -> entry.id() == id).findFirst().orElseThrow(NullPointerException::new);
+        Mapping mapping = byId.get(id);
+        if(mapping == null) throw new NullPointerException();
+        return mapping;
     }
 
     public record Mapping (Integer id, String name) {
@@ -2,16 +2,25 @@ package group.aelysium.rustyconnector.core.lib.packets.variants;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import io.lettuce.core.KeyValue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CoordinateRequestQueuePacket extends GenericPacket {
+    /**
+     * A bit for each required parameter. See {@link ValidParameters}.
+     */
+    private static final int REQUIRED_PARAMETERS = 0b111;
+
     private String targetUsername;
     private String targetServer;
     private String sourceUsername;
@@ -63,6 +72,40 @@ public class CoordinateRequestQueuePacket extends GenericPacket {
         });
     }
 
+    public CoordinateRequestQueuePacket(int messageVersion, InetSocketAddress address, PacketOrigin origin, DataInput in) throws IOException {
+        super(messageVersion, null, PacketType.COORDINATE_REQUEST_QUEUE, address, origin);
+
+        this.targetServer = in.readUTF();
+        this.targetUsername = in.readUTF();
+        this.sourceUsername = in.readUTF();
+    }
+
+    public CoordinateRequestQueuePacket(int messageVersion, String rawMessage, InetSocketAddress address, PacketOrigin origin, JsonReader parameters) throws IOException {
+        super(messageVersion, rawMessage, PacketType.COORDINATE_REQUEST_QUEUE, address, origin);
+
+        int found = 0;
+        parameters.beginObject();
+        while (parameters.hasNext()) {
+            switch (parameters.nextName()) {
+                case ValidParameters.TARGET_SERVER -> { this.targetServer = parameters.nextString(); found |= 1; }
+                case ValidParameters.TARGET_USERNAME -> { this.targetUsername = parameters.nextString(); found |= 1 << 1; }
+                case ValidParameters.SOURCE_USERNAME -> { this.sourceUsername = parameters.nextString(); found |= 1 << 2; }
+                default -> parameters.skipValue();
+            }
+        }
+        parameters.endObject();
+
+        if(found != REQUIRED_PARAMETERS)
+            throw new IllegalStateException("Unable to construct Redis message! There are missing parameters!");
+    }
+
+    @Override
+    protected void writeBinary(DataOutput out) throws IOException {
+        out.writeUTF(this.targetServer);
+        out.writeUTF(this.targetUsername);
+        out.writeUTF(this.sourceUsername);
+    }
+
     @Override
     public JsonObject toJSON() {
         JsonObject object = super.toJSON();
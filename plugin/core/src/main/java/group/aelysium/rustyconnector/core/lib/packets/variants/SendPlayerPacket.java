@@ -2,16 +2,25 @@ package group.aelysium.rustyconnector.core.lib.packets.variants;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import io.lettuce.core.KeyValue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 
 public class SendPlayerPacket extends GenericPacket {
+    /**
+     * A bit for each required parameter. See {@link ValidParameters}.
+     */
+    private static final int REQUIRED_PARAMETERS = 0b11;
+
     private String targetFamilyName;
     private String uuid;
 
@@ -56,6 +65,37 @@ public class SendPlayerPacket extends GenericPacket {
         });
     }
 
+    public SendPlayerPacket(int messageVersion, InetSocketAddress address, PacketOrigin origin, DataInput in) throws IOException {
+        super(messageVersion, null, PacketType.SEND_PLAYER, address, origin);
+
+        this.targetFamilyName = in.readUTF();
+        this.uuid = in.readUTF();
+    }
+
+    public SendPlayerPacket(int messageVersion, String rawMessage, InetSocketAddress address, PacketOrigin origin, JsonReader parameters) throws IOException {
+        super(messageVersion, rawMessage, PacketType.SEND_PLAYER, address, origin);
+
+        int found = 0;
+        parameters.beginObject();
+        while (parameters.hasNext()) {
+            switch (parameters.nextName()) {
+                case ValidParameters.TARGET_FAMILY_NAME -> { this.targetFamilyName = parameters.nextString(); found |= 1; }
+                case ValidParameters.PLAYER_UUID -> { this.uuid = parameters.nextString(); found |= 1 << 1; }
+                default -> parameters.skipValue();
+            }
+        }
+        parameters.endObject();
+
+        if(found != REQUIRED_PARAMETERS)
+            throw new IllegalStateException("Unable to construct Redis message! There are missing parameters!");
+    }
+
+    @Override
+    protected void writeBinary(DataOutput out) throws IOException {
+        out.writeUTF(this.targetFamilyName);
+        out.writeUTF(this.uuid);
+    }
+
     @Override
     public JsonObject toJSON() {
         JsonObject object = super.toJSON();
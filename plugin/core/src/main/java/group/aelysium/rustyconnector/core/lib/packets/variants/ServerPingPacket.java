@@ -2,16 +2,26 @@ package group.aelysium.rustyconnector.core.lib.packets.variants;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import io.lettuce.core.KeyValue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class ServerPingPacket extends GenericPacket {
+    /**
+     * A bit for each required parameter. See {@link ValidParameters}.
+     */
+    private static final int REQUIRED_PARAMETERS = 0b1111111;
+
     private ConnectionIntent intent;
     private String familyName;
     private String serverName;
@@ -19,6 +29,11 @@ public class ServerPingPacket extends GenericPacket {
     private Integer hardCap;
     private Integer weight;
     private Integer playerCount;
+    private Optional<Double> tps = Optional.empty();
+    private Optional<Double> mspt = Optional.empty();
+    private Optional<Long> usedHeap = Optional.empty();
+    private Optional<Long> maxHeap = Optional.empty();
+    private Optional<Integer> loadedChunks = Optional.empty();
 
     public ConnectionIntent intent() {
         return intent;
@@ -47,6 +62,42 @@ public class ServerPingPacket extends GenericPacket {
         return playerCount;
     }
 
+    /**
+     * The server's ticks per second, averaged over the last minute.
+     * Servers running older versions of RustyConnector won't send this.
+     */
+    public Optional<Double> tps() {
+        return tps;
+    }
+
+    /**
+     * The average number of milliseconds that the server's recent ticks have taken.
+     */
+    public Optional<Double> mspt() {
+        return mspt;
+    }
+
+    /**
+     * The server's used heap, in bytes.
+     */
+    public Optional<Long> usedHeap() {
+        return usedHeap;
+    }
+
+    /**
+     * The most heap the server is allowed to use, in bytes.
+     */
+    public Optional<Long> maxHeap() {
+        return maxHeap;
+    }
+
+    /**
+     * The number of chunks the server has loaded across all of it's worlds.
+     */
+    public Optional<Integer> loadedChunks() {
+        return loadedChunks;
+    }
+
     public ServerPingPacket(InetSocketAddress address, PacketOrigin origin, List<KeyValue<String, JsonPrimitive>> parameters) {
         super(PacketType.PING, address, origin);
 
@@ -65,6 +116,11 @@ public class ServerPingPacket extends GenericPacket {
                 case ValidParameters.HARD_CAP -> this.hardCap = value.getAsInt();
                 case ValidParameters.WEIGHT -> this.weight = value.getAsInt();
                 case ValidParameters.PLAYER_COUNT -> this.playerCount = value.getAsInt();
+                case ValidParameters.TPS_OPTIONAL -> this.tps = Optional.of(value.getAsDouble());
+                case ValidParameters.MSPT_OPTIONAL -> this.mspt = Optional.of(value.getAsDouble());
+                case ValidParameters.USED_HEAP_OPTIONAL -> this.usedHeap = Optional.of(value.getAsLong());
+                case ValidParameters.MAX_HEAP_OPTIONAL -> this.maxHeap = Optional.of(value.getAsLong());
+                case ValidParameters.LOADED_CHUNKS_OPTIONAL -> this.loadedChunks = Optional.of(value.getAsInt());
             }
         });
     }
@@ -86,10 +142,87 @@ public class ServerPingPacket extends GenericPacket {
                 case ValidParameters.HARD_CAP -> this.hardCap = value.getAsInt();
                 case ValidParameters.WEIGHT -> this.weight = value.getAsInt();
                 case ValidParameters.PLAYER_COUNT -> this.playerCount = value.getAsInt();
+                case ValidParameters.TPS_OPTIONAL -> this.tps = Optional.of(value.getAsDouble());
+                case ValidParameters.MSPT_OPTIONAL -> this.mspt = Optional.of(value.getAsDouble());
+                case ValidParameters.USED_HEAP_OPTIONAL -> this.usedHeap = Optional.of(value.getAsLong());
+                case ValidParameters.MAX_HEAP_OPTIONAL -> this.maxHeap = Optional.of(value.getAsLong());
+                case ValidParameters.LOADED_CHUNKS_OPTIONAL -> this.loadedChunks = Optional.of(value.getAsInt());
             }
         });
     }
 
+    public ServerPingPacket(int messageVersion, InetSocketAddress address, PacketOrigin origin, DataInput in) throws IOException {
+        super(messageVersion, null, PacketType.PING, address, origin);
+
+        this.intent = ConnectionIntent.values()[in.readUnsignedByte()];
+        this.familyName = in.readUTF();
+        this.serverName = in.readUTF();
+        this.softCap = in.readInt();
+        this.hardCap = in.readInt();
+        this.weight = in.readInt();
+        this.playerCount = in.readInt();
+
+        int optionals = in.readUnsignedByte();
+        if((optionals & 1) != 0) this.tps = Optional.of(in.readDouble());
+        if((optionals & 2) != 0) this.mspt = Optional.of(in.readDouble());
+        if((optionals & 4) != 0) this.usedHeap = Optional.of(in.readLong());
+        if((optionals & 8) != 0) this.loadedChunks = Optional.of(in.readInt());
+        if((optionals & 16) != 0) this.maxHeap = Optional.of(in.readLong());
+    }
+
+    public ServerPingPacket(int messageVersion, String rawMessage, InetSocketAddress address, PacketOrigin origin, JsonReader parameters) throws IOException {
+        super(messageVersion, rawMessage, PacketType.PING, address, origin);
+
+        int found = 0;
+        parameters.beginObject();
+        while (parameters.hasNext()) {
+            switch (parameters.nextName()) {
+                case ValidParameters.INTENT -> { this.intent = ConnectionIntent.valueOf(parameters.nextString()); found |= 1; }
+                case ValidParameters.FAMILY_NAME -> { this.familyName = parameters.nextString(); found |= 1 << 1; }
+                case ValidParameters.SERVER_NAME -> { this.serverName = parameters.nextString(); found |= 1 << 2; }
+                case ValidParameters.SOFT_CAP -> { this.softCap = parameters.nextInt(); found |= 1 << 3; }
+                case ValidParameters.HARD_CAP -> { this.hardCap = parameters.nextInt(); found |= 1 << 4; }
+                case ValidParameters.WEIGHT -> { this.weight = parameters.nextInt(); found |= 1 << 5; }
+                case ValidParameters.PLAYER_COUNT -> { this.playerCount = parameters.nextInt(); found |= 1 << 6; }
+                case ValidParameters.TPS_OPTIONAL -> this.tps = Optional.of(parameters.nextDouble());
+                case ValidParameters.MSPT_OPTIONAL -> this.mspt = Optional.of(parameters.nextDouble());
+                case ValidParameters.USED_HEAP_OPTIONAL -> this.usedHeap = Optional.of(parameters.nextLong());
+                case ValidParameters.MAX_HEAP_OPTIONAL -> this.maxHeap = Optional.of(parameters.nextLong());
+                case ValidParameters.LOADED_CHUNKS_OPTIONAL -> this.loadedChunks = Optional.of(parameters.nextInt());
+                default -> parameters.skipValue();
+            }
+        }
+        parameters.endObject();
+
+        if(found != REQUIRED_PARAMETERS)
+            throw new IllegalStateException("Unable to construct Redis message! There are missing parameters!");
+    }
+
+    @Override
+    protected void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(this.intent.ordinal());
+        out.writeUTF(this.familyName);
+        out.writeUTF(this.serverName);
+        out.writeInt(this.softCap);
+        out.writeInt(this.hardCap);
+        out.writeInt(this.weight);
+        out.writeInt(this.playerCount);
+
+        int optionals = 0;
+        if(this.tps.isPresent()) optionals |= 1;
+        if(this.mspt.isPresent()) optionals |= 2;
+        if(this.usedHeap.isPresent()) optionals |= 4;
+        if(this.loadedChunks.isPresent()) optionals |= 8;
+        if(this.maxHeap.isPresent()) optionals |= 16;
+        out.writeByte(optionals);
+
+        if(this.tps.isPresent()) out.writeDouble(this.tps.get());
+        if(this.mspt.isPresent()) out.writeDouble(this.mspt.get());
+        if(this.usedHeap.isPresent()) out.writeLong(this.usedHeap.get());
+        if(this.loadedChunks.isPresent()) out.writeInt(this.loadedChunks.get());
+        if(this.maxHeap.isPresent()) out.writeLong(this.maxHeap.get());
+    }
+
     @Override
     public JsonObject toJSON() {
         JsonObject object = super.toJSON();
@@ -102,6 +235,11 @@ public class ServerPingPacket extends GenericPacket {
         parameters.add(ValidParameters.HARD_CAP, new JsonPrimitive(this.hardCap));
         parameters.add(ValidParameters.WEIGHT, new JsonPrimitive(this.weight));
         parameters.add(ValidParameters.PLAYER_COUNT, new JsonPrimitive(this.playerCount));
+        this.tps.ifPresent(tps -> parameters.add(ValidParameters.TPS_OPTIONAL, new JsonPrimitive(tps)));
+        this.mspt.ifPresent(mspt -> parameters.add(ValidParameters.MSPT_OPTIONAL, new JsonPrimitive(mspt)));
+        this.usedHeap.ifPresent(usedHeap -> parameters.add(ValidParameters.USED_HEAP_OPTIONAL, new JsonPrimitive(usedHeap)));
+        this.loadedChunks.ifPresent(loadedChunks -> parameters.add(ValidParameters.LOADED_CHUNKS_OPTIONAL, new JsonPrimitive(loadedChunks)));
+        this.maxHeap.ifPresent(maxHeap -> parameters.add(ValidParameters.MAX_HEAP_OPTIONAL, new JsonPrimitive(maxHeap)));
 
         object.add(MasterValidParameters.PARAMETERS, parameters);
 
@@ -116,6 +254,11 @@ public class ServerPingPacket extends GenericPacket {
         String WEIGHT = "w";
         String INTENT = "i";
         String PLAYER_COUNT = "pc";
+        String TPS_OPTIONAL = "tps";
+        String MSPT_OPTIONAL = "ms";
+        String USED_HEAP_OPTIONAL = "hp";
+        String LOADED_CHUNKS_OPTIONAL = "ch";
+        String MAX_HEAP_OPTIONAL = "mh";
 
         static List<String> toList() {
             List<String> list = new ArrayList<>();
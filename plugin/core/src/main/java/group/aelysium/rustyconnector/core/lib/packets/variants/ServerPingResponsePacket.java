@@ -2,6 +2,7 @@ package group.aelysium.rustyconnector.core.lib.packets.variants;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
@@ -9,12 +10,20 @@ import group.aelysium.rustyconnector.core.lib.util.ColorMapper;
 import io.lettuce.core.KeyValue;
 import net.kyori.adventure.text.format.NamedTextColor;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 public class ServerPingResponsePacket extends GenericPacket {
+    /**
+     * A bit for each required parameter. See {@link ValidParameters}.
+     */
+    private static final int REQUIRED_PARAMETERS = 0b111;
+
     private PingResponseStatus status;
     private String message;
     private NamedTextColor color;
@@ -70,6 +79,44 @@ public class ServerPingResponsePacket extends GenericPacket {
         });
     }
 
+    public ServerPingResponsePacket(int messageVersion, InetSocketAddress address, PacketOrigin origin, DataInput in) throws IOException {
+        super(messageVersion, null, PacketType.PING_RESPONSE, address, origin);
+
+        this.status = PingResponseStatus.values()[in.readUnsignedByte()];
+        this.message = in.readUTF();
+        this.color = ColorMapper.map(in.readUTF());
+        if(in.readBoolean()) this.pingInterval = Optional.of(in.readInt());
+    }
+
+    public ServerPingResponsePacket(int messageVersion, String rawMessage, InetSocketAddress address, PacketOrigin origin, JsonReader parameters) throws IOException {
+        super(messageVersion, rawMessage, PacketType.PING_RESPONSE, address, origin);
+
+        int found = 0;
+        parameters.beginObject();
+        while (parameters.hasNext()) {
+            switch (parameters.nextName()) {
+                case ValidParameters.STATUS -> { this.status = PingResponseStatus.valueOf(parameters.nextString()); found |= 1; }
+                case ValidParameters.MESSAGE -> { this.message = parameters.nextString(); found |= 1 << 1; }
+                case ValidParameters.COLOR -> { this.color = ColorMapper.map(parameters.nextString()); found |= 1 << 2; }
+                case ValidParameters.INTERVAL_OPTIONAL -> this.pingInterval = Optional.of(parameters.nextInt());
+                default -> parameters.skipValue();
+            }
+        }
+        parameters.endObject();
+
+        if(found != REQUIRED_PARAMETERS)
+            throw new IllegalStateException("Unable to construct Redis message! There are missing parameters!");
+    }
+
+    @Override
+    protected void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(this.status.ordinal());
+        out.writeUTF(this.message);
+        out.writeUTF(this.color.toString());
+        out.writeBoolean(this.pingInterval.isPresent());
+        if(this.pingInterval.isPresent()) out.writeInt(this.pingInterval.get());
+    }
+
     @Override
     public JsonObject toJSON() {
         JsonObject object = super.toJSON();
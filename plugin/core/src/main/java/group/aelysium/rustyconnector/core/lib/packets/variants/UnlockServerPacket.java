@@ -2,11 +2,15 @@ package group.aelysium.rustyconnector.core.lib.packets.variants;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
 import io.lettuce.core.KeyValue;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +45,30 @@ public class UnlockServerPacket extends GenericPacket {
         });
     }
 
+    public UnlockServerPacket(int messageVersion, InetSocketAddress address, PacketOrigin origin, DataInput in) throws IOException {
+        super(messageVersion, null, PacketType.UNLOCK_SERVER, address, origin);
+
+        this.serverName = in.readUTF();
+    }
+
+    public UnlockServerPacket(int messageVersion, String rawMessage, InetSocketAddress address, PacketOrigin origin, JsonReader parameters) throws IOException {
+        super(messageVersion, rawMessage, PacketType.UNLOCK_SERVER, address, origin);
+
+        parameters.beginObject();
+        while (parameters.hasNext()) {
+            switch (parameters.nextName()) {
+                case ValidParameters.SERVER_NAME -> this.serverName = parameters.nextString();
+                default -> parameters.skipValue();
+            }
+        }
+        parameters.endObject();
+    }
+
+    @Override
+    protected void writeBinary(DataOutput out) throws IOException {
+        out.writeUTF(this.serverName);
+    }
+
     @Override
     public JsonObject toJSON() {
         JsonObject object = super.toJSON();
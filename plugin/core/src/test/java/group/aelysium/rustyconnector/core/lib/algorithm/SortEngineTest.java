@@ -0,0 +1,90 @@
+package group.aelysium.rustyconnector.core.lib.algorithm;
+
+import group.aelysium.rustyconnector.core.lib.model.Sortable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortEngineTest {
+    private static final int[] SIZES = { 0, 1, 2, 17, 1000 };
+
+    /**
+     * `id` is only there so that two items with the same sort index and weight can be told apart, which is how stability is checked.
+     */
+    private record Item(int sortIndex, int weight, int id) implements Sortable {}
+
+    private static List<Item> items(int size, int indexRange, int weightRange, long seed) {
+        Random random = new Random(seed);
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            items.add(new Item(random.nextInt(indexRange) - indexRange / 2, random.nextInt(weightRange) - weightRange / 2, i));
+        return items;
+    }
+
+    /**
+     * {@link List#sort(Comparator)} is stable, so it's what every sort is checked against.
+     */
+    private static void assertSortsLike(Consumer<List<Item>> sort, Comparator<Item> comparator, int weightRange) {
+        for (int size : SIZES) {
+            List<Item> actual = items(size, 50, weightRange, size);
+            List<Item> expected = new ArrayList<>(actual);
+
+            sort.accept(actual);
+            expected.sort(comparator);
+
+            assertEquals(expected, actual, "size " + size);
+        }
+    }
+
+    @Test
+    public void sortByIndexIsStableAndLowestFirst() {
+        assertSortsLike(SortEngine::sortByIndex, Comparator.comparingInt(Item::sortIndex), 10);
+    }
+
+    @Test
+    public void sortByWeightIsStableAndHighestFirst() {
+        Comparator<Item> comparator = Comparator.comparingInt(Item::weight).reversed();
+
+        assertSortsLike(SortEngine::sortByWeight, comparator, 10);
+        assertSortsLike(SortEngine::sortByWeight, comparator, 1_000_000);
+    }
+
+    @Test
+    public void sortByWeightThenIndex() {
+        Comparator<Item> comparator = Comparator.comparingInt(Item::weight).reversed().thenComparingInt(Item::sortIndex);
+
+        assertSortsLike(SortEngine::sortByWeightThenIndex, comparator, 10);
+        assertSortsLike(SortEngine::sortByWeightThenIndex, comparator, 1_000_000);
+    }
+
+    @Test
+    public void sameWeightKeepsOrder() {
+        List<Item> items = new ArrayList<>(List.of(new Item(3, 5, 0), new Item(1, 5, 1), new Item(2, 5, 2)));
+        List<Item> expected = new ArrayList<>(items);
+
+        SortEngine.sortByWeight(items);
+
+        assertEquals(expected, items);
+    }
+
+    @Test
+    public void extremeValuesDontOverflow() {
+        List<Item> items = new ArrayList<>(List.of(
+                new Item(Integer.MAX_VALUE, Integer.MIN_VALUE, 0),
+                new Item(Integer.MIN_VALUE, Integer.MAX_VALUE, 1),
+                new Item(0, 0, 2)
+        ));
+
+        SortEngine.sortByIndex(items);
+        assertEquals(List.of(1, 2, 0), items.stream().map(Item::id).toList());
+
+        SortEngine.sortByWeight(items);
+        assertEquals(List.of(1, 2, 0), items.stream().map(Item::id).toList());
+    }
+}
@@ -0,0 +1,143 @@
+package group.aelysium.rustyconnector.core.lib.hash;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.AEADBadTagException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AESCryptorTest {
+    private static final String MESSAGE = "{\"v\":3,\"t\":\"100\",\"o\":\"SERVER\",\"a\":\"127.0.0.1:25565\"}";
+
+    private static AESCryptor cryptor(EncryptionMode mode) throws Exception {
+        return AESCryptor.from(AESCryptor.createKey()).withMode(mode);
+    }
+
+    /**
+     * Encrypts messages with ECB until one does, or doesn't, start with the GCM marker.
+     * About 1 in 256 ECB messages start with it, so this takes a few hundred tries at most.
+     * The counter goes first, because ECB encrypts the first block of each message the same way every time.
+     */
+    private static byte[] ecbData(AESCryptor ecb, boolean startsWithMarker) throws Exception {
+        for (int i = 0; ; i++) {
+            byte[] encrypted = ecb.encryptBytes((i + MESSAGE).getBytes(StandardCharsets.UTF_8));
+            if((encrypted[0] == AESCryptor.GCM_MARKER) == startsWithMarker) return encrypted;
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void everyModeRoundTrips() throws Exception {
+        for (EncryptionMode mode : EncryptionMode.values()) {
+            AESCryptor cryptor = cryptor(mode);
+
+            assertEquals(mode, cryptor.mode());
+            assertEquals(MESSAGE, cryptor.decrypt(cryptor.encrypt(MESSAGE)), mode.toString());
+        }
+    }
+
+    @Test
+    public void gcmUsesANewNonceForEveryMessage() throws Exception {
+        AESCryptor gcm = cryptor(EncryptionMode.GCM);
+
+        byte[] first = gcm.encryptBytes(MESSAGE.getBytes(StandardCharsets.UTF_8));
+        byte[] second = gcm.encryptBytes(MESSAGE.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(AESCryptor.GCM_MARKER, first[0]);
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    public void gcmRejectsTamperedData() throws Exception {
+        AESCryptor gcm = cryptor(EncryptionMode.GCM);
+        byte[] encrypted = gcm.encryptBytes(MESSAGE.getBytes(StandardCharsets.UTF_8));
+
+        encrypted[encrypted.length / 2] ^= 1;
+
+        assertThrows(AEADBadTagException.class, () -> gcm.decryptBytes(encrypted));
+        assertThrows(AEADBadTagException.class, () -> cryptor(EncryptionMode.GCM_MIGRATING).decryptBytes(encrypted));
+    }
+
+    @Test
+    public void gcmRejectsDataFromAnotherKey() throws Exception {
+        byte[] encrypted = cryptor(EncryptionMode.GCM).encryptBytes(MESSAGE.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(AEADBadTagException.class, () -> cryptor(EncryptionMode.GCM).decryptBytes(encrypted));
+    }
+
+    @Test
+    public void gcmRejectsECBData() throws Exception {
+        AESCryptor ecb = cryptor(EncryptionMode.ECB);
+        AESCryptor gcm = ecb.withMode(EncryptionMode.GCM);
+        byte[] encrypted = ecbData(ecb, false);
+        byte[] lookalike = ecbData(ecb, true);
+
+        assertThrows(AEADBadTagException.class, () -> gcm.decryptBytes(encrypted));
+        assertThrows(AEADBadTagException.class, () -> gcm.decryptBytes(lookalike));
+        assertThrows(AEADBadTagException.class, () -> gcm.decrypt(ByteBuffer.wrap(lookalike)));
+    }
+
+    @Test
+    public void migratingAcceptsBothModes() throws Exception {
+        AESCryptor ecb = cryptor(EncryptionMode.ECB);
+        AESCryptor migrating = ecb.withMode(EncryptionMode.GCM_MIGRATING);
+        AESCryptor gcm = ecb.withMode(EncryptionMode.GCM);
+
+        byte[] fromECB = ecbData(ecb, false);
+        assertArrayEquals(ecb.decryptBytes(fromECB), migrating.decryptBytes(fromECB));
+
+        // A server that's already been moved to GCM can still be read by one that's migrating, and the other way around.
+        assertEquals(MESSAGE, migrating.decrypt(gcm.encrypt(MESSAGE)));
+        assertEquals(MESSAGE, gcm.decrypt(migrating.encrypt(MESSAGE)));
+        assertEquals(MESSAGE, ecb.decrypt(migrating.encrypt(MESSAGE)));
+    }
+
+    @Test
+    public void ecbDataThatLooksLikeGCMIsStillAccepted() throws Exception {
+        AESCryptor ecb = cryptor(EncryptionMode.ECB);
+        AESCryptor migrating = ecb.withMode(EncryptionMode.GCM_MIGRATING);
+        byte[] lookalike = ecbData(ecb, true);
+        byte[] expected = ecb.decryptBytes(lookalike);
+
+        assertTrue(new String(expected, StandardCharsets.UTF_8).endsWith(MESSAGE));
+        assertArrayEquals(expected, migrating.decryptBytes(lookalike));
+        assertArrayEquals(expected, toArray(migrating.decrypt(ByteBuffer.wrap(lookalike))));
+    }
+
+    @Test
+    public void byteBuffersRoundTrip() throws Exception {
+        for (EncryptionMode mode : EncryptionMode.values()) {
+            AESCryptor cryptor = cryptor(mode);
+            ByteBuffer data = ByteBuffer.wrap(MESSAGE.getBytes(StandardCharsets.UTF_8));
+
+            ByteBuffer encrypted = cryptor.encrypt(data);
+            assertFalse(data.hasRemaining());
+
+            // Buffers and arrays are interchangeable.
+            byte[] bytes = toArray(encrypted.duplicate());
+            assertEquals(MESSAGE, new String(cryptor.decryptBytes(bytes), StandardCharsets.UTF_8), mode.toString());
+
+            ByteBuffer decrypted = cryptor.decrypt(encrypted);
+            assertFalse(encrypted.hasRemaining());
+            assertEquals(MESSAGE, StandardCharsets.UTF_8.decode(decrypted).toString(), mode.toString());
+        }
+    }
+
+    @Test
+    public void byteBuffersRejectTamperedGCMData() throws Exception {
+        AESCryptor gcm = cryptor(EncryptionMode.GCM);
+        ByteBuffer encrypted = gcm.encrypt(ByteBuffer.wrap(MESSAGE.getBytes(StandardCharsets.UTF_8)));
+
+        encrypted.put(encrypted.limit() - 1, (byte) (encrypted.get(encrypted.limit() - 1) ^ 1));
+
+        assertThrows(AEADBadTagException.class, () -> gcm.decrypt(encrypted));
+    }
+}
@@ -0,0 +1,91 @@
+package group.aelysium.rustyconnector.core.lib.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+    @Test
+    public void expiresItemsOnceTheyreDue() throws InterruptedException {
+        TimingWheel<String> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 16);
+        wheel.schedule("server", 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(wheel.advance().isEmpty());
+        assertEquals(1, wheel.size());
+
+        Thread.sleep(300);
+        assertEquals(List.of("server"), wheel.advance());
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance().isEmpty());
+    }
+
+    @Test
+    public void reschedulingReplacesTheOldExpiry() throws InterruptedException {
+        TimingWheel<String> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 16);
+        wheel.schedule("server", 50, TimeUnit.MILLISECONDS);
+        wheel.schedule("server", 1000, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(150);
+        assertTrue(wheel.advance().isEmpty());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void cancelledItemsNeverExpire() throws InterruptedException {
+        TimingWheel<String> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 16);
+        wheel.schedule("server", 20, TimeUnit.MILLISECONDS);
+        wheel.cancel("server");
+        wheel.cancel("unknown");
+
+        Thread.sleep(100);
+        assertTrue(wheel.advance().isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void itemsMoreThanOneTurnAwayWaitForTheirTurn() throws InterruptedException {
+        // One turn of the wheel is 20ms, so this item lands in a bucket that comes up many times before it's due.
+        TimingWheel<String> wheel = new TimingWheel<>(5, TimeUnit.MILLISECONDS, 4);
+        wheel.schedule("server", 500, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(100);
+        assertTrue(wheel.advance().isEmpty());
+
+        Thread.sleep(600);
+        assertEquals(List.of("server"), wheel.advance());
+    }
+
+    @Test
+    public void catchesUpOnMissedTicks() throws InterruptedException {
+        TimingWheel<String> wheel = new TimingWheel<>(5, TimeUnit.MILLISECONDS, 8);
+        wheel.schedule("a", 10, TimeUnit.MILLISECONDS);
+        wheel.schedule("b", 20, TimeUnit.MILLISECONDS);
+        wheel.schedule("c", 30, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(150);
+        List<String> expired = wheel.advance();
+        assertEquals(3, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b", "c")));
+    }
+
+    @Test
+    public void clearRemovesEverything() throws InterruptedException {
+        TimingWheel<String> wheel = new TimingWheel<>(10, TimeUnit.MILLISECONDS, 16);
+        wheel.schedule("a", 20, TimeUnit.MILLISECONDS);
+        wheel.schedule("b", 20, TimeUnit.MILLISECONDS);
+        wheel.clear();
+
+        Thread.sleep(100);
+        assertTrue(wheel.advance().isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0, TimeUnit.MILLISECONDS, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(10, TimeUnit.MILLISECONDS, 0));
+    }
+}
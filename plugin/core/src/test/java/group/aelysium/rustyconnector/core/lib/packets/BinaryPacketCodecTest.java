@@ -0,0 +1,108 @@
+package group.aelysium.rustyconnector.core.lib.packets;
+
+import com.google.gson.JsonPrimitive;
+import group.aelysium.rustyconnector.core.lib.packets.variants.SendPlayerPacket;
+import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingPacket;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryPacketCodecTest {
+    private static GenericPacket.Builder ping() {
+        return new GenericPacket.Builder()
+                .setType(PacketType.PING)
+                .setOrigin(PacketOrigin.SERVER)
+                .setAddress("127.0.0.1:25565")
+                .setParameter(ServerPingPacket.ValidParameters.INTENT, ServerPingPacket.ConnectionIntent.CONNECT.toString())
+                .setParameter(ServerPingPacket.ValidParameters.FAMILY_NAME, "lobby")
+                .setParameter(ServerPingPacket.ValidParameters.SERVER_NAME, "lobby-1")
+                .setParameter(ServerPingPacket.ValidParameters.SOFT_CAP, new JsonPrimitive(20))
+                .setParameter(ServerPingPacket.ValidParameters.HARD_CAP, new JsonPrimitive(30))
+                .setParameter(ServerPingPacket.ValidParameters.WEIGHT, new JsonPrimitive(2))
+                .setParameter(ServerPingPacket.ValidParameters.PLAYER_COUNT, new JsonPrimitive(7));
+    }
+
+    @Test
+    public void pingRoundTripsWithEveryOptional() throws Exception {
+        GenericPacket sent = ping()
+                .setParameter(ServerPingPacket.ValidParameters.TPS_OPTIONAL, new JsonPrimitive(19.5))
+                .setParameter(ServerPingPacket.ValidParameters.MSPT_OPTIONAL, new JsonPrimitive(12.25))
+                .setParameter(ServerPingPacket.ValidParameters.USED_HEAP_OPTIONAL, new JsonPrimitive(1_000_000_000L))
+                .setParameter(ServerPingPacket.ValidParameters.LOADED_CHUNKS_OPTIONAL, new JsonPrimitive(441))
+                .setParameter(ServerPingPacket.ValidParameters.MAX_HEAP_OPTIONAL, new JsonPrimitive(4_000_000_000L))
+                .buildSendable();
+
+        byte[] encoded = BinaryPacketCodec.encode(sent);
+        assertTrue(BinaryPacketCodec.isBinary(encoded));
+
+        ServerPingPacket received = (ServerPingPacket) BinaryPacketCodec.decode(encoded);
+        assertEquals(PacketType.PING, received.type());
+        assertEquals(PacketOrigin.SERVER, received.origin());
+        assertEquals(sent.address(), received.address());
+        assertEquals(BinaryPacketCodec.PROTOCOL_VERSION, received.messageVersion());
+        assertEquals(encoded.length, received.rawLength());
+
+        assertEquals(ServerPingPacket.ConnectionIntent.CONNECT, received.intent());
+        assertEquals("lobby", received.familyName());
+        assertEquals("lobby-1", received.serverName());
+        assertEquals(20, received.softCap());
+        assertEquals(30, received.hardCap());
+        assertEquals(2, received.weight());
+        assertEquals(7, received.playerCount());
+        assertEquals(Optional.of(19.5), received.tps());
+        assertEquals(Optional.of(12.25), received.mspt());
+        assertEquals(Optional.of(1_000_000_000L), received.usedHeap());
+        assertEquals(Optional.of(441), received.loadedChunks());
+        assertEquals(Optional.of(4_000_000_000L), received.maxHeap());
+    }
+
+    @Test
+    public void missingOptionalsStayMissing() throws Exception {
+        ServerPingPacket received = (ServerPingPacket) BinaryPacketCodec.decode(BinaryPacketCodec.encode(ping().buildSendable()));
+
+        assertEquals(Optional.empty(), received.tps());
+        assertEquals(Optional.empty(), received.mspt());
+        assertEquals(Optional.empty(), received.usedHeap());
+        assertEquals(Optional.empty(), received.loadedChunks());
+        assertEquals(Optional.empty(), received.maxHeap());
+    }
+
+    @Test
+    public void sendPlayerRoundTrips() throws Exception {
+        String uuid = UUID.randomUUID().toString();
+        GenericPacket sent = new GenericPacket.Builder()
+                .setType(PacketType.SEND_PLAYER)
+                .setOrigin(PacketOrigin.SERVER)
+                .setAddress("127.0.0.1:25566")
+                .setParameter(SendPlayerPacket.ValidParameters.TARGET_FAMILY_NAME, "survival")
+                .setParameter(SendPlayerPacket.ValidParameters.PLAYER_UUID, uuid)
+                .buildSendable();
+
+        SendPlayerPacket received = (SendPlayerPacket) BinaryPacketCodec.decode(BinaryPacketCodec.encode(sent));
+
+        assertEquals(sent.address(), received.address());
+        assertEquals("survival", received.targetFamilyName());
+        assertEquals(uuid, received.uuid());
+    }
+
+    @Test
+    public void jsonIsntBinary() {
+        byte[] json = ping().buildSendable().toString().getBytes(StandardCharsets.UTF_8);
+
+        assertFalse(BinaryPacketCodec.isBinary(json));
+        assertFalse(BinaryPacketCodec.isBinary(new byte[0]));
+        assertThrows(IllegalStateException.class, () -> BinaryPacketCodec.decode(json));
+    }
+
+    @Test
+    public void truncatedPacketsAreRejected() throws Exception {
+        byte[] encoded = BinaryPacketCodec.encode(ping().buildSendable());
+
+        assertThrows(Exception.class, () -> BinaryPacketCodec.decode(Arrays.copyOf(encoded, encoded.length - 4)));
+    }
+}
@@ -0,0 +1,110 @@
+package group.aelysium.rustyconnector.core.lib.packets;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import group.aelysium.rustyconnector.core.lib.packets.GenericPacket.MasterValidParameters;
+import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingPacket;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenericPacketSerializerTest {
+    private final GenericPacket.Serializer serializer = new GenericPacket.Serializer();
+
+    private static GenericPacket ping() {
+        return new GenericPacket.Builder()
+                .setType(PacketType.PING)
+                .setOrigin(PacketOrigin.SERVER)
+                .setAddress("127.0.0.1:25565")
+                .setParameter(ServerPingPacket.ValidParameters.INTENT, ServerPingPacket.ConnectionIntent.DISCONNECT.toString())
+                .setParameter(ServerPingPacket.ValidParameters.FAMILY_NAME, "lobby")
+                .setParameter(ServerPingPacket.ValidParameters.SERVER_NAME, "lobby-1")
+                .setParameter(ServerPingPacket.ValidParameters.SOFT_CAP, new JsonPrimitive(20))
+                .setParameter(ServerPingPacket.ValidParameters.HARD_CAP, new JsonPrimitive(30))
+                .setParameter(ServerPingPacket.ValidParameters.WEIGHT, new JsonPrimitive(2))
+                .setParameter(ServerPingPacket.ValidParameters.PLAYER_COUNT, new JsonPrimitive(7))
+                .setParameter(ServerPingPacket.ValidParameters.MAX_HEAP_OPTIONAL, new JsonPrimitive(4_000_000_000L))
+                .buildSendable();
+    }
+
+    private static void assertSamePing(GenericPacket expected, GenericPacket actual) {
+        ServerPingPacket sent = (ServerPingPacket) expected;
+        ServerPingPacket received = assertInstanceOf(ServerPingPacket.class, actual);
+
+        assertEquals(sent.type(), received.type());
+        assertEquals(sent.origin(), received.origin());
+        assertEquals(sent.address(), received.address());
+        assertEquals(sent.intent(), received.intent());
+        assertEquals(sent.familyName(), received.familyName());
+        assertEquals(sent.serverName(), received.serverName());
+        assertEquals(sent.softCap(), received.softCap());
+        assertEquals(sent.hardCap(), received.hardCap());
+        assertEquals(sent.weight(), received.weight());
+        assertEquals(sent.playerCount(), received.playerCount());
+        assertEquals(sent.maxHeap(), received.maxHeap());
+        assertEquals(Optional.empty(), received.tps());
+    }
+
+    @Test
+    public void parsesWhatPacketsWrite() {
+        GenericPacket sent = ping();
+        String raw = sent.toString();
+
+        GenericPacket received = this.serializer.parseReceived(raw);
+
+        assertSamePing(sent, received);
+        assertEquals(raw, received.rawMessage());
+        assertEquals(raw.length(), received.rawLength());
+        assertEquals(GenericPacket.protocolVersion(), received.messageVersion());
+    }
+
+    @Test
+    public void parsesHeadersThatComeAfterTheParameters() {
+        GenericPacket sent = ping();
+        JsonObject written = sent.toJSON();
+
+        JsonObject reordered = new JsonObject();
+        reordered.add(MasterValidParameters.PARAMETERS, written.get(MasterValidParameters.PARAMETERS));
+        written.entrySet().forEach(entry -> {
+            if(!entry.getKey().equals(MasterValidParameters.PARAMETERS)) reordered.add(entry.getKey(), entry.getValue());
+        });
+
+        assertSamePing(sent, this.serializer.parseReceived(reordered.toString()));
+    }
+
+    @Test
+    public void readsTheMaxProtocolVersionAndSkipsUnknownFields() {
+        JsonObject written = ping().toJSON();
+        written.addProperty(MasterValidParameters.MAX_PROTOCOL_VERSION_OPTIONAL, 99);
+        written.addProperty("unknown", "ignored");
+
+        GenericPacket received = this.serializer.parseReceived(written.toString());
+
+        assertEquals(99, received.maxProtocolVersion());
+    }
+
+    @Test
+    public void rejectsMissingParameters() {
+        JsonObject written = ping().toJSON();
+        written.getAsJsonObject(MasterValidParameters.PARAMETERS).remove(ServerPingPacket.ValidParameters.PLAYER_COUNT);
+
+        assertThrows(IllegalStateException.class, () -> this.serializer.parseReceived(written.toString()));
+    }
+
+    @Test
+    public void rejectsPacketsWithoutParameters() {
+        JsonObject written = ping().toJSON();
+        written.remove(MasterValidParameters.PARAMETERS);
+
+        assertThrows(IllegalStateException.class, () -> this.serializer.parseReceived(written.toString()));
+    }
+
+    @Test
+    public void rejectsMoreThanOnePacket() {
+        String raw = ping().toString();
+
+        assertThrows(IllegalStateException.class, () -> this.serializer.parseReceived(raw + raw));
+    }
+}
@@ -215,7 +215,10 @@ class Initialize {
                 config.getRedis_address(),
                 config.getRedis_user(),
                 config.getRedis_protocol(),
-                config.getRedis_dataChannel()
+                config.getRedis_dataChannel(),
+                config.getRedis_legacyDataChannel(),
+                config.getRedis_packetFormat(),
+                config.getRedis_encryption()
         );
         RedisConnector messenger = RedisConnector.create(cryptor, spec);
         services.put(RedisConnector.class, messenger);
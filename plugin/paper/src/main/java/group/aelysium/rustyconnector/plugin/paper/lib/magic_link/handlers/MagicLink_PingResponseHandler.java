@@ -33,8 +33,15 @@ public class MagicLink_PingResponseHandler extends PacketHandler {
 
         if(packet.status() == ServerPingResponsePacket.PingResponseStatus.DENIED) {
             logger.send(Component.text(packet.message(), packet.color()));
-            logger.send(Component.text("Waiting 1 minute before trying again...", NamedTextColor.GRAY));
-            service.setUpcomingPingDelay(60);
+
+            // The proxy might only be busy, in which case it tells us when to try again.
+            if(packet.pingInterval().isPresent()) {
+                logger.send(Component.text("Waiting "+packet.pingInterval().get()+" seconds before trying again...", NamedTextColor.GRAY));
+                service.setUpcomingPingDelay(packet.pingInterval().get());
+            } else {
+                logger.send(Component.text("Waiting 1 minute before trying again...", NamedTextColor.GRAY));
+                service.setUpcomingPingDelay(60);
+            }
             service.setStatus(MagicLinkService.Status.SEARCHING);
         }
     }
@@ -1,5 +1,6 @@
 package group.aelysium.rustyconnector.plugin.paper.lib.services;
 
+import com.google.gson.JsonPrimitive;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
 import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
 import group.aelysium.rustyconnector.core.lib.packets.PacketType;
@@ -31,6 +32,11 @@ public class PacketBuilderService extends Service {
                     .setParameter(ServerPingPacket.ValidParameters.HARD_CAP, String.valueOf(serverInfoService.hardPlayerCap()))
                     .setParameter(ServerPingPacket.ValidParameters.WEIGHT, String.valueOf(serverInfoService.weight()))
                     .setParameter(ServerPingPacket.ValidParameters.PLAYER_COUNT, String.valueOf(serverInfoService.playerCount()))
+                    .setParameter(ServerPingPacket.ValidParameters.TPS_OPTIONAL, new JsonPrimitive(serverInfoService.tps()))
+                    .setParameter(ServerPingPacket.ValidParameters.MSPT_OPTIONAL, new JsonPrimitive(serverInfoService.mspt()))
+                    .setParameter(ServerPingPacket.ValidParameters.USED_HEAP_OPTIONAL, new JsonPrimitive(serverInfoService.usedHeap()))
+                    .setParameter(ServerPingPacket.ValidParameters.MAX_HEAP_OPTIONAL, new JsonPrimitive(serverInfoService.maxHeap()))
+                    .setParameter(ServerPingPacket.ValidParameters.LOADED_CHUNKS_OPTIONAL, new JsonPrimitive(serverInfoService.loadedChunks()))
                     .buildSendable();
             api.flame().backbone().connection().orElseThrow().publish(message);
         } catch (Exception e) {
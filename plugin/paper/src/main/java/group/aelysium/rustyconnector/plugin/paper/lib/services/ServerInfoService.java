@@ -4,9 +4,15 @@ import group.aelysium.rustyconnector.core.lib.hash.MD5;
 import group.aelysium.rustyconnector.core.lib.model.PlayerServer;
 import group.aelysium.rustyconnector.core.lib.serviceable.Service;
 import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
+import group.aelysium.rustyconnector.plugin.paper.PaperRustyConnector;
 import group.aelysium.rustyconnector.plugin.paper.PluginLogger;
 import group.aelysium.rustyconnector.plugin.paper.central.Tinder;
 
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
 import java.net.InetSocketAddress;
 
 public class ServerInfoService extends Service implements PlayerServer {
@@ -17,6 +23,13 @@ public class ServerInfoService extends Service implements PlayerServer {
     private Integer hardPlayerCap;
     private Integer weight;
 
+    /**
+     * How often, in ticks, the loaded chunks are counted.
+     */
+    private static final long CHUNK_SAMPLE_PERIOD = 20;
+    private volatile int loadedChunks = 0;
+    private Runnable stopSampling;
+
     public ServerInfoService(String name, InetSocketAddress address, String family, int softPlayerCap, int hardPlayerCap, int weight) {
         if(name.equals(""))
             name = family + "-" + MD5.generateMD5(); // Generate a custom string to be the server's name
@@ -28,6 +41,31 @@ public class ServerInfoService extends Service implements PlayerServer {
         this.setPlayerCap(softPlayerCap, hardPlayerCap);
 
         this.weight = weight;
+
+        this.startSampling();
+    }
+
+    /**
+     * Worlds can only be looked at from the main thread, but pings are sent from the heartbeat's thread.
+     * So the loaded chunks are counted on the main thread every so often, and pings just read the last count.
+     */
+    private void startSampling() {
+        PaperRustyConnector plugin = PaperRustyConnector.getPlugin(PaperRustyConnector.class);
+
+        if(Tinder.get().isFolia()) {
+            ScheduledTask task = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, ignore -> this.sampleLoadedChunks(), 1, CHUNK_SAMPLE_PERIOD);
+            this.stopSampling = task::cancel;
+        } else {
+            BukkitTask task = Tinder.get().scheduler().runTaskTimer(plugin, this::sampleLoadedChunks, 0, CHUNK_SAMPLE_PERIOD);
+            this.stopSampling = task::cancel;
+        }
+    }
+
+    private void sampleLoadedChunks() {
+        int chunks = 0;
+        for (World world : Tinder.get().paperServer().getWorlds())
+            chunks += world.getChunkCount();
+        this.loadedChunks = chunks;
     }
 
     /**
@@ -66,6 +104,48 @@ public class ServerInfoService extends Service implements PlayerServer {
         return Tinder.get().paperServer().getOnlinePlayers().size();
     }
 
+    /**
+     * Get the server's ticks per second, averaged over the last minute.
+     * @return The server's TPS.
+     */
+    public double tps() {
+        return Tinder.get().paperServer().getTPS()[0];
+    }
+
+    /**
+     * Get the average number of milliseconds that the server's recent ticks have taken.
+     * @return The server's MSPT.
+     */
+    public double mspt() {
+        return Tinder.get().paperServer().getAverageTickTime();
+    }
+
+    /**
+     * Get how much of the heap the server is currently using.
+     * @return The used heap in bytes.
+     */
+    public long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Get the most heap the server is allowed to use.
+     * @return The max heap in bytes.
+     */
+    public long maxHeap() {
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * Get the number of chunks that are loaded across all of the server's worlds.
+     * This is safe to call from any thread, since it's the count from the last time the main thread sampled it.
+     * @return The number of loaded chunks.
+     */
+    public int loadedChunks() {
+        return this.loadedChunks;
+    }
+
     @Override
     public int sortIndex() {
         return 0;
@@ -88,6 +168,9 @@ public class ServerInfoService extends Service implements PlayerServer {
 
     @Override
     public void kill() {
+        if(this.stopSampling != null) this.stopSampling.run();
+        this.stopSampling = null;
+
         name = null;
         address = null;
         family = null;
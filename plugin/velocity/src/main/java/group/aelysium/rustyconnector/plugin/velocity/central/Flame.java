@@ -106,6 +106,13 @@ public class Flame extends ServiceableService<CoreServiceHandler> {
     public void exhaust(VelocityRustyConnector plugin) {
         Tinder.get().velocityServer().getEventManager().unregisterListeners(plugin);
         this.bootOutput.clear();
+
+        try {
+            this.services().magicLinkService().saveSnapshot();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
         this.kill();
     }
 
@@ -308,7 +315,10 @@ class Initialize {
                 config.getRedis_address(),
                 config.getRedis_user(),
                 config.getRedis_protocol(),
-                config.getRedis_dataChannel()
+                config.getRedis_dataChannel(),
+                config.getRedis_legacyDataChannel(),
+                config.getRedis_packetFormat(),
+                config.getRedis_encryption()
         );
         RedisConnector messenger = RedisConnector.create(dependencies.d1(), spec);
         services.put(MessengerConnector.class, messenger);
@@ -376,8 +386,11 @@ class Initialize {
 
         {
             bootOutput.add(Component.text(" | Registering load balancing service to the API...", NamedTextColor.DARK_GRAY));
-            if (dependencies.d1().services_loadBalancing_enabled())
-                services.put(LoadBalancingService.class, new LoadBalancingService(familyService.size(), dependencies.d1().services_loadBalancing_interval()));
+            if (dependencies.d1().services_loadBalancing_enabled()) {
+                LoadBalancingService loadBalancingService = new LoadBalancingService(dependencies.d1().services_loadBalancing_interval());
+                services.put(LoadBalancingService.class, loadBalancingService);
+                loadBalancingService.init(familyService);
+            }
             bootOutput.add(Component.text(" | Finished registering load balancing service to the API.", NamedTextColor.GREEN));
         }
 
@@ -462,7 +475,7 @@ class Initialize {
     public void magicLink(DependencyInjector.DI2<DefaultConfig, ServerService> dependencies) {
         bootOutput.add(Component.text("Building magic link service...", NamedTextColor.DARK_GRAY));
 
-        MagicLinkService magicLinkService = new MagicLinkService(3, dependencies.d1().services_serverLifecycle_serverPingInterval());
+        MagicLinkService magicLinkService = new MagicLinkService(3, dependencies.d1().services_serverLifecycle_serverPingInterval(), new File(api.dataFolder(), "server-registry.json"));
         services.put(MagicLinkService.class, magicLinkService);
 
         bootOutput.add(Component.text("Finished building magic link service.", NamedTextColor.GREEN));
@@ -478,7 +491,8 @@ class Initialize {
 
         ServerService.Builder serverServiceBuilder = new ServerService.Builder()
                 .setServerTimeout(defaultConfig.services_serverLifecycle_serverTimeout())
-                .setServerInterval(defaultConfig.services_serverLifecycle_serverPingInterval());
+                .setServerInterval(defaultConfig.services_serverLifecycle_serverPingInterval())
+                .setTimeoutPrecision(defaultConfig.services_serverLifecycle_timeoutPrecision());
 
         ServerService serverService = serverServiceBuilder.build();
         services.put(ServerService.class, serverService);
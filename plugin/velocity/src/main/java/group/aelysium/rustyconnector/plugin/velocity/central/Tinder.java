@@ -46,6 +46,15 @@ public class Tinder extends group.aelysium.rustyconnector.core.central.Tinder<Sc
      */
     public Flame ignite() throws RuntimeException {
         this.flame = Flame.fabricateNew(this.plugin, this.lang);
+
+        // Servers can only be registered once the flame is lit.
+        try {
+            int restored = this.flame.services().magicLinkService().restoreSnapshot(this.flame.services().serverService());
+            if(restored > 0) this.logger().log("Restored "+restored+" servers from the last snapshot.");
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
         return flame;
     }
 
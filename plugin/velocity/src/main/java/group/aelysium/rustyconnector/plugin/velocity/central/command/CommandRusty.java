@@ -14,6 +14,7 @@ import com.velocitypowered.api.proxy.ConsoleCommandSource;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import group.aelysium.rustyconnector.core.lib.data_transit.cache.CacheableMessage;
+import group.aelysium.rustyconnector.core.lib.messenger.implementors.redis.RedisConnection;
 import group.aelysium.rustyconnector.core.lib.util.DependencyInjector;
 import group.aelysium.rustyconnector.plugin.velocity.PluginLogger;
 import group.aelysium.rustyconnector.plugin.velocity.central.Flame;
@@ -346,6 +347,9 @@ class Debug {
         return LiteralArgumentBuilder.<CommandSource>literal("debug")
                 .executes(context -> {
                     flame.bootLog().forEach(logger::send);
+
+                    if(flame.backbone().connection().orElse(null) instanceof RedisConnection connection)
+                        VelocityLang.RC_DEBUG_PUBLISHER.send(logger, connection.publisherMetrics());
                     return Command.SINGLE_SUCCESS;
                 });
     }
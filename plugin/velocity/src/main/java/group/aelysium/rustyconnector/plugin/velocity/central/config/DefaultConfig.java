@@ -18,6 +18,7 @@ public class DefaultConfig extends YAML {
 
     private Integer services_serverLifecycle_serverTimeout = 15;
     private Integer services_serverLifecycle_serverPingInterval = 10;
+    private Integer services_serverLifecycle_timeoutPrecision = 1000;
     private Boolean services_loadBalancing_enabled = true;
     private Integer services_loadBalancing_interval = 20;
 
@@ -41,6 +42,10 @@ public class DefaultConfig extends YAML {
         return services_serverLifecycle_serverPingInterval;
     }
 
+    public Integer services_serverLifecycle_timeoutPrecision() {
+        return services_serverLifecycle_timeoutPrecision;
+    }
+
     public Integer services_loadBalancing_interval() {
         return services_loadBalancing_interval;
     }
@@ -89,6 +94,15 @@ public class DefaultConfig extends YAML {
             VelocityLang.BOXED_MESSAGE_COLORED.send(logger, "Server timeout can't be less that server ping interval!", NamedTextColor.YELLOW);
             this.services_serverLifecycle_serverPingInterval = this.services_serverLifecycle_serverTimeout - 2;
         }
+        try {
+            this.services_serverLifecycle_timeoutPrecision = this.getNode(this.data,"services.server-lifecycle.timeout-precision",Integer.class);
+        } catch (IllegalStateException ignore) {
+            this.services_serverLifecycle_timeoutPrecision = 1000;
+        }
+        if(this.services_serverLifecycle_timeoutPrecision < 100) {
+            VelocityLang.BOXED_MESSAGE_COLORED.send(logger, "Server timeout precision is set dangerously fast: " + this.services_serverLifecycle_timeoutPrecision + "ms. Setting to minimum of 100ms.", NamedTextColor.YELLOW);
+            this.services_serverLifecycle_timeoutPrecision = 100;
+        }
 
 
         this.services_loadBalancing_enabled = this.getNode(this.data,"services.load-balancing.enabled",Boolean.class);
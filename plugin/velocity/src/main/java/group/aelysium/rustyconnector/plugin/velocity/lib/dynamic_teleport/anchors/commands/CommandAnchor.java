@@ -54,7 +54,11 @@ public class CommandAnchor {
                                 return closeMessage(player, VelocityLang.SERVER_ALREADY_CONNECTED);
                         } catch (Exception ignore) {}
 
-                        family.connect(player);
+                        family.connectAsync(player).exceptionally(throwable -> {
+                            PlayerServer.unwrap(throwable).printStackTrace();
+                            player.sendMessage(VelocityLang.INTERNAL_ERROR);
+                            return null;
+                        });
                     } catch (Exception e) {
                         e.printStackTrace();
                         return closeMessage(player, VelocityLang.INTERNAL_ERROR);
@@ -54,14 +54,7 @@ public class CommandHub {
 
                     if (!(family instanceof PlayerFocusedServerFamily)) {
                         // Attempt to connect to root family if we're not in a PlayerFocusedServerFamily
-                        try {
-                            rootFamily.connect(player);
-                            return Command.SINGLE_SUCCESS;
-                        } catch (RuntimeException err) {
-                            logger.send(Component.text("Failed to connect player to parent family " + rootFamily.name() + "!",NamedTextColor.RED));
-                            context.getSource().sendMessage(VelocityLang.HUB_CONNECTION_FAILED);
-                        }
-
+                        connect(rootFamily, player);
                         return Command.SINGLE_SUCCESS;
                     }
 
@@ -69,11 +62,11 @@ public class CommandHub {
                         PlayerFocusedServerFamily parent = (PlayerFocusedServerFamily) ((PlayerFocusedServerFamily) family).parent().get();
 
                         if(parent != null) {
-                            parent.connect(player);
+                            connect(parent, player);
                             return Command.SINGLE_SUCCESS;
                         }
 
-                        rootFamily.connect(player);
+                        connect(rootFamily, player);
                     } catch (RuntimeException err) {
                         logger.send(Component.text("Failed to connect player to parent family " + rootFamily.name() + "!",NamedTextColor.RED));
                         context.getSource().sendMessage(VelocityLang.HUB_CONNECTION_FAILED);
@@ -85,4 +78,15 @@ public class CommandHub {
 
         return new BrigadierCommand(hub);
     }
+
+    /**
+     * Connect the player to the family without holding up the command thread.
+     */
+    private static void connect(PlayerFocusedServerFamily family, Player player) {
+        family.connectAsync(player).exceptionally(throwable -> {
+            Tinder.get().logger().send(Component.text("Failed to connect player to parent family " + family.name() + "!",NamedTextColor.RED));
+            player.sendMessage(VelocityLang.HUB_CONNECTION_FAILED);
+            return null;
+        });
+    }
 }
\ No newline at end of file
@@ -97,11 +97,10 @@ public class TPAService extends ServiceableService<TPAServiceHandler> {
             if (senderServer.equals(targetServer)) return;
         } catch (Exception ignore) {}
 
-        try {
-            targetServer.connect(source);
-        } catch (Exception e) {
+        targetServer.connectAsync(source).exceptionally(throwable -> {
             source.sendMessage(VelocityLang.TPA_FAILURE.build(target.getUsername()));
-        }
+            return null;
+        });
     }
 
     @Override
@@ -76,6 +76,18 @@ public class FamilyService extends Service implements NodeManager<BaseServerFami
         this.registeredFamilies.clear();
     }
 
+    /**
+     * Gets the aggregate player count across every family.
+     * Each family keeps it's own total up to date, so this doesn't need to look at any servers.
+     * @return A player count
+     */
+    public long playerCount() {
+        long playerCount = 0;
+        for (BaseServerFamily<?> family : this.registeredFamilies.values())
+            playerCount += family.playerCount();
+        return playerCount;
+    }
+
     public int size() {
         return this.registeredFamilies.size();
     }
@@ -13,7 +13,8 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This class should never be used directly.
@@ -29,6 +30,8 @@ public abstract class PlayerFocusedServerFamily extends BaseServerFamily<PlayerS
     protected boolean weighted;
 
     protected final List<PlayerServer> lockedServers = new ArrayList<>();
+    protected final LongAdder playerCount = new LongAdder();
+    private volatile Membership membership = Membership.EMPTY;
 
     protected PlayerFocusedServerFamily(String name, Whitelist whitelist, Class<? extends LoadBalancer> clazz, boolean weighted, boolean persistence, int attempts, String parentName) throws NoSuchMethodException, InvocationTargetException, InstantiationException, IllegalAccessException {
         super(name);
@@ -71,6 +74,14 @@ public abstract class PlayerFocusedServerFamily extends BaseServerFamily<PlayerS
      */
     public abstract PlayerServer connect(Player player);
 
+    /**
+     * Connect a player to this family without blocking the calling thread.
+     * @param player The player to connect
+     * @return A future which completes with the PlayerServer the player connected to.
+     *         If the connection can't be made, the future completes exceptionally.
+     */
+    public abstract CompletableFuture<PlayerServer> connectAsync(Player player);
+
     public boolean isWeighted() {
         return weighted;
     }
@@ -89,70 +100,132 @@ public abstract class PlayerFocusedServerFamily extends BaseServerFamily<PlayerS
         return api.services().whitelistService().find(this.whitelist);
     }
 
-    public long serverCount() { return this.registeredServers().size(); }
+    public long serverCount() { return this.membership.servers().size(); }
 
+    /**
+     * Gets the aggregate player count across all servers in this family, including locked servers.
+     * Each server adds it's changes to the total as they happen, so this doesn't need to look at any servers.
+     * @return A player count
+     */
     @Override
     public long playerCount() {
-        AtomicLong newPlayerCount = new AtomicLong();
-        this.loadBalancer.dump().forEach(server -> newPlayerCount.addAndGet(server.playerCount()));
-
-        return newPlayerCount.get();
+        return this.playerCount.sum();
     }
 
+    /**
+     * Get every server in this family, both locked and unlocked.
+     * The returned list can't be modified and won't change, so it's safe to iterate while servers are being added or removed.
+     * @return The servers in this family.
+     */
     @Override
     public List<PlayerServer> registeredServers() {
-        List<PlayerServer> servers = new ArrayList<>();
-        servers.addAll(this.loadBalancer.dump());
+        return this.membership.servers();
+    }
+
+    /**
+     * Get the current membership of this family.
+     * The membership is only rebuilt when servers are added, removed, locked or unlocked. Reading it is free.
+     * @return The current membership.
+     */
+    public Membership membership() {
+        return this.membership;
+    }
+
+    /**
+     * Rebuild the membership after servers are added, removed, locked or unlocked.
+     * Must be called while holding the load balancer's lock.
+     */
+    private void rebuildMembership() {
+        List<PlayerServer> unlocked = this.loadBalancer.dump();
+
+        List<PlayerServer> servers = new ArrayList<>(unlocked.size() + this.lockedServers.size());
+        servers.addAll(unlocked);
         servers.addAll(this.lockedServers);
-        return servers;
+
+        Map<ServerInfo, PlayerServer> index = new HashMap<>();
+        servers.forEach(server -> index.put(server.serverInfo(), server));
+
+        this.membership = new Membership(
+                this.membership.version() + 1,
+                List.copyOf(servers),
+                List.copyOf(this.lockedServers),
+                Map.copyOf(index),
+                Set.copyOf(this.lockedServers)
+        );
     }
 
-    public List<PlayerServer> lockedServers() { return this.lockedServers;}
+    /**
+     * Take a snapshot of this family and every server in it.
+     * Servers can't be added, removed, locked or unlocked while the snapshot is being taken.
+     * @return A snapshot of the family.
+     */
+    public Snapshot snapshot() {
+        synchronized (this.loadBalancer) {
+            List<PlayerServer.Snapshot> unlocked = this.loadBalancer.dump().stream().map(PlayerServer::snapshot).toList();
+            List<PlayerServer.Snapshot> locked = this.lockedServers.stream().map(PlayerServer::snapshot).toList();
+
+            return new Snapshot(this.name, this.loadBalancer.index(), unlocked, locked);
+        }
+    }
+
+    public List<PlayerServer> lockedServers() { return this.membership.lockedServers(); }
 
     @Override
     public void addServer(PlayerServer server) {
-        this.loadBalancer.add(server);
+        synchronized (this.loadBalancer) {
+            this.loadBalancer.add(server);
+            this.rebuildMembership();
+        }
+        server.countTowards(this.playerCount);
     }
 
     @Override
     public void removeServer(PlayerServer server) {
-        this.loadBalancer.remove(server);
-        this.lockedServers.remove(server);
+        synchronized (this.loadBalancer) {
+            this.loadBalancer.remove(server);
+            this.lockedServers.remove(server);
+            this.rebuildMembership();
+        }
+        server.countTowards(null);
     }
     
     public void unlockServer(PlayerServer server) {
-        if (!this.lockedServers.contains(server)) return;
-        this.lockedServers.remove(server);
-        this.loadBalancer.add(server);
+        synchronized (this.loadBalancer) {
+            if (!this.membership.locked(server)) return;
+            this.lockedServers.remove(server);
+            this.loadBalancer.add(server);
+            this.rebuildMembership();
+        }
 
         this.loadBalancer.completeSort();
     }
     
     public void lockServer(PlayerServer server) {
-        if (!this.loadBalancer.dump().contains(server)) return;
-        this.loadBalancer.remove(server);
-        this.lockedServers.add(server);
+        synchronized (this.loadBalancer) {
+            if (!this.membership.contains(server) || this.membership.locked(server)) return;
+            this.loadBalancer.remove(server);
+            this.lockedServers.add(server);
+            this.rebuildMembership();
+        }
 
         this.loadBalancer.completeSort();
     }
     
     public boolean joinable(PlayerServer server) {
-        if (!this.registeredServers().contains(server)) return false;
-        return !this.lockedServers.contains(server);
+        Membership membership = this.membership;
+        return membership.contains(server) && !membership.locked(server);
     }
 
     @Override
     public PlayerServer findServer(@NotNull ServerInfo serverInfo) {
-        return this.registeredServers().stream()
-                .filter(server -> server.serverInfo().equals(serverInfo)
-                ).findFirst().orElse(null);
+        return this.membership.index().get(serverInfo);
     }
 
     @Override
     public List<Player> allPlayers(int max) {
         List<Player> players = new ArrayList<>();
 
-        for (PlayerServer server : this.registeredServers()) {
+        for (PlayerServer server : this.membership.servers()) {
             if(players.size() > max) break;
 
             players.addAll(server.registeredServer().getPlayersConnected());
@@ -160,4 +233,45 @@ public abstract class PlayerFocusedServerFamily extends BaseServerFamily<PlayerS
 
         return players;
     }
+
+    /**
+     * An immutable view of which servers are in a family.
+     * A new one is built every time a server is added, removed, locked or unlocked.
+     * @param version Goes up by one every time the membership changes.
+     * @param servers Every server in the family, unlocked servers first.
+     * @param lockedServers The servers which are locked.
+     * @param index Every server in the family, by it's {@link ServerInfo}.
+     * @param locked The servers which are locked, for quick lookups.
+     */
+    public record Membership(long version, List<PlayerServer> servers, List<PlayerServer> lockedServers, Map<ServerInfo, PlayerServer> index, Set<PlayerServer> locked) {
+        protected static final Membership EMPTY = new Membership(0, List.of(), List.of(), Map.of(), Set.of());
+
+        public boolean contains(PlayerServer server) {
+            return this.index.get(server.serverInfo()) == server;
+        }
+
+        public boolean locked(PlayerServer server) {
+            return this.locked.contains(server);
+        }
+    }
+
+    /**
+     * A point in time view of a family, which won't change as players come and go.
+     * @param index The position of the load balancer in `unlockedServers`.
+     */
+    public record Snapshot(String name, int index, List<PlayerServer.Snapshot> unlockedServers, List<PlayerServer.Snapshot> lockedServers) {
+        /**
+         * The player count of every server in the snapshot added together.
+         */
+        public long playerCount() {
+            long playerCount = 0;
+            for (PlayerServer.Snapshot server : this.unlockedServers) playerCount += server.playerCount();
+            for (PlayerServer.Snapshot server : this.lockedServers) playerCount += server.playerCount();
+            return playerCount;
+        }
+
+        public int serverCount() {
+            return this.unlockedServers.size() + this.lockedServers.size();
+        }
+    }
 }
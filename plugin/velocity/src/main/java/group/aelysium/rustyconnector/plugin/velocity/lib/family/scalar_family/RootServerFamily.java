@@ -11,6 +11,10 @@ import group.aelysium.rustyconnector.plugin.velocity.lib.lang.VelocityLang;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LeastConnection;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LoadBalancer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.MostConnection;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.Composite;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.ConsistentHash;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LatencyAware;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.PowerOfTwo;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.RoundRobin;
 import group.aelysium.rustyconnector.plugin.velocity.lib.whitelist.Whitelist;
 import net.kyori.adventure.text.Component;
@@ -46,9 +50,10 @@ public class RootServerFamily extends ScalarServerFamily {
         if(!scalarFamilyConfig.getParent_family().equals(""))
             logger.send(VelocityLang.BOXED_MESSAGE_COLORED.build("The root family isn't allowed to have a parent family defined! Ignoring...", NamedTextColor.YELLOW));
 
+        RootServerFamily family;
         switch (Enum.valueOf(AlgorithmType.class, scalarFamilyConfig.getLoadBalancing_algorithm())) {
             case ROUND_ROBIN -> {
-                return new RootServerFamily(
+                family = new RootServerFamily(
                         familyName,
                         whitelist,
                         RoundRobin.class,
@@ -58,7 +63,7 @@ public class RootServerFamily extends ScalarServerFamily {
                 );
             }
             case LEAST_CONNECTION -> {
-                return new RootServerFamily(
+                family = new RootServerFamily(
                         familyName,
                         whitelist,
                         LeastConnection.class,
@@ -68,7 +73,7 @@ public class RootServerFamily extends ScalarServerFamily {
                 );
             }
             case MOST_CONNECTION -> {
-                return new RootServerFamily(
+                family = new RootServerFamily(
                         familyName,
                         whitelist,
                         MostConnection.class,
@@ -77,7 +82,55 @@ public class RootServerFamily extends ScalarServerFamily {
                         scalarFamilyConfig.getLoadBalancing_persistence_attempts()
                 );
             }
+            case POWER_OF_TWO -> {
+                family = new RootServerFamily(
+                        familyName,
+                        whitelist,
+                        PowerOfTwo.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts()
+                );
+            }
+            case LATENCY_AWARE -> {
+                family = new RootServerFamily(
+                        familyName,
+                        whitelist,
+                        LatencyAware.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts()
+                );
+            }
+            case CONSISTENT_HASH -> {
+                family = new RootServerFamily(
+                        familyName,
+                        whitelist,
+                        ConsistentHash.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts()
+                );
+            }
+            case COMPOSITE -> {
+                family = new RootServerFamily(
+                        familyName,
+                        whitelist,
+                        Composite.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts()
+                );
+                ((Composite) family.loadBalancer()).setWeights(scalarFamilyConfig.getLoadBalancing_composite());
+            }
             default -> throw new RuntimeException("The name used for "+familyName+"'s load balancer is invalid!");
         }
+
+        family.loadBalancer().setHedging(
+                scalarFamilyConfig.isLoadBalancing_persistence_hedge_enabled(),
+                scalarFamilyConfig.getLoadBalancing_persistence_hedge_delay()
+        );
+
+        return family;
     }
 }
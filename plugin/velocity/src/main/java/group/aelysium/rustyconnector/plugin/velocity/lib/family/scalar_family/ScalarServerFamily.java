@@ -13,6 +13,10 @@ import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocu
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LeastConnection;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LoadBalancer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.MostConnection;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.Composite;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.ConsistentHash;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LatencyAware;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.PowerOfTwo;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.RoundRobin;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.whitelist.Whitelist;
@@ -22,7 +26,10 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.rmi.ConnectException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static group.aelysium.rustyconnector.core.lib.util.DependencyInjector.inject;
 
@@ -40,6 +47,12 @@ public class ScalarServerFamily extends PlayerFocusedServerFamily {
         return connector.connect();
     }
 
+    @Override
+    public CompletableFuture<PlayerServer> connectAsync(Player player) {
+        ScalarFamilyConnector connector = new ScalarFamilyConnector(this, player);
+        return connector.connectAsync();
+    }
+
     public PlayerServer fetchAny(Player player) throws RuntimeException {
         ScalarFamilyConnector connector = new ScalarFamilyConnector(this, player);
         return connector.fetchAny();
@@ -66,9 +79,10 @@ public class ScalarServerFamily extends PlayerFocusedServerFamily {
             api.services().whitelistService().add(whitelist);
         }
 
+        ScalarServerFamily family;
         switch (Enum.valueOf(AlgorithmType.class, scalarFamilyConfig.getLoadBalancing_algorithm())) {
             case ROUND_ROBIN -> {
-                return new ScalarServerFamily(
+                family = new ScalarServerFamily(
                         familyName,
                         whitelist,
                         RoundRobin.class,
@@ -79,7 +93,7 @@ public class ScalarServerFamily extends PlayerFocusedServerFamily {
                 );
             }
             case LEAST_CONNECTION -> {
-                return new ScalarServerFamily(
+                family = new ScalarServerFamily(
                         familyName,
                         whitelist,
                         LeastConnection.class,
@@ -90,7 +104,7 @@ public class ScalarServerFamily extends PlayerFocusedServerFamily {
                 );
             }
             case MOST_CONNECTION -> {
-                return new ScalarServerFamily(
+                family = new ScalarServerFamily(
                         familyName,
                         whitelist,
                         MostConnection.class,
@@ -100,8 +114,60 @@ public class ScalarServerFamily extends PlayerFocusedServerFamily {
                         scalarFamilyConfig.getParent_family()
                 );
             }
+            case POWER_OF_TWO -> {
+                family = new ScalarServerFamily(
+                        familyName,
+                        whitelist,
+                        PowerOfTwo.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts(),
+                        scalarFamilyConfig.getParent_family()
+                );
+            }
+            case LATENCY_AWARE -> {
+                family = new ScalarServerFamily(
+                        familyName,
+                        whitelist,
+                        LatencyAware.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts(),
+                        scalarFamilyConfig.getParent_family()
+                );
+            }
+            case CONSISTENT_HASH -> {
+                family = new ScalarServerFamily(
+                        familyName,
+                        whitelist,
+                        ConsistentHash.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts(),
+                        scalarFamilyConfig.getParent_family()
+                );
+            }
+            case COMPOSITE -> {
+                family = new ScalarServerFamily(
+                        familyName,
+                        whitelist,
+                        Composite.class,
+                        scalarFamilyConfig.isLoadBalancing_weighted(),
+                        scalarFamilyConfig.isLoadBalancing_persistence_enabled(),
+                        scalarFamilyConfig.getLoadBalancing_persistence_attempts(),
+                        scalarFamilyConfig.getParent_family()
+                );
+                ((Composite) family.loadBalancer()).setWeights(scalarFamilyConfig.getLoadBalancing_composite());
+            }
             default -> throw new RuntimeException("The name used for "+familyName+"'s load balancer is invalid!");
         }
+
+        family.loadBalancer().setHedging(
+                scalarFamilyConfig.isLoadBalancing_persistence_hedge_enabled(),
+                scalarFamilyConfig.getLoadBalancing_persistence_hedge_delay()
+        );
+
+        return family;
     }
 }
 
@@ -130,6 +196,19 @@ class ScalarFamilyConnector {
         return this.establishAnyConnection();
     }
 
+    public CompletableFuture<PlayerServer> connectAsync() {
+        try {
+            if(this.family.loadBalancer().size() == 0)
+                throw new RuntimeException("There are no servers for you to connect to!");
+
+            this.validateWhitelist();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return this.family.loadBalancer().connectAsync(this.player);
+    }
+
     public PlayerServer fetchAny() throws RuntimeException {
         if(this.family.loadBalancer().size() == 0)
             throw new RuntimeException("There are no servers for you to connect to!");
@@ -159,56 +238,63 @@ class ScalarFamilyConnector {
     }
 
     private PlayerServer connectSingleton() {
-        PlayerServer server = this.family.loadBalancer().current(); // Get the server that is currently listed as highest priority
+        LoadBalancer.Lease<PlayerServer> lease = this.family.loadBalancer().reserve(this.player.getUniqueId(), server -> server.validatePlayer(player)) // Reserve a slot on the server that is currently listed as highest priority
+                .orElseThrow(() -> new RuntimeException("The server you're trying to connect to is full!"));
+        PlayerServer server = lease.item();
         try {
-            if(!server.validatePlayer(player))
-                throw new RuntimeException("The server you're trying to connect to is full!");
-
             if(this.event == null) {
-                if (!server.connect(player))
+                if (!server.connect(player, true))
                     throw new RuntimeException("There was an issue connecting you to the server!");
             } else {
                 if (!server.connect(this.event))
                     throw new RuntimeException("There was an issue connecting you to the server!");
             }
 
-            this.family.loadBalancer().iterate();
+            lease.commit();
 
             return server;
         } catch (RuntimeException | ConnectException e) {
+            lease.rollback();
             throw new RuntimeException(e.getMessage());
         }
     }
 
     private PlayerServer connectPersistent() {
         int attemptsLeft = this.family.loadBalancer().attempts();
+        Set<PlayerServer> tried = new HashSet<>();
 
         for (int attempt = 1; attempt <= attemptsLeft; attempt++) {
             boolean isFinal = (attempt == attemptsLeft);
-            PlayerServer server = this.family.loadBalancer().current(); // Get the server that is currently listed as highest priority
+            LoadBalancer.Lease<PlayerServer> lease = null;
 
             try {
-                if(!server.validatePlayer(player))
-                    throw new RuntimeException("The server you're trying to connect to is full!");
+                lease = this.family.loadBalancer().reserveAsync(this.player, tried).join(); // Reserve a slot on the highest priority server that hasn't been tried yet. If hedging is enabled, the fastest of two servers.
+                PlayerServer server = lease.item();
 
                 if(this.event == null) {
-                    if (server.connect(player)) {
-                        this.family.loadBalancer().forceIterate();
+                    if (server.connect(player, true)) {
+                        lease.commit();
                         return server;
                     }
                 } else {
                     if (server.connect(this.event)) {
-                        this.family.loadBalancer().forceIterate();
+                        lease.commit();
                         return server;
                     }
                 }
 
                 throw new RuntimeException("Unable to connect you to the server in time!");
             } catch (Exception e) {
+                // Reserving a slot already iterated the load balancer. If nothing could be reserved, it didn't, so move on by hand.
+                if(lease == null) this.family.loadBalancer().forceIterate();
+                else {
+                    lease.rollback();
+                    tried.add(lease.item());
+                }
+
                 if(isFinal)
-                    player.disconnect(Component.text(e.getMessage()));
+                    player.disconnect(Component.text(PlayerServer.unwrap(e).getMessage()));
             }
-            this.family.loadBalancer().forceIterate();
         }
 
         throw new RuntimeException("There was an issue connecting you to the server!");
@@ -2,6 +2,7 @@ package group.aelysium.rustyconnector.plugin.velocity.lib.family.scalar_family.c
 
 import group.aelysium.rustyconnector.core.lib.config.YAML;
 import group.aelysium.rustyconnector.core.lib.load_balancing.AlgorithmType;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.Composite;
 
 import java.io.File;
 
@@ -11,6 +12,9 @@ public class ScalarFamilyConfig extends YAML {
     private String loadBalancing_algorithm = "ROUND_ROBIN";
     private boolean loadBalancing_persistence_enabled = false;
     private int loadBalancing_persistence_attempts = 5;
+    private boolean loadBalancing_persistence_hedge_enabled = false;
+    private int loadBalancing_persistence_hedge_delay = 0;
+    private Composite.Weights loadBalancing_composite = Composite.Weights.DEFAULT;
     private boolean whitelist_enabled = false;
     private String whitelist_name = "whitelist-template";
 
@@ -32,10 +36,22 @@ public class ScalarFamilyConfig extends YAML {
         return loadBalancing_persistence_attempts;
     }
 
+    public boolean isLoadBalancing_persistence_hedge_enabled() {
+        return loadBalancing_persistence_hedge_enabled;
+    }
+
+    public int getLoadBalancing_persistence_hedge_delay() {
+        return loadBalancing_persistence_hedge_delay;
+    }
+
     public String getLoadBalancing_algorithm() {
         return loadBalancing_algorithm;
     }
 
+    public Composite.Weights getLoadBalancing_composite() {
+        return loadBalancing_composite;
+    }
+
     public boolean isWhitelist_enabled() {
         return whitelist_enabled;
     }
@@ -65,6 +81,28 @@ public class ScalarFamilyConfig extends YAML {
         if(this.loadBalancing_persistence_enabled && this.loadBalancing_persistence_attempts <= 0)
             throw new IllegalStateException("Load balancing persistence must allow at least 1 attempt.");
 
+        try {
+            this.loadBalancing_persistence_hedge_enabled = this.getNode(this.data,"load-balancing.persistence.hedge.enabled",Boolean.class);
+            this.loadBalancing_persistence_hedge_delay = this.getNode(this.data,"load-balancing.persistence.hedge.delay",Integer.class);
+        } catch (IllegalStateException ignore) {
+            this.loadBalancing_persistence_hedge_enabled = false;
+            this.loadBalancing_persistence_hedge_delay = 0;
+        }
+        if(this.loadBalancing_persistence_hedge_delay < 0)
+            throw new IllegalStateException("The hedge delay can't be negative.");
+
+        try {
+            this.loadBalancing_composite = new Composite.Weights(
+                    this.getNode(this.data,"load-balancing.composite.players",Number.class).doubleValue(),
+                    this.getNode(this.data,"load-balancing.composite.tps",Number.class).doubleValue(),
+                    this.getNode(this.data,"load-balancing.composite.mspt",Number.class).doubleValue(),
+                    this.getNode(this.data,"load-balancing.composite.heap",Number.class).doubleValue(),
+                    this.getNode(this.data,"load-balancing.composite.chunks",Number.class).doubleValue()
+            );
+        } catch (IllegalStateException ignore) {
+            this.loadBalancing_composite = Composite.Weights.DEFAULT;
+        }
+
         this.whitelist_enabled = this.getNode(this.data,"whitelist.enabled",Boolean.class);
         this.whitelist_name = this.getNode(this.data,"whitelist.name",String.class);
         if(this.whitelist_enabled && this.whitelist_name.equals(""))
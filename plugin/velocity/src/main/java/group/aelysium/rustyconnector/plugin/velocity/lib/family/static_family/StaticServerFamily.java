@@ -14,6 +14,10 @@ import group.aelysium.rustyconnector.plugin.velocity.lib.lang.VelocityLang;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LeastConnection;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LoadBalancer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.MostConnection;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.Composite;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.ConsistentHash;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LatencyAware;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.PowerOfTwo;
 import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.RoundRobin;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.storage.MySQLStorage;
@@ -23,8 +27,11 @@ import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.io.File;
 import java.rmi.ConnectException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static group.aelysium.rustyconnector.core.lib.util.DependencyInjector.inject;
 
@@ -57,6 +64,12 @@ public class StaticServerFamily extends PlayerFocusedServerFamily {
         return connector.connect();
     }
 
+    @Override
+    public CompletableFuture<PlayerServer> connectAsync(Player player) {
+        StaticFamilyConnector connector = new StaticFamilyConnector(this, player);
+        return connector.connectAsync();
+    }
+
     /**
      * Initializes all server families based on the configs.
      * By the time this runs, the configuration file should be able to guarantee that all values are present.
@@ -120,10 +133,65 @@ public class StaticServerFamily extends PlayerFocusedServerFamily {
                     staticFamilyConfig.getConsecutiveConnections_homeServer_expiration(),
                     staticFamilyConfig.getParent_family()
             );
+            case POWER_OF_TWO -> family = new StaticServerFamily(
+                    familyName,
+                    storage,
+                    whitelist,
+                    PowerOfTwo.class,
+                    staticFamilyConfig.isFirstConnection_loadBalancing_weighted(),
+                    staticFamilyConfig.isFirstConnection_loadBalancing_persistence_enabled(),
+                    staticFamilyConfig.getFirstConnection_loadBalancing_persistence_attempts(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_ifUnavailable(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_expiration(),
+                    staticFamilyConfig.getParent_family()
+            );
+            case LATENCY_AWARE -> family = new StaticServerFamily(
+                    familyName,
+                    storage,
+                    whitelist,
+                    LatencyAware.class,
+                    staticFamilyConfig.isFirstConnection_loadBalancing_weighted(),
+                    staticFamilyConfig.isFirstConnection_loadBalancing_persistence_enabled(),
+                    staticFamilyConfig.getFirstConnection_loadBalancing_persistence_attempts(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_ifUnavailable(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_expiration(),
+                    staticFamilyConfig.getParent_family()
+            );
+            case CONSISTENT_HASH -> family = new StaticServerFamily(
+                    familyName,
+                    storage,
+                    whitelist,
+                    ConsistentHash.class,
+                    staticFamilyConfig.isFirstConnection_loadBalancing_weighted(),
+                    staticFamilyConfig.isFirstConnection_loadBalancing_persistence_enabled(),
+                    staticFamilyConfig.getFirstConnection_loadBalancing_persistence_attempts(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_ifUnavailable(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_expiration(),
+                    staticFamilyConfig.getParent_family()
+            );
+            case COMPOSITE -> family = new StaticServerFamily(
+                    familyName,
+                    storage,
+                    whitelist,
+                    Composite.class,
+                    staticFamilyConfig.isFirstConnection_loadBalancing_weighted(),
+                    staticFamilyConfig.isFirstConnection_loadBalancing_persistence_enabled(),
+                    staticFamilyConfig.getFirstConnection_loadBalancing_persistence_attempts(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_ifUnavailable(),
+                    staticFamilyConfig.getConsecutiveConnections_homeServer_expiration(),
+                    staticFamilyConfig.getParent_family()
+            );
         }
 
         if(family == null) throw new RuntimeException("The name used for " + familyName + "'s load balancer is invalid!");
 
+        if(family.loadBalancer() instanceof Composite composite)
+            composite.setWeights(staticFamilyConfig.getFirstConnection_loadBalancing_composite());
+        family.loadBalancer().setHedging(
+                staticFamilyConfig.isFirstConnection_loadBalancing_persistence_hedge_enabled(),
+                staticFamilyConfig.getFirstConnection_loadBalancing_persistence_hedge_delay()
+        );
+
         try {
             family.dataEnclave().updateExpirations(staticFamilyConfig.getConsecutiveConnections_homeServer_expiration(), family);
         } catch (Exception e) {
@@ -156,6 +224,19 @@ class StaticFamilyConnector {
         return server;
     }
 
+    public CompletableFuture<PlayerServer> connectAsync() {
+        try {
+            if(this.family.loadBalancer().size() == 0)
+                throw new RuntimeException("There are no servers for you to connect to!");
+
+            this.validateWhitelist();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return this.establishAnyConnectionAsync();
+    }
+
     public void validateWhitelist() throws RuntimeException {
         if(!(this.family.whitelist() == null)) {
             Whitelist familyWhitelist = this.family.whitelist();
@@ -182,6 +263,67 @@ class StaticFamilyConnector {
         return server;
     }
 
+    /**
+     * The non-blocking version of {@link #establishAnyConnection()}.
+     * @return A future which completes with the player server that this player was connected to.
+     */
+    public CompletableFuture<PlayerServer> establishAnyConnectionAsync() {
+        Optional<ServerResidence> residence;
+        try {
+            residence = this.family.dataEnclave().fetch(player, this.family);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return this.establishNewConnectionAsync(true);
+        }
+
+        if(residence.isPresent() && residence.orElseThrow().server().isPresent())
+            return residence.orElseThrow().server().orElseThrow().connectAsync(this.player)
+                    .exceptionallyCompose(throwable -> this.establishNewConnectionAsync(true));
+
+        switch (this.family.unavailableProtocol()) {
+            case ASSIGN_NEW_HOME -> {
+                try {
+                    this.family.dataEnclave().delete(player, this.family);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                return this.establishNewConnectionAsync(true);
+            }
+            case CONNECT_WITH_ERROR -> {
+                this.postConnectionError = VelocityLang.MISSING_HOME_SERVER;
+                return this.establishNewConnectionAsync(false);
+            }
+            case CANCEL_CONNECTION_ATTEMPT -> {
+                player.sendMessage(VelocityLang.BLOCKED_STATIC_FAMILY_JOIN_ATTEMPT);
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+
+        return this.establishNewConnectionAsync(true);
+    }
+
+    /**
+     * The non-blocking version of {@link #establishNewConnection(boolean)}.
+     * Saving the player's new home server is moved off of the thread that completed the connection, since it talks to MySQL.
+     * @return A future which completes with the player server that this player was connected to.
+     */
+    public CompletableFuture<PlayerServer> establishNewConnectionAsync(boolean shouldRegisterNew) {
+        return this.family.loadBalancer().connectAsync(this.player).thenApplyAsync(server -> {
+            this.sendPostConnectErrorMessage();
+
+            if(!shouldRegisterNew) return server;
+
+            try {
+                this.family.dataEnclave().save(player, server, this.family);
+            } catch (Exception e) {
+                Tinder.get().logger().send(Component.text("Unable to save "+ this.player.getUsername() +" home server into MySQL! Their home server will only be saved until the server shuts down, or they log out!", NamedTextColor.RED));
+                e.printStackTrace();
+            }
+
+            return server;
+        });
+    }
+
     /**
      * Establish a new connection to the family.
      * This will ignore whether the player has a home family.
@@ -248,43 +390,50 @@ class StaticFamilyConnector {
     }
 
     private PlayerServer connectSingleton() {
-        PlayerServer server = this.family.loadBalancer().current();
+        LoadBalancer.Lease<PlayerServer> lease = this.family.loadBalancer().reserve(this.player.getUniqueId(), server -> server.validatePlayer(this.player))
+                .orElseThrow(() -> new RuntimeException("The server you're trying to connect to is full!"));
+        PlayerServer server = lease.item();
         try {
-            if(!server.validatePlayer(this.player))
-                throw new RuntimeException("The server you're trying to connect to is full!");
-
-            if (!server.connect(this.player))
+            if (!server.connect(this.player, true))
                 throw new RuntimeException("There was an issue connecting you to the server!");
 
-            this.family.loadBalancer().iterate();
+            lease.commit();
 
             return server;
         } catch (RuntimeException | ConnectException e) {
+            lease.rollback();
             throw new RuntimeException(e.getMessage());
         }
     }
 
     private PlayerServer connectPersistent() {
         int attemptsLeft = this.family.loadBalancer().attempts();
+        Set<PlayerServer> tried = new HashSet<>();
 
         for (int attempt = 1; attempt <= attemptsLeft; attempt++) {
             boolean isFinal = (attempt == attemptsLeft);
-            PlayerServer server = this.family.loadBalancer().current(); // Get the server that is currently listed as highest priority
+            LoadBalancer.Lease<PlayerServer> lease = null;
 
             try {
-                if (!server.validatePlayer(this.player))
-                    throw new RuntimeException("The server you're trying to connect to is full!");
+                lease = this.family.loadBalancer().reserveAsync(this.player, tried).join(); // Reserve a slot on the highest priority server that hasn't been tried yet. If hedging is enabled, the fastest of two servers.
+                PlayerServer server = lease.item();
 
-                if (server.connect(this.player)) {
-                    this.family.loadBalancer().forceIterate();
+                if (server.connect(this.player, true)) {
+                    lease.commit();
 
                     return server;
                 } else throw new RuntimeException("Unable to connect you to the server in time!");
             } catch (Exception e) {
+                // Reserving a slot already iterated the load balancer. If nothing could be reserved, it didn't, so move on by hand.
+                if (lease == null) this.family.loadBalancer().forceIterate();
+                else {
+                    lease.rollback();
+                    tried.add(lease.item());
+                }
+
                 if (isFinal)
-                    this.player.disconnect(Component.text(e.getMessage()));
+                    this.player.disconnect(Component.text(PlayerServer.unwrap(e).getMessage()));
             }
-            this.family.loadBalancer().forceIterate();
         }
 
         throw new RuntimeException("Unable to connect you to the server!");
@@ -4,6 +4,7 @@ import group.aelysium.rustyconnector.core.lib.config.YAML;
 import group.aelysium.rustyconnector.core.lib.load_balancing.AlgorithmType;
 import group.aelysium.rustyconnector.core.lib.model.LiquidTimestamp;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.UnavailableProtocol;
+import group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.Composite;
 
 import java.io.File;
 import java.text.ParseException;
@@ -14,6 +15,9 @@ public class StaticFamilyConfig extends YAML {
     private String firstConnection_loadBalancing_algorithm = "ROUND_ROBIN";
     private boolean firstConnection_loadBalancing_persistence_enabled = false;
     private int firstConnection_loadBalancing_persistence_attempts = 5;
+    private boolean firstConnection_loadBalancing_persistence_hedge_enabled = false;
+    private int firstConnection_loadBalancing_persistence_hedge_delay = 0;
+    private Composite.Weights firstConnection_loadBalancing_composite = Composite.Weights.DEFAULT;
 
     private UnavailableProtocol consecutiveConnections_homeServer_ifUnavailable = UnavailableProtocol.ASSIGN_NEW_HOME;
     private LiquidTimestamp consecutiveConnections_homeServer_expiration = null;
@@ -38,10 +42,22 @@ public class StaticFamilyConfig extends YAML {
         return firstConnection_loadBalancing_persistence_attempts;
     }
 
+    public boolean isFirstConnection_loadBalancing_persistence_hedge_enabled() {
+        return firstConnection_loadBalancing_persistence_hedge_enabled;
+    }
+
+    public int getFirstConnection_loadBalancing_persistence_hedge_delay() {
+        return firstConnection_loadBalancing_persistence_hedge_delay;
+    }
+
     public String getFirstConnection_loadBalancing_algorithm() {
         return firstConnection_loadBalancing_algorithm;
     }
 
+    public Composite.Weights getFirstConnection_loadBalancing_composite() {
+        return firstConnection_loadBalancing_composite;
+    }
+
     public boolean isWhitelist_enabled() {
         return whitelist_enabled;
     }
@@ -78,6 +94,28 @@ public class StaticFamilyConfig extends YAML {
         if(this.firstConnection_loadBalancing_persistence_enabled && this.firstConnection_loadBalancing_persistence_attempts <= 0)
             throw new IllegalStateException("Load balancing persistence must allow at least 1 attempt.");
 
+        try {
+            this.firstConnection_loadBalancing_persistence_hedge_enabled = this.getNode(this.data,"first-connection.load-balancing.persistence.hedge.enabled",Boolean.class);
+            this.firstConnection_loadBalancing_persistence_hedge_delay = this.getNode(this.data,"first-connection.load-balancing.persistence.hedge.delay",Integer.class);
+        } catch (IllegalStateException ignore) {
+            this.firstConnection_loadBalancing_persistence_hedge_enabled = false;
+            this.firstConnection_loadBalancing_persistence_hedge_delay = 0;
+        }
+        if(this.firstConnection_loadBalancing_persistence_hedge_delay < 0)
+            throw new IllegalStateException("The hedge delay can't be negative.");
+
+        try {
+            this.firstConnection_loadBalancing_composite = new Composite.Weights(
+                    this.getNode(this.data,"first-connection.load-balancing.composite.players",Number.class).doubleValue(),
+                    this.getNode(this.data,"first-connection.load-balancing.composite.tps",Number.class).doubleValue(),
+                    this.getNode(this.data,"first-connection.load-balancing.composite.mspt",Number.class).doubleValue(),
+                    this.getNode(this.data,"first-connection.load-balancing.composite.heap",Number.class).doubleValue(),
+                    this.getNode(this.data,"first-connection.load-balancing.composite.chunks",Number.class).doubleValue()
+            );
+        } catch (IllegalStateException ignore) {
+            this.firstConnection_loadBalancing_composite = Composite.Weights.DEFAULT;
+        }
+
         try {
             this.consecutiveConnections_homeServer_ifUnavailable = UnavailableProtocol.valueOf(this.getNode(this.data,"consecutive-connections.home-server.if-unavailable",String.class));
         } catch (IllegalArgumentException ignore) {
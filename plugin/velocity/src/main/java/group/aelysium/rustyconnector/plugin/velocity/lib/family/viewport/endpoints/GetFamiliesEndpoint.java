@@ -5,6 +5,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.BaseServerFamily;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocusedServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.scalar_family.RootServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.scalar_family.ScalarServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.static_family.StaticServerFamily;
@@ -45,8 +46,14 @@ public class GetFamiliesEndpoint implements Route {
                 object.add("root",         new JsonPrimitive(family instanceof RootServerFamily));
                 object.add("type",         new JsonPrimitive(type));
                 object.add("health",       health);
-                object.add("player_count", new JsonPrimitive(family.playerCount()));
-                object.add("server_count", new JsonPrimitive(family.registeredServers().size()));
+                if(family instanceof PlayerFocusedServerFamily playerFocusedFamily) {
+                    PlayerFocusedServerFamily.Snapshot snapshot = playerFocusedFamily.snapshot();
+                    object.add("player_count", new JsonPrimitive(snapshot.playerCount()));
+                    object.add("server_count", new JsonPrimitive(snapshot.serverCount()));
+                } else {
+                    object.add("player_count", new JsonPrimitive(family.playerCount()));
+                    object.add("server_count", new JsonPrimitive(family.registeredServers().size()));
+                }
 
                 families.add(object);
             }
@@ -4,6 +4,8 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.BaseServerFamily;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.viewport.rest.APIResponse;
 import group.aelysium.rustyconnector.plugin.velocity.lib.viewport.rest.APIService;
 import spark.Request;
@@ -11,6 +13,7 @@ import spark.Response;
 import spark.Route;
 
 import javax.naming.AuthenticationException;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 public class GetFamilyEndpoint implements Route {
@@ -25,10 +28,13 @@ public class GetFamilyEndpoint implements Route {
             String familyName = request.params(":family_name");
             if(familyName == null) throw new NullPointerException();
 
+            BaseServerFamily<?> family = Tinder.get().services().familyService().find(familyName);
+            List<PlayerServer.Snapshot> snapshots = family.registeredServers().stream().map(PlayerServer::snapshot).toList();
+
             JsonArray servers = new JsonArray();
-            Tinder.get().services().familyService().find(familyName).registeredServers().forEach(server -> {
+            snapshots.forEach(server -> {
                 JsonObject object = new JsonObject();
-                object.add("name", new JsonPrimitive(server.serverInfo().getName()));
+                object.add("name", new JsonPrimitive(server.name()));
                 object.add("id", new JsonPrimitive(server.id().toString()));
                 object.add("player_count", new JsonPrimitive(server.playerCount()));
                 servers.add(object);
@@ -8,9 +8,10 @@ import group.aelysium.rustyconnector.core.lib.data_transit.cache.CacheableMessag
 import group.aelysium.rustyconnector.core.lib.lang.ASCIIAlphabet;
 import group.aelysium.rustyconnector.core.lib.lang.Lang;
 import group.aelysium.rustyconnector.core.lib.lang.resolver.LanguageResolver;
+import group.aelysium.rustyconnector.core.lib.messenger.implementors.redis.RedisPublisher;
 import group.aelysium.rustyconnector.core.lib.model.LiquidTimestamp;
-import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocusedServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.scalar_family.RootServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.scalar_family.ScalarServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.static_family.StaticServerFamily;
@@ -330,6 +331,15 @@ public class VelocityLang extends Lang {
             BORDER
     );
 
+    public final static ParameterizedMessage1<RedisPublisher.Metrics> RC_DEBUG_PUBLISHER = metrics -> resolver().getArray(
+            "velocity.debug.publisher",
+            LanguageResolver.tagHandler("queue_depth", metrics.queueDepth()),
+            LanguageResolver.tagHandler("published", metrics.published()),
+            LanguageResolver.tagHandler("rejected", metrics.rejected()),
+            LanguageResolver.tagHandler("average_latency", String.format("%.1f", metrics.averageLatency())),
+            LanguageResolver.tagHandler("p99_latency", metrics.p99Latency())
+    );
+
     public final static Message RC_FAMILY = () -> {
         Tinder api = Tinder.get();
         Component families = text("");
@@ -374,23 +384,23 @@ public class VelocityLang extends Lang {
     );
 
     public final static ParameterizedMessage1<ScalarServerFamily> RC_SCALAR_FAMILY_INFO = (family) -> {
+        PlayerFocusedServerFamily.Snapshot snapshot = family.snapshot();
         Component servers = text("");
         int i = 0;
 
-        if(family.registeredServers() == null) servers = resolver().get("velocity.family.scalar_family.panel.no_registered_servers");
-        else if(family.registeredServers().size() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_registered_servers");
-        else if(family.loadBalancer().size() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_unlocked_servers");
-        else for (PlayerServer server : family.loadBalancer().dump()) {
-                if(family.loadBalancer().index() == i)
+        if(snapshot.serverCount() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_registered_servers");
+        else if(snapshot.unlockedServers().size() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_unlocked_servers");
+        else for (PlayerServer.Snapshot server : snapshot.unlockedServers()) {
+                if(snapshot.index() == i)
                     servers = servers.append(
-                            text("   ---| "+(i + 1)+". ["+server.registeredServer().getServerInfo().getName()+"]" +
-                                            "("+ AddressUtil.addressToString(server.registeredServer().getServerInfo().getAddress()) +") " +
+                            text("   ---| "+(i + 1)+". ["+server.name()+"]" +
+                                            "("+ server.address() +") " +
                                             "["+server.playerCount()+" ("+server.softPlayerCap()+" <> "+server.hardPlayerCap()+") w-"+server.weight()+"] <<<<<"
                                     , GREEN));
                 else
                     servers = servers.append(
-                            text("   ---| "+(i + 1)+". ["+server.registeredServer().getServerInfo().getName()+"]" +
-                                            "("+ AddressUtil.addressToString(server.registeredServer().getServerInfo().getAddress()) +") " +
+                            text("   ---| "+(i + 1)+". ["+server.name()+"]" +
+                                            "("+ server.address() +") " +
                                             "["+server.playerCount()+" ("+server.softPlayerCap()+" <> "+server.hardPlayerCap()+") w-"+server.weight()+"]"
                                     , GRAY));
 
@@ -416,9 +426,9 @@ public class VelocityLang extends Lang {
                 SPACING,
                 resolver().getArray(
                         "velocity.family.scalar_family.panel.info",
-                        LanguageResolver.tagHandler("player_count", family.playerCount()),
-                        LanguageResolver.tagHandler("server_count", family.serverCount()),
-                        LanguageResolver.tagHandler("joinable_count", family.loadBalancer().size()),
+                        LanguageResolver.tagHandler("player_count", snapshot.playerCount()),
+                        LanguageResolver.tagHandler("server_count", snapshot.serverCount()),
+                        LanguageResolver.tagHandler("joinable_count", snapshot.unlockedServers().size()),
                         LanguageResolver.tagHandler("parent_family_name", parentFamilyName),
                         LanguageResolver.tagHandler("balancing_algorithm", family.loadBalancer()),
                         LanguageResolver.tagHandler("weighted", family.isWeighted()),
@@ -446,16 +456,16 @@ public class VelocityLang extends Lang {
     };
 
     public final static ParameterizedMessage1<ScalarServerFamily> RC_SCALAR_FAMILY_INFO_LOCKED = (family) -> {
+        PlayerFocusedServerFamily.Snapshot snapshot = family.snapshot();
         Component servers = text("");
         int i = 0;
 
-        if(family.registeredServers() == null) servers = resolver().get("velocity.family.scalar_family.panel.no_registered_servers");
-        else if(family.registeredServers().size() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_registered_servers");
-        else if(family.lockedServers().size() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_locked_servers");
-        else for (PlayerServer server : family.lockedServers()) {
+        if(snapshot.serverCount() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_registered_servers");
+        else if(snapshot.lockedServers().size() == 0) servers = resolver().get("velocity.family.scalar_family.panel.no_locked_servers");
+        else for (PlayerServer.Snapshot server : snapshot.lockedServers()) {
                 servers = servers.append(
-                        text("   ---| "+(i + 1)+". ["+server.registeredServer().getServerInfo().getName()+"]" +
-                                        "("+ AddressUtil.addressToString(server.registeredServer().getServerInfo().getAddress()) +") " +
+                        text("   ---| "+(i + 1)+". ["+server.name()+"]" +
+                                        "("+ server.address() +") " +
                                         "["+server.playerCount()+" ("+server.softPlayerCap()+" <> "+server.hardPlayerCap()+") w-"+server.weight()+"]"
                                 , RED));
 
@@ -481,9 +491,9 @@ public class VelocityLang extends Lang {
                 SPACING,
                 resolver().getArray(
                         "velocity.family.scalar_family.panel.info",
-                        LanguageResolver.tagHandler("player_count", family.playerCount()),
-                        LanguageResolver.tagHandler("server_count", family.serverCount()),
-                        LanguageResolver.tagHandler("joinable_count", family.loadBalancer().size()),
+                        LanguageResolver.tagHandler("player_count", snapshot.playerCount()),
+                        LanguageResolver.tagHandler("server_count", snapshot.serverCount()),
+                        LanguageResolver.tagHandler("joinable_count", snapshot.unlockedServers().size()),
                         LanguageResolver.tagHandler("parent_family_name", parentFamilyName),
                         LanguageResolver.tagHandler("balancing_algorithm", family.loadBalancer()),
                         LanguageResolver.tagHandler("weighted", family.isWeighted()),
@@ -511,23 +521,23 @@ public class VelocityLang extends Lang {
     };
 
     public final static ParameterizedMessage1<StaticServerFamily> RC_STATIC_FAMILY_INFO = (family) -> {
+        PlayerFocusedServerFamily.Snapshot snapshot = family.snapshot();
         Component servers = text("");
         int i = 0;
 
-        if(family.registeredServers() == null) servers = resolver().get("velocity.family.static_family.panel.no_registered_servers");
-        else if(family.registeredServers().size() == 0) servers = resolver().get("velocity.family.static_family.panel.no_registered_servers");
-        else if(family.loadBalancer().size() == 0) servers = resolver().get("velocity.family.static_family.panel.no_unlocked_servers");
-        else for (PlayerServer server : family.loadBalancer().dump()) {
-                if(family.loadBalancer().index() == i)
+        if(snapshot.serverCount() == 0) servers = resolver().get("velocity.family.static_family.panel.no_registered_servers");
+        else if(snapshot.unlockedServers().size() == 0) servers = resolver().get("velocity.family.static_family.panel.no_unlocked_servers");
+        else for (PlayerServer.Snapshot server : snapshot.unlockedServers()) {
+                if(snapshot.index() == i)
                     servers = servers.append(
-                            text("   ---| "+(i + 1)+". ["+server.registeredServer().getServerInfo().getName()+"]" +
-                                            "("+ AddressUtil.addressToString(server.registeredServer().getServerInfo().getAddress()) +") " +
+                            text("   ---| "+(i + 1)+". ["+server.name()+"]" +
+                                            "("+ server.address() +") " +
                                             "["+server.playerCount()+" ("+server.softPlayerCap()+" <> "+server.hardPlayerCap()+") w-"+server.weight()+"] <<<<<"
                                     , GREEN));
                 else
                     servers = servers.append(
-                            text("   ---| "+(i + 1)+". ["+server.registeredServer().getServerInfo().getName()+"]" +
-                                            "("+ AddressUtil.addressToString(server.registeredServer().getServerInfo().getAddress()) +") " +
+                            text("   ---| "+(i + 1)+". ["+server.name()+"]" +
+                                            "("+ server.address() +") " +
                                             "["+server.playerCount()+" ("+server.softPlayerCap()+" <> "+server.hardPlayerCap()+") w-"+server.weight()+"]"
                                     , GRAY));
 
@@ -557,9 +567,9 @@ public class VelocityLang extends Lang {
                 SPACING,
                 resolver().getArray(
                         "velocity.family.static_family.panel.info",
-                        LanguageResolver.tagHandler("player_count", family.playerCount()),
-                        LanguageResolver.tagHandler("server_count", family.serverCount()),
-                        LanguageResolver.tagHandler("joinable_count", family.loadBalancer().size()),
+                        LanguageResolver.tagHandler("player_count", snapshot.playerCount()),
+                        LanguageResolver.tagHandler("server_count", snapshot.serverCount()),
+                        LanguageResolver.tagHandler("joinable_count", snapshot.unlockedServers().size()),
                         LanguageResolver.tagHandler("parent_family_name", parentFamilyName),
                         LanguageResolver.tagHandler("residence_expiration", homeServerExpiration),
                         LanguageResolver.tagHandler("balancing_algorithm", family.loadBalancer()),
@@ -588,16 +598,16 @@ public class VelocityLang extends Lang {
     };
 
     public final static ParameterizedMessage1<StaticServerFamily> RC_STATIC_FAMILY_INFO_LOCKED = (family) -> {
+        PlayerFocusedServerFamily.Snapshot snapshot = family.snapshot();
         Component servers = text("");
         int i = 0;
 
-        if(family.registeredServers() == null) servers = resolver().get("velocity.family.static_family.panel.no_registered_servers");
-        else if(family.registeredServers().size() == 0) servers = resolver().get("velocity.family.static_family.panel.no_registered_servers");
-        else if(family.lockedServers().size() == 0) servers = resolver().get("velocity.family.static_family.panel.no_locked_servers");
-        else for (PlayerServer server : family.lockedServers()) {
+        if(snapshot.serverCount() == 0) servers = resolver().get("velocity.family.static_family.panel.no_registered_servers");
+        else if(snapshot.lockedServers().size() == 0) servers = resolver().get("velocity.family.static_family.panel.no_locked_servers");
+        else for (PlayerServer.Snapshot server : snapshot.lockedServers()) {
                 servers = servers.append(
-                        text("   ---| "+(i + 1)+". ["+server.registeredServer().getServerInfo().getName()+"]" +
-                                        "("+ AddressUtil.addressToString(server.registeredServer().getServerInfo().getAddress()) +") " +
+                        text("   ---| "+(i + 1)+". ["+server.name()+"]" +
+                                        "("+ server.address() +") " +
                                         "["+server.playerCount()+" ("+server.softPlayerCap()+" <> "+server.hardPlayerCap()+") w-"+server.weight()+"]"
                                 , RED));
 
@@ -626,9 +636,9 @@ public class VelocityLang extends Lang {
                 SPACING,
                 resolver().getArray(
                         "velocity.family.static_family.panel.info",
-                        LanguageResolver.tagHandler("player_count", family.playerCount()),
-                        LanguageResolver.tagHandler("server_count", family.serverCount()),
-                        LanguageResolver.tagHandler("joinable_count", family.loadBalancer().size()),
+                        LanguageResolver.tagHandler("player_count", snapshot.playerCount()),
+                        LanguageResolver.tagHandler("server_count", snapshot.serverCount()),
+                        LanguageResolver.tagHandler("joinable_count", snapshot.unlockedServers().size()),
                         LanguageResolver.tagHandler("parent_family_name", parentFamilyName),
                         LanguageResolver.tagHandler("residence_expiration", homeServerExpiration),
                         LanguageResolver.tagHandler("balancing_algorithm", family.loadBalancer()),
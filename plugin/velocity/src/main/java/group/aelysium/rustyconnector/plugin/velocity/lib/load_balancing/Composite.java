@@ -0,0 +1,111 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+
+import java.util.Set;
+
+/**
+ * Composite scores every server using the performance metrics it sends with it's pings, as well as it's player count.
+ * Players are sent to whichever server has the most real headroom, not just the fewest players.
+ * <p>
+ * Each metric is normalized to roughly `0` (idle) through `1` (saturated) and then multiplied by it's configured weight:
+ * - players: `players / hard cap`
+ * - tps: `(20 - tps) / 20`
+ * - mspt: `mspt / 50`
+ * - heap: `used heap / the server's max heap`
+ * - chunks: `loaded chunks / the most loaded chunks in the family`
+ * <p>
+ * The lowest score wins. If the load balancer is weighted, heavier servers always come first.
+ */
+public class Composite extends LoadBalancer {
+    protected volatile Weights weights = Weights.DEFAULT;
+
+    /**
+     * Set how much each metric counts towards a server's score.
+     * @param weights The weights to use.
+     */
+    public void setWeights(Weights weights) {
+        this.weights = weights;
+    }
+
+    public Weights weights() {
+        return this.weights;
+    }
+
+    @Override
+    public synchronized PlayerServer current() {
+        PlayerServer best = this.current(Set.of());
+
+        if(best == null) return super.current();
+        return best;
+    }
+
+    /**
+     * Find the best scoring server that isn't `excluded`.
+     * @return The best server. Or `null` if every server is excluded.
+     */
+    @Override
+    protected synchronized PlayerServer current(Set<PlayerServer> excluded) {
+        int maxChunks = 1;
+        for (PlayerServer item : this.items)
+            maxChunks = Math.max(maxChunks, item.loadedChunks());
+
+        PlayerServer best = null;
+        double bestScore = Double.MAX_VALUE;
+
+        for (PlayerServer item : this.items) {
+            if(excluded.contains(item)) continue;
+
+            double score = this.score(item, maxChunks);
+
+            if(best != null) {
+                if(this.weighted() && item.weight() != best.weight()) {
+                    if(item.weight() < best.weight()) continue;
+                } else if(score >= bestScore) continue;
+            }
+
+            best = item;
+            bestScore = score;
+        }
+
+        return best;
+    }
+
+    /**
+     * The best server is found every time {@link #current()} is called, so there's nothing to iterate.
+     * Retries move on by excluding the servers they've tried, instead of by iterating.
+     */
+    @Override
+    public void iterate() {}
+
+    /**
+     * Score a server. Lower is better.
+     * @param server The server to score.
+     * Heap is scored against the server's own max heap, so servers with different heap sizes are compared fairly.
+     * Servers which haven't reported their max heap don't have their heap scored.
+     * @param maxChunks The most loaded chunks of any server in the family.
+     * @return The server's score.
+     */
+    protected double score(PlayerServer server, int maxChunks) {
+        Weights weights = this.weights;
+        long maxHeap = server.maxHeap();
+
+        return weights.players() * ((double) server.sortIndex() / Math.max(server.hardPlayerCap(), 1))
+                + weights.tps() * Math.max(20 - server.tps(), 0) / 20
+                + weights.mspt() * server.mspt() / 50
+                + (maxHeap > 0 ? weights.heap() * ((double) server.usedHeap() / maxHeap) : 0)
+                + weights.chunks() * ((double) server.loadedChunks() / maxChunks);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancer (Composite): "+this.size()+" items";
+    }
+
+    /**
+     * How much each metric counts towards a server's score.
+     */
+    public record Weights(double players, double tps, double mspt, double heap, double chunks) {
+        public static final Weights DEFAULT = new Weights(1, 1, 0.5, 0.25, 0.25);
+    }
+}
@@ -0,0 +1,248 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Consistent hashing with bounded loads.
+ * Every server is placed on a hash ring many times, and each player is sent to the first server clockwise from their UUID.
+ * A returning player will usually land on the same server they were on last time, which keeps that server's caches warm.
+ * Adding or removing a server only moves the players which belonged to that server, about 1/n of all players.
+ * <p>
+ * To stop popular positions on the ring from overloading a server, no server is allowed to go over `1 + EPSILON` times the average load.
+ * Players which would've landed on a full server keep walking clockwise until they find one with room.
+ * If the load balancer is weighted, servers are placed on the ring and given room in proportion to their weight.
+ * <p>
+ * The ring is immutable and rebuilt whenever a server is added or removed, so looking a player up never takes a lock.
+ */
+public class ConsistentHash extends LoadBalancer {
+    /**
+     * How many points each server gets on the ring. More points spread players more evenly.
+     */
+    protected static final int REPLICAS = 100;
+
+    /**
+     * The most that weight can multiply a server's points on the ring by.
+     */
+    protected static final int MAX_WEIGHT_MULTIPLIER = 16;
+
+    /**
+     * How far over the average load a server is allowed to go. `0.25` lets a server hold 25% more players than average.
+     */
+    protected static final double EPSILON = 0.25;
+
+    private volatile Ring ring = Ring.EMPTY;
+
+    public ConsistentHash() {
+        this.items = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * With no player to route by, a random point on the ring is used.
+     */
+    @Override
+    public PlayerServer current() {
+        Ring ring = this.ring;
+        if(ring.servers.length == 0) return super.current();
+
+        PlayerServer item = this.lookup(ring, ThreadLocalRandom.current().nextLong(), Set.of(), null);
+        if(item == null) return super.current();
+        return item;
+    }
+
+    @Override
+    public Optional<Lease<PlayerServer>> reserve(Predicate<PlayerServer> admission) {
+        return this.reserve(ThreadLocalRandom.current().nextLong(), Set.of(), admission);
+    }
+
+    @Override
+    public Optional<Lease<PlayerServer>> reserve(UUID key, Predicate<PlayerServer> admission) {
+        return this.reserve(key, Set.of(), admission);
+    }
+
+    /**
+     * Excluded servers are walked past, so a retry moves clockwise to the next server on the ring instead of landing on the one that just failed.
+     */
+    @Override
+    public Optional<Lease<PlayerServer>> reserve(UUID key, Set<PlayerServer> excluded, Predicate<PlayerServer> admission) {
+        return this.reserve(mix(key.getMostSignificantBits() ^ Long.rotateLeft(key.getLeastSignificantBits(), 32)), excluded, admission);
+    }
+
+    /**
+     * Only the chosen server is locked while the reservation is made.
+     */
+    private Optional<Lease<PlayerServer>> reserve(long hash, Set<PlayerServer> excluded, Predicate<PlayerServer> admission) {
+        Ring ring = this.ring;
+        if(ring.servers.length == 0) return Optional.empty();
+
+        PlayerServer item = this.lookup(ring, hash, excluded, admission);
+        if(item == null) return Optional.empty();
+
+        return Optional.of(new ServerLease(item));
+    }
+
+    /**
+     * Walk clockwise from `hash` until a server is found that's under it's load bound, skipping any that are `excluded`.
+     * If `admission` is set, the first server that is under it's bound and passes admission has a slot reserved on it.
+     * @return The chosen server. Or `null` if no server could take the connection.
+     */
+    private PlayerServer lookup(Ring ring, long hash, Set<PlayerServer> excluded, Predicate<PlayerServer> admission) {
+        long totalLoad = 1;
+        Set<PlayerServer> refused = null;
+        for (PlayerServer server : ring.servers) {
+            totalLoad += server.sortIndex();
+
+            if(!excluded.contains(server)) continue;
+            if(refused == null) refused = new HashSet<>();
+            refused.add(server);
+        }
+        if(refused != null && refused.size() == ring.servers.length) return null;
+
+        int start = ring.indexOf(hash);
+        for (int i = 0; i < ring.points.length; i++) {
+            PlayerServer server = ring.owners[(start + i) % ring.points.length];
+
+            if(refused != null && refused.contains(server)) continue;
+            if(server.sortIndex() >= ring.bound(server, totalLoad)) continue;
+            if(admission == null) return server;
+
+            synchronized (server) {
+                if(admission.test(server)) {
+                    server.reserve();
+                    return server;
+                }
+            }
+
+            if(refused == null) refused = new HashSet<>();
+            refused.add(server);
+            if(refused.size() == ring.servers.length) return null;
+        }
+
+        return null;
+    }
+
+    /**
+     * Lookups are keyed by the player, not by an index, so there's nothing to iterate.
+     * Retries move on by excluding the servers they've tried, instead of by iterating.
+     */
+    @Override
+    public void iterate() {}
+
+    @Override
+    public synchronized void add(PlayerServer item) {
+        super.add(item);
+        this.ring = Ring.build(this.items, this.weighted());
+    }
+
+    @Override
+    public synchronized void remove(PlayerServer item) {
+        super.remove(item);
+        this.ring = Ring.build(this.items, this.weighted());
+    }
+
+    @Override
+    public synchronized void setWeighted(boolean weighted) {
+        super.setWeighted(weighted);
+        this.ring = Ring.build(this.items, this.weighted());
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancer (ConsistentHash): "+this.size()+" items";
+    }
+
+    /**
+     * The finalizer from MurmurHash3. Spreads the bits of `hash` evenly over the ring.
+     */
+    protected static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * An immutable snapshot of the hash ring.
+     */
+    private static class Ring {
+        private static final Ring EMPTY = new Ring(new long[0], new PlayerServer[0], new PlayerServer[0], Map.of(), 0);
+
+        private final long[] points;
+        private final PlayerServer[] owners;
+        private final PlayerServer[] servers;
+        private final Map<PlayerServer, Integer> shares;
+        private final long totalShares;
+
+        private Ring(long[] points, PlayerServer[] owners, PlayerServer[] servers, Map<PlayerServer, Integer> shares, long totalShares) {
+            this.points = points;
+            this.owners = owners;
+            this.servers = servers;
+            this.shares = shares;
+            this.totalShares = totalShares;
+        }
+
+        /**
+         * Find the first point at or after `hash`, wrapping around to the start of the ring.
+         */
+        private int indexOf(long hash) {
+            int index = Arrays.binarySearch(this.points, hash);
+            if(index < 0) index = -index - 1;
+            if(index >= this.points.length) index = 0;
+            return index;
+        }
+
+        /**
+         * The most load that `server` is allowed to have, given the combined load of every server on the ring.
+         */
+        private long bound(PlayerServer server, long totalLoad) {
+            int share = this.shares.getOrDefault(server, 1);
+            return (long) Math.ceil((1 + EPSILON) * totalLoad * share / this.totalShares);
+        }
+
+        private static Ring build(List<PlayerServer> items, boolean weighted) {
+            PlayerServer[] servers = items.toArray(new PlayerServer[0]);
+            if(servers.length == 0) return EMPTY;
+
+            Map<PlayerServer, Integer> shares = new IdentityHashMap<>();
+            long totalShares = 0;
+            int totalPoints = 0;
+            for (PlayerServer server : servers) {
+                int share = weighted ? Math.min(Math.max(server.weight(), 1), MAX_WEIGHT_MULTIPLIER) : 1;
+                shares.put(server, share);
+                totalShares += share;
+                totalPoints += share * REPLICAS;
+            }
+
+            long[] hashes = new long[totalPoints];
+            PlayerServer[] pointOwners = new PlayerServer[totalPoints];
+            int position = 0;
+            for (PlayerServer server : servers) {
+                long seed = mix(server.address().hashCode());
+                for (int replica = 0; replica < shares.get(server) * REPLICAS; replica++) {
+                    hashes[position] = mix(seed + replica * 0x9e3779b97f4a7c15L);
+                    pointOwners[position] = server;
+                    position++;
+                }
+            }
+
+            Integer[] indexes = new Integer[totalPoints];
+            for (int i = 0; i < totalPoints; i++) indexes[i] = i;
+            Arrays.sort(indexes, Comparator.comparingLong(i -> hashes[i]));
+
+            long[] points = new long[totalPoints];
+            PlayerServer[] owners = new PlayerServer[totalPoints];
+            for (int i = 0; i < totalPoints; i++) {
+                points[i] = hashes[indexes[i]];
+                owners[i] = pointOwners[indexes[i]];
+            }
+
+            return new Ring(points, owners, servers, shares, totalShares);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+
+import java.util.Set;
+
+/**
+ * Latency aware scores every server by both it's player count and how well recent connections to it have gone.
+ * Servers that are lagging, GC pausing or failing connections are de-prioritized automatically.
+ * <p>
+ * The score of a server is `(players + 1) * (1 + latency / 100ms) * (1 + 4 * failureRate)`; the lowest score wins.
+ * If the load balancer is weighted, heavier servers always come first.
+ */
+public class LatencyAware extends LoadBalancer {
+    /**
+     * A connect latency of this many milliseconds doubles a server's score.
+     */
+    protected static final double LATENCY_BASELINE = 100;
+
+    /**
+     * A server that fails every connection has it's score multiplied by `1 + FAILURE_PENALTY`.
+     */
+    protected static final double FAILURE_PENALTY = 4;
+
+    @Override
+    public synchronized PlayerServer current() {
+        PlayerServer best = this.current(Set.of());
+
+        if(best == null) return super.current();
+        return best;
+    }
+
+    /**
+     * Retries skip the servers they've already tried, so a server that just failed isn't picked again before it's score catches up.
+     */
+    @Override
+    protected synchronized PlayerServer current(Set<PlayerServer> excluded) {
+        PlayerServer best = null;
+        double bestScore = Double.MAX_VALUE;
+
+        for (PlayerServer item : this.items) {
+            if(excluded.contains(item)) continue;
+            double score = score(item);
+
+            if(best != null) {
+                if(this.weighted() && item.weight() != best.weight()) {
+                    if(item.weight() < best.weight()) continue;
+                } else if(score >= bestScore) continue;
+            }
+
+            best = item;
+            bestScore = score;
+        }
+
+        return best;
+    }
+
+    /**
+     * The best server is found every time {@link #current()} is called, so there's nothing to iterate.
+     * Retries move on by excluding the servers they've tried, instead of by iterating.
+     */
+    @Override
+    public void iterate() {}
+
+    /**
+     * Score a server. Lower is better.
+     * @param server The server to score.
+     * @return The server's score.
+     */
+    public static double score(PlayerServer server) {
+        return (server.sortIndex() + 1)
+                * (1 + server.connectLatency() / LATENCY_BASELINE)
+                * (1 + FAILURE_PENALTY * server.connectFailureRate());
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancer (LatencyAware): "+this.size()+" items";
+    }
+}
@@ -1,33 +1,158 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
 
-import group.aelysium.rustyconnector.core.lib.algorithm.QuickSort;
-import group.aelysium.rustyconnector.core.lib.algorithm.SingleSort;
-import group.aelysium.rustyconnector.core.lib.algorithm.WeightedQuickSort;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Least connection is backed by an indexed binary min-heap.
+ * The least loaded server is always at the root of the heap.
+ * Whenever a server's player count changes it's re-positioned in O(log n) via {@link #update(PlayerServer)},
+ * so no periodic full sort is needed for {@link #current()} to be accurate.
+ */
 public class LeastConnection extends LoadBalancer {
+    protected final Map<PlayerServer, Integer> positions = new HashMap<>();
 
     @Override
-    public void iterate() {
-        try {
-            PlayerServer thisItem = this.items.get(this.index);
-            PlayerServer theNextItem = this.items.get(this.index + 1);
+    public synchronized PlayerServer current() {
+        return super.current();
+    }
+
+    /**
+     * Only the root of the heap is in order, so the least loaded server that isn't excluded is found by checking all of them.
+     * This only happens when retrying a failed connection.
+     */
+    @Override
+    protected synchronized PlayerServer current(Set<PlayerServer> excluded) {
+        PlayerServer best = null;
+        for (PlayerServer item : this.items) {
+            if(excluded.contains(item)) continue;
+            if(best == null || this.compare(item, best) < 0) best = item;
+        }
+
+        return best;
+    }
 
-            if(thisItem.playerCount() >= theNextItem.playerCount()) this.index++;
-        } catch (IndexOutOfBoundsException ignore) {}
+    /**
+     * The root of the heap is always the least loaded server, so iterating just points back at it.
+     */
+    @Override
+    public synchronized void iterate() {
+        this.index = 0;
     }
 
     @Override
-    public void completeSort() {
+    public synchronized void completeSort() {
         this.index = 0;
-        if(this.weighted()) WeightedQuickSort.sort(this.items);
-        else QuickSort.sort(this.items);
+
+        this.positions.clear();
+        for (int i = 0; i < this.items.size(); i++)
+            this.positions.put(this.items.get(i), i);
+
+        for (int i = (this.items.size() / 2) - 1; i >= 0; i--)
+            this.siftDown(i);
     }
 
     @Override
-    public void singleSort() {
+    public synchronized void singleSort() {
+        if(this.index < this.items.size()) this.update(this.items.get(this.index));
         this.index = 0;
-        SingleSort.sort(this.items, this.index);
+    }
+
+    @Override
+    public synchronized void update(PlayerServer item) {
+        Integer position = this.positions.get(item);
+        if(position == null) return;
+
+        if(!this.siftUp(position)) this.siftDown(position);
+    }
+
+    @Override
+    public synchronized void add(PlayerServer item) {
+        if(this.positions.containsKey(item)) return;
+
+        this.items.add(item);
+        this.positions.put(item, this.items.size() - 1);
+        this.siftUp(this.items.size() - 1);
+    }
+
+    @Override
+    public synchronized void remove(PlayerServer item) {
+        Integer position = this.positions.remove(item);
+        if(position == null) return;
+
+        PlayerServer last = this.items.remove(this.items.size() - 1);
+        if(position < this.items.size()) {
+            this.items.set(position, last);
+            this.positions.put(last, position);
+
+            if(!this.siftUp(position)) this.siftDown(position);
+        }
+
+        if(this.index >= this.items.size()) this.index = 0;
+    }
+
+    /**
+     * Compares two servers.
+     * If the load balancer is weighted, heavier servers always come first. Ties are broken by the lowest player count.
+     * @return A negative number if `a` should be placed above `b` in the heap.
+     */
+    protected int compare(PlayerServer a, PlayerServer b) {
+        if(this.weighted() && a.weight() != b.weight())
+            return Integer.compare(b.weight(), a.weight());
+        return Integer.compare(a.sortIndex(), b.sortIndex());
+    }
+
+    /**
+     * Move the item at `position` up the heap until it's parent is smaller than it.
+     * @return `true` if the item moved.
+     */
+    private boolean siftUp(int position) {
+        int start = position;
+        PlayerServer item = this.items.get(position);
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            PlayerServer parentItem = this.items.get(parent);
+            if(this.compare(item, parentItem) >= 0) break;
+
+            this.items.set(position, parentItem);
+            this.positions.put(parentItem, position);
+            position = parent;
+        }
+
+        this.items.set(position, item);
+        this.positions.put(item, position);
+
+        return position != start;
+    }
+
+    /**
+     * Move the item at `position` down the heap until both of it's children are larger than it.
+     */
+    private void siftDown(int position) {
+        int size = this.items.size();
+        PlayerServer item = this.items.get(position);
+
+        while (true) {
+            int child = (position << 1) + 1;
+            if(child >= size) break;
+
+            int right = child + 1;
+            if(right < size && this.compare(this.items.get(right), this.items.get(child)) < 0) child = right;
+
+            PlayerServer childItem = this.items.get(child);
+            if(this.compare(item, childItem) <= 0) break;
+
+            this.items.set(position, childItem);
+            this.positions.put(childItem, position);
+            position = child;
+        }
+
+        this.items.set(position, item);
+        this.positions.put(item, position);
     }
 
     @Override
@@ -1,9 +1,23 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
 
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import group.aelysium.rustyconnector.core.lib.model.RollingPercentile;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 
 public class LoadBalancer implements group.aelysium.rustyconnector.core.lib.LoadBalancer<PlayerServer> {
     private boolean weighted = false;
@@ -11,6 +25,20 @@ public class LoadBalancer implements group.aelysium.rustyconnector.core.lib.Load
     private int attempts = 5;
     protected int index = 0;
     protected List<PlayerServer> items = new ArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private boolean hedged = false;
+    private int hedgeDelay = 0;
+    private final RollingPercentile connectLatency = new RollingPercentile(128);
+
+    /**
+     * The hedge delay, in milliseconds, used when nobody has connected to this load balancer's servers yet.
+     */
+    protected static final long DEFAULT_HEDGE_DELAY = 250;
+
+    /**
+     * The shortest hedge delay, in milliseconds, that will be used when the delay is based on recent connections.
+     */
+    protected static final long MINIMUM_HEDGE_DELAY = 25;
 
     @Override
     public boolean persistent() {
@@ -29,7 +57,7 @@ public class LoadBalancer implements group.aelysium.rustyconnector.core.lib.Load
     }
 
     @Override
-    public PlayerServer current() {
+    public synchronized PlayerServer current() {
         PlayerServer item;
         if(this.index >= this.size()) {
             this.index = 0;
@@ -41,19 +69,190 @@ public class LoadBalancer implements group.aelysium.rustyconnector.core.lib.Load
         return item;
     }
 
+    @Override
+    public synchronized Optional<Lease<PlayerServer>> reserve(Predicate<PlayerServer> admission) {
+        PlayerServer item = this.current();
+        synchronized (item) {
+            if(!admission.test(item)) return Optional.empty();
+            item.reserve();
+        }
+        this.iterate();
+
+        return Optional.of(new ServerLease(item));
+    }
+
+    @Override
+    public Optional<Lease<PlayerServer>> reserve(UUID key, Predicate<PlayerServer> admission) {
+        return this.reserve(admission);
+    }
+
+    @Override
+    public synchronized Optional<Lease<PlayerServer>> reserve(UUID key, Set<PlayerServer> excluded, Predicate<PlayerServer> admission) {
+        if(excluded.isEmpty()) return this.reserve(key, admission);
+
+        PlayerServer item = this.current(excluded);
+        if(item == null) return Optional.empty();
+        synchronized (item) {
+            if(!admission.test(item)) return Optional.empty();
+            item.reserve();
+        }
+        this.iterate();
+
+        return Optional.of(new ServerLease(item));
+    }
+
+    /**
+     * Get the item that would be picked if none of the `excluded` items existed.
+     * By default, this is the first item from the current index onwards which isn't excluded.
+     * @param excluded The items which must not be picked.
+     * @return The item. Or `null` if every item is excluded.
+     */
+    protected synchronized PlayerServer current(Set<PlayerServer> excluded) {
+        int size = this.items.size();
+        for (int i = 0; i < size; i++) {
+            PlayerServer item = this.items.get((this.index + i) % size);
+            if(!excluded.contains(item)) return item;
+        }
+
+        return null;
+    }
+
+    /**
+     * Reserve a slot for the player and connect them to it, without blocking the calling thread.
+     * If the load balancer is persistent, each failed attempt moves on to a server that hasn't been tried yet, until {@link #attempts()} is used up.
+     * @param player The player to connect.
+     * @return A future which completes with the server the player connected to.
+     *         If every attempt fails, the future completes exceptionally with the last failure.
+     */
+    public CompletableFuture<PlayerServer> connectAsync(Player player) {
+        int attempts = this.persistent() && this.attempts() > 1 ? this.attempts() : 1;
+        return this.connectAsync(player, ConcurrentHashMap.newKeySet(), 1, attempts);
+    }
+
+    private CompletableFuture<PlayerServer> connectAsync(Player player, Set<PlayerServer> tried, int attempt, int attempts) {
+        int triedBefore = tried.size();
+        CompletableFuture<PlayerServer> future = this.reserveAsync(player, tried).thenCompose(lease -> {
+            tried.add(lease.item());
+            return lease.item().connectAsync(player, true).whenComplete((server, throwable) -> {
+                if(throwable == null) lease.commit();
+                else lease.rollback();
+            });
+        });
+
+        if(attempt >= attempts) return future;
+
+        return future.exceptionallyCompose(throwable -> {
+            // Reserving a slot already iterated the load balancer. If nothing could be reserved, it didn't, so move on by hand.
+            if(tried.size() == triedBefore) this.forceIterate();
+            return this.connectAsync(player, tried, attempt + 1, attempts);
+        });
+    }
+
+    /**
+     * Reserve a slot for the player without blocking the calling thread.
+     * <p>
+     * If the load balancer is persistent and hedging is enabled, a reserved server which usually takes longer than the hedge delay to connect to,
+     * or which nobody has connected to yet, is probed first. Servers which are usually quick aren't probed, since that would only slow every connection down.
+     * If a probed server hasn't answered within the hedge delay, a slot is also reserved on the next best server and that one is probed too.
+     * Whichever server answers first wins, and the loser's probe is cancelled and it's slot is given back.
+     * Velocity only lets a player have one connection in-flight at a time, which is why servers are probed instead of connected to.
+     * @param player The player to reserve a slot for.
+     * @return A future which completes with a lease on the reserved server.
+     *         If no server could be reserved, or every probed server failed to answer, the future completes exceptionally.
+     */
+    public CompletableFuture<Lease<PlayerServer>> reserveAsync(Player player) {
+        return this.reserveAsync(player, Set.of());
+    }
+
+    /**
+     * Reserve a slot for the player without blocking the calling thread, without picking any of the `excluded` servers.
+     * @param player The player to reserve a slot for.
+     * @param excluded The servers which must not be picked. Usually the ones that the player has already failed to connect to.
+     * @return A future which completes with a lease on the reserved server.
+     * @see #reserveAsync(Player)
+     */
+    public CompletableFuture<Lease<PlayerServer>> reserveAsync(Player player, Set<PlayerServer> excluded) {
+        return this.reserveAsync(player.getUniqueId(), excluded, server -> server.validatePlayer(player));
+    }
+
+    /**
+     * Reserve a slot without blocking the calling thread, without picking any of the `excluded` servers.
+     * @param key The key to route by. Usually a player's UUID.
+     * @param excluded The servers which must not be picked.
+     * @param admission Checks whether a server can accept the connection. Used for the hedge as well.
+     * @return A future which completes with a lease on the reserved server.
+     * @see #reserveAsync(Player)
+     */
+    public CompletableFuture<Lease<PlayerServer>> reserveAsync(UUID key, Set<PlayerServer> excluded, Predicate<PlayerServer> admission) {
+        Optional<Lease<PlayerServer>> first = this.reserve(key, excluded, admission);
+        if(first.isEmpty())
+            return CompletableFuture.failedFuture(new RuntimeException("The server you're trying to connect to is full!"));
+        if(!this.hedged() || !this.persistent()) return CompletableFuture.completedFuture(first.get());
+
+        double latency = first.get().item().connectLatency();
+        if(latency > 0 && latency <= this.hedgeDelay()) return CompletableFuture.completedFuture(first.get());
+
+        HedgedReservation race = new HedgedReservation(key, excluded, admission, first.get());
+        race.probe(first.get());
+
+        CompletableFuture.delayedExecutor(this.hedgeDelay(), TimeUnit.MILLISECONDS).execute(() -> {
+            if(!race.winner.isDone()) race.hedge();
+        });
+
+        return race.winner;
+    }
+
+    /**
+     * Is hedging enabled?
+     * Hedging only happens if the load balancer is also persistent.
+     * @return `true` if hedging is enabled. `false` otherwise.
+     */
+    public boolean hedged() {
+        return this.hedged;
+    }
+
+    /**
+     * Get how long, in milliseconds, a probe is given to answer before the next best server is probed as well.
+     * Servers which usually take less than this to connect to aren't probed at all.
+     * If no delay has been set, this is the p95 of how long recent connections to this load balancer's servers took.
+     * @return The hedge delay.
+     */
+    public long hedgeDelay() {
+        if(this.hedgeDelay > 0) return this.hedgeDelay;
+        return Math.max(this.connectLatency.percentile(0.95).orElse(DEFAULT_HEDGE_DELAY), MINIMUM_HEDGE_DELAY);
+    }
+
+    /**
+     * Record how long a successful connection to one of this load balancer's servers took.
+     * @param millis How long the connection took, in milliseconds.
+     */
+    public void recordConnect(long millis) {
+        this.connectLatency.add(millis);
+    }
+
+    /**
+     * Set whether persistent connections should be hedged.
+     * @param hedged Whether hedging should be enabled.
+     * @param delay How long, in milliseconds, to wait before hedging. If `0`, the p95 of recent connections will be used.
+     */
+    public void setHedging(boolean hedged, int delay) {
+        this.hedged = hedged;
+        this.hedgeDelay = Math.max(delay, 0);
+    }
+
     @Override
     public int index() {
         return this.index;
     }
 
     @Override
-    public void iterate() {
+    public synchronized void iterate() {
         this.index += 1;
         if(this.index >= this.items.size()) this.index = 0;
     }
 
     @Override
-    final public void forceIterate() {
+    final public synchronized void forceIterate() {
         this.index += 1;
         if(this.index >= this.items.size()) this.index = 0;
     }
@@ -65,12 +264,32 @@ public class LoadBalancer implements group.aelysium.rustyconnector.core.lib.Load
     public void singleSort() {}
 
     @Override
-    public void add(PlayerServer item) {
+    public void update(PlayerServer item) {}
+
+    /**
+     * Let the rebalancer know that this load balancer needs to be sorted.
+     * Only load balancers whose order comes from {@link #completeSort()} should use this.
+     */
+    protected void markDirty() {
+        this.dirty.set(true);
+    }
+
+    /**
+     * Check if anything has changed since the last time this was called, and reset the check.
+     * Load balancers which never need {@link #completeSort()} to pick a server are never dirty.
+     * @return `true` if the load balancer needs to be sorted. `false` otherwise.
+     */
+    public boolean clearDirty() {
+        return this.dirty.getAndSet(false);
+    }
+
+    @Override
+    public synchronized void add(PlayerServer item) {
         this.items.add(item);
     }
 
     @Override
-    public void remove(PlayerServer item) {
+    public synchronized void remove(PlayerServer item) {
         this.items.remove(item);
     }
 
@@ -101,7 +320,112 @@ public class LoadBalancer implements group.aelysium.rustyconnector.core.lib.Load
     }
 
     @Override
-    public void resetIndex() {
+    public synchronized void resetIndex() {
         this.index = 0;
     }
+
+    /**
+     * A race between the servers which have been probed for a hedged reservation.
+     */
+    private class HedgedReservation {
+        private final UUID key;
+        private final Predicate<PlayerServer> admission;
+        private final Set<PlayerServer> excluded;
+        private final Lease<PlayerServer> first;
+        private final CompletableFuture<Lease<PlayerServer>> winner = new CompletableFuture<>();
+        private final List<CompletableFuture<ServerPing>> probes = new ArrayList<>();
+        private final AtomicInteger outstanding = new AtomicInteger(0);
+        private final AtomicBoolean hedged = new AtomicBoolean(false);
+        private final AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+
+        private HedgedReservation(UUID key, Set<PlayerServer> excluded, Predicate<PlayerServer> admission, Lease<PlayerServer> first) {
+            this.key = key;
+            this.admission = admission;
+            this.first = first;
+
+            // The hedge must never land on the server that's already being probed.
+            this.excluded = new HashSet<>(excluded);
+            this.excluded.add(first.item());
+
+            // Once there's a winner, stop probing the loser. It's slot is given back when it's probe is cancelled.
+            this.winner.whenComplete((lease, throwable) -> {
+                synchronized (this.probes) {
+                    this.probes.forEach(probe -> probe.cancel(false));
+                }
+            });
+        }
+
+        private void probe(Lease<PlayerServer> lease) {
+            this.outstanding.incrementAndGet();
+            CompletableFuture<ServerPing> probe = lease.item().registeredServer().ping();
+            synchronized (this.probes) {
+                this.probes.add(probe);
+            }
+
+            probe.whenComplete((ping, throwable) -> {
+                if(throwable == null) {
+                    if(!this.winner.complete(lease)) lease.rollback();
+                    return;
+                }
+
+                lease.rollback();
+                this.lastFailure.set(PlayerServer.unwrap(throwable));
+
+                this.hedge(); // If the first server fails before the hedge delay, don't wait around for it.
+                this.settle();
+            });
+        }
+
+        /**
+         * Reserve a slot on the next best server which isn't already excluded or being probed, and probe it as well.
+         * Only one hedge is ever made.
+         */
+        private void hedge() {
+            this.outstanding.incrementAndGet(); // Holds the race open while the hedge is being decided
+            try {
+                if(!this.hedged.compareAndSet(false, true)) return;
+                if(this.winner.isDone()) return;
+
+                Optional<Lease<PlayerServer>> lease = LoadBalancer.this.reserve(this.key, this.excluded, this.admission);
+                if(lease.isEmpty()) return;
+
+                this.probe(lease.get());
+            } finally {
+                this.settle();
+            }
+        }
+
+        private void settle() {
+            if(this.outstanding.decrementAndGet() > 0) return;
+
+            Throwable failure = this.lastFailure.get();
+            this.winner.completeExceptionally(failure != null ? failure : new RuntimeException("The server you're trying to connect to is unavailable!"));
+        }
+    }
+
+    protected static class ServerLease implements Lease<PlayerServer> {
+        private final PlayerServer item;
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+
+        protected ServerLease(PlayerServer item) {
+            this.item = item;
+        }
+
+        @Override
+        public PlayerServer item() {
+            return this.item;
+        }
+
+        @Override
+        public void commit() {
+            if(this.settled.getAndSet(true)) return;
+            this.item.release();
+        }
+
+        @Override
+        public void rollback() {
+            if(this.settled.getAndSet(true)) return;
+            this.item.release();
+        }
+    }
 }
\ No newline at end of file
@@ -4,33 +4,111 @@ import group.aelysium.rustyconnector.core.lib.lang.log_gate.GateKey;
 import group.aelysium.rustyconnector.core.lib.model.ClockService;
 import group.aelysium.rustyconnector.plugin.velocity.PluginLogger;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.FamilyService;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.BaseServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocusedServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.lang.VelocityLang;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single rebalancer which only sorts the families whose player counts have changed since it last ran.
+ * While players are joining and leaving it runs more often, and when the network is idle it backs off to `heartbeat`.
+ */
 public class LoadBalancingService extends ClockService {
-    protected final long heartbeat;
-    public LoadBalancingService(int threads, long heartbeat) {
-        super(threads);
-        this.heartbeat = heartbeat;
+    /**
+     * The shortest amount of time, in milliseconds, that the rebalancer will wait between passes.
+     */
+    protected static final long MINIMUM_INTERVAL = 500;
+
+    protected final long maximumInterval;
+    protected volatile long interval;
+
+    private final AtomicLong sortsPerformed = new AtomicLong(0);
+    private final AtomicLong sortsSkipped = new AtomicLong(0);
+
+    /**
+     * @param heartbeat The longest amount of time, in seconds, that the rebalancer will wait between passes.
+     */
+    public LoadBalancingService(long heartbeat) {
+        super(1);
+        this.maximumInterval = Math.max(TimeUnit.SECONDS.toMillis(heartbeat), MINIMUM_INTERVAL);
+        this.interval = MINIMUM_INTERVAL;
     }
 
-    public void init() {
-        Tinder api = Tinder.get();
-        for (BaseServerFamily family : api.services().familyService().dump()) {
-            if (!(family instanceof PlayerFocusedServerFamily)) continue;
+    public void init(FamilyService familyService) {
+        this.schedule(familyService);
+    }
 
-            this.scheduleRecurring(() -> {
+    private void schedule(FamilyService familyService) {
+        try {
+            this.executorService.schedule(() -> {
                 try {
-                    PluginLogger logger = api.logger();
+                    boolean sorted = this.rebalance(familyService);
 
-                    ((PlayerFocusedServerFamily) family).loadBalancer().completeSort();
-                    if (logger.loggerGate().check(GateKey.FAMILY_BALANCING))
-                        VelocityLang.FAMILY_BALANCING.send(logger, family);
+                    if(sorted) this.interval = Math.max(this.interval / 2, MINIMUM_INTERVAL);
+                    else this.interval = Math.min(this.interval * 2, this.maximumInterval);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
-            }, this.heartbeat);
+
+                this.schedule(familyService);
+            }, this.interval, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignore) {} // The service has been killed
+    }
+
+    /**
+     * Sort every family whose load balancer has changed since the last pass.
+     * @param familyService The families to rebalance.
+     * @return `true` if at least one family was sorted. `false` otherwise.
+     */
+    protected boolean rebalance(FamilyService familyService) {
+        PluginLogger logger = Tinder.get().logger();
+        boolean sorted = false;
+
+        for (BaseServerFamily<?> family : familyService.dump()) {
+            if (!(family instanceof PlayerFocusedServerFamily)) continue;
+            LoadBalancer loadBalancer = ((PlayerFocusedServerFamily) family).loadBalancer();
+
+            if(!loadBalancer.clearDirty()) {
+                this.sortsSkipped.incrementAndGet();
+                continue;
+            }
+
+            loadBalancer.completeSort();
+            this.sortsPerformed.incrementAndGet();
+            sorted = true;
+
+            if (logger.loggerGate().check(GateKey.FAMILY_BALANCING))
+                VelocityLang.FAMILY_BALANCING.send(logger, family);
         }
+
+        return sorted;
+    }
+
+    /**
+     * Get the number of families that have been sorted since the service started.
+     * @return The number of sorts performed.
+     */
+    public long sortsPerformed() {
+        return this.sortsPerformed.get();
+    }
+
+    /**
+     * Get the number of times a family was skipped because nothing about it had changed.
+     * @return The number of sorts skipped.
+     */
+    public long sortsSkipped() {
+        return this.sortsSkipped.get();
+    }
+
+    /**
+     * Get the amount of time, in milliseconds, that the rebalancer is currently waiting between passes.
+     * @return The current interval.
+     */
+    public long interval() {
+        return this.interval;
     }
 }
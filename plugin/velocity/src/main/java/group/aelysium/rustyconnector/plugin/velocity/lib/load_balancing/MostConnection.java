@@ -1,26 +1,30 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
 
 import group.aelysium.rustyconnector.core.lib.algorithm.QuickSort;
+import group.aelysium.rustyconnector.core.lib.algorithm.SingleSort;
 import group.aelysium.rustyconnector.core.lib.algorithm.WeightedQuickSort;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 
 import java.util.Collections;
 
-public class MostConnection extends LeastConnection { // Extends LeastConnection to fill in some gaps that LoadBalancer leaves open
+/**
+ * Most connection is kept in order by {@link #completeSort()}, so any change to it's servers marks it dirty for the rebalancer.
+ */
+public class MostConnection extends LoadBalancer {
 
     @Override
-    public void iterate() {
+    public synchronized void iterate() {
         try {
             PlayerServer currentItem = this.items.get(this.index);
 
-            if(currentItem.playerCount() + 1 > currentItem.hardPlayerCap()) this.index++;
+            if(currentItem.sortIndex() + 1 > currentItem.hardPlayerCap()) this.index++;
             if(this.index >= this.items.size()) this.index = 0;
         } catch (IndexOutOfBoundsException ignore) {}
     }
 
-    
+
     @Override
-    public void completeSort() {
+    public synchronized void completeSort() {
         this.index = 0;
         if(this.weighted()) WeightedQuickSort.sort(this.items);
         else {
@@ -29,6 +33,29 @@ public class MostConnection extends LeastConnection { // Extends LeastConnection
         }
     }
 
+    @Override
+    public synchronized void singleSort() {
+        this.index = 0;
+        SingleSort.sort(this.items, this.index);
+    }
+
+    @Override
+    public void update(PlayerServer item) {
+        this.markDirty();
+    }
+
+    @Override
+    public synchronized void add(PlayerServer item) {
+        super.add(item);
+        this.markDirty();
+    }
+
+    @Override
+    public synchronized void remove(PlayerServer item) {
+        super.remove(item);
+        this.markDirty();
+    }
+
     @Override
     public String toString() {
         return "LoadBalancer (MostConnection): "+this.size()+" items";
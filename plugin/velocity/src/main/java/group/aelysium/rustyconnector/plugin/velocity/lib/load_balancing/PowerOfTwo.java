@@ -0,0 +1,120 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Power of two choices samples two random servers and picks whichever one is less loaded.
+ * It doesn't sort, doesn't share an index, and doesn't need a heartbeat.
+ * Because of that, concurrent connections never have to wait on each other except when they land on the same server.
+ */
+public class PowerOfTwo extends LoadBalancer {
+    private volatile PlayerServer[] servers = new PlayerServer[0];
+
+    public PowerOfTwo() {
+        this.items = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * @return The less loaded of two random servers. Or `null` if there are no servers.
+     */
+    @Override
+    public PlayerServer current() {
+        return this.pick(this.servers);
+    }
+
+    @Override
+    protected PlayerServer current(Set<PlayerServer> excluded) {
+        return this.pick(Arrays.stream(this.servers).filter(server -> !excluded.contains(server)).toArray(PlayerServer[]::new));
+    }
+
+    /**
+     * Pick the less loaded of two random servers from `servers`.
+     * @return The chosen server. Or `null` if `servers` is empty.
+     */
+    private PlayerServer pick(PlayerServer[] servers) {
+        int size = servers.length;
+        if(size == 0) return null;
+        if(size == 1) return servers[0];
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if(second >= first) second++; // Never sample the same server twice
+
+        PlayerServer a = servers[first];
+        PlayerServer b = servers[second];
+
+        return this.compare(a, b) <= 0 ? a : b;
+    }
+
+    /**
+     * Unlike other load balancers, only the chosen server is locked while the reservation is made.
+     */
+    @Override
+    public Optional<Lease<PlayerServer>> reserve(Predicate<PlayerServer> admission) {
+        return this.reserve(this.current(), admission);
+    }
+
+    @Override
+    public Optional<Lease<PlayerServer>> reserve(UUID key, Set<PlayerServer> excluded, Predicate<PlayerServer> admission) {
+        if(excluded.isEmpty()) return this.reserve(admission);
+        return this.reserve(this.current(excluded), admission);
+    }
+
+    private Optional<Lease<PlayerServer>> reserve(PlayerServer item, Predicate<PlayerServer> admission) {
+        if(item == null) return Optional.empty();
+
+        synchronized (item) {
+            if(!admission.test(item)) return Optional.empty();
+            item.reserve();
+        }
+
+        return Optional.of(new ServerLease(item));
+    }
+
+    /**
+     * Servers are sampled from an array snapshot, so that a server being removed can never be sampled halfway through a pick.
+     */
+    @Override
+    public synchronized void add(PlayerServer item) {
+        super.add(item);
+        this.servers = this.items.toArray(new PlayerServer[0]);
+    }
+
+    @Override
+    public synchronized void remove(PlayerServer item) {
+        super.remove(item);
+        this.servers = this.items.toArray(new PlayerServer[0]);
+    }
+
+    @Override
+    public void iterate() {}
+
+    /**
+     * Compares the load of two servers.
+     * If the load balancer is weighted, each server's load is divided by it's weight.
+     * @return A negative number if `a` is less loaded than `b`.
+     */
+    protected int compare(PlayerServer a, PlayerServer b) {
+        if(!this.weighted()) return Integer.compare(a.sortIndex(), b.sortIndex());
+
+        // a.sortIndex() / (a.weight() + 1) compared to b.sortIndex() / (b.weight() + 1) without dividing
+        return Long.compare(
+                (long) a.sortIndex() * (b.weight() + 1),
+                (long) b.sortIndex() * (a.weight() + 1)
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancer (PowerOfTwo): "+this.size()+" items";
+    }
+}
@@ -1,18 +1,71 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
 
-import group.aelysium.rustyconnector.core.lib.algorithm.WeightOnlyQuickSort;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 
+import java.util.Arrays;
+
+/**
+ * When weighted, round robin uses smooth weighted round-robin.
+ * Every server gets a share of connections proportional to it's weight, and those connections are spread evenly over time.
+ * A server with a weight of 3 will receive three connections for every one that a server with a weight of 1 receives.
+ * Servers with a weight of 0 are treated as having a weight of 1.
+ */
 public class RoundRobin extends LoadBalancer {
+    private int[] currentWeights = new int[0];
+
     @Override
     public String toString() {
         return "LoadBalancer (RoundRobin): "+this.size()+" items";
     }
 
     @Override
-    public void completeSort() {
-        if(this.weighted()) WeightOnlyQuickSort.sort(this.items);
+    public synchronized void iterate() {
+        if(!this.weighted()) {
+            super.iterate();
+            return;
+        }
+        if(this.items.isEmpty()) return;
+
+        int total = 0;
+        int best = 0;
+        for (int i = 0; i < this.items.size(); i++) {
+            int weight = Math.max(this.items.get(i).weight(), 1);
+
+            this.currentWeights[i] += weight;
+            total += weight;
+
+            if(this.currentWeights[i] > this.currentWeights[best]) best = i;
+        }
+        this.currentWeights[best] -= total;
+
+        this.index = best;
+    }
+
+    @Override
+    public synchronized void add(PlayerServer item) {
+        super.add(item);
+        this.currentWeights = Arrays.copyOf(this.currentWeights, this.items.size());
+    }
+
+    @Override
+    public synchronized void remove(PlayerServer item) {
+        int position = this.items.indexOf(item);
+        if(position == -1) return;
+
+        this.items.remove(position);
+        System.arraycopy(this.currentWeights, position + 1, this.currentWeights, position, this.currentWeights.length - position - 1);
+        this.currentWeights = Arrays.copyOf(this.currentWeights, this.items.size());
+
+        if(this.index > position) this.index--;
+        if(this.index >= this.items.size()) this.index = 0;
     }
 
+    /**
+     * Smooth weighted round-robin never needs to be sorted.
+     */
+    @Override
+    public void completeSort() {}
+
     @Override
     public void singleSort() {}
 }
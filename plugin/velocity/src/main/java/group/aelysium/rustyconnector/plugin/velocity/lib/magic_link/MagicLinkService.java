@@ -1,48 +1,78 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.magic_link;
 
 import group.aelysium.rustyconnector.core.lib.model.ClockService;
+import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.ServerRegistrySnapshot;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.ServerService;
 
-import java.util.Objects;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 public class MagicLinkService extends ClockService {
+    /**
+     * How often, in seconds, a snapshot of the server registry is saved.
+     */
+    protected static final long SNAPSHOT_INTERVAL = 30;
+
     protected final long interval;
+    private final RegistrationPipeline registrations;
+    private final File snapshotFile;
 
-    public MagicLinkService(int threads, long interval) {
+    public MagicLinkService(int threads, long interval, File snapshotFile) {
         super(threads);
         this.interval = interval;
+        this.registrations = new RegistrationPipeline(this.executorService);
+        this.snapshotFile = snapshotFile;
     }
 
-    public void startHeartbeat(ServerService serverService) {
-        this.scheduleRecurring(() -> {
-            try {
-                serverService.servers().forEach(serverReference -> {
-                    PlayerServer server = serverReference.get();
-                    if (server == null) return;
+    public RegistrationPipeline registrations() {
+        return this.registrations;
+    }
 
-                    server.decreaseTimeout();
+    /**
+     * Start unregistering servers that stop pinging the proxy.
+     * Every tick only looks at the servers that have just timed out, so it doesn't matter how many servers are registered.
+     * @param serverService The server service whose servers should be checked.
+     */
+    public void startHeartbeat(ServerService serverService) {
+        long precision = serverService.timeoutPrecision();
 
+        this.executorService.scheduleAtFixedRate(() -> {
+            try {
+                for (PlayerServer server : serverService.staleServers())
                     try {
-                        if (server.stale()) {
-                            serverService.unregisterServer(server.serverInfo(), server.family().name(), true);
-                            serverService.servers().remove(serverReference);
-                        }
+                        serverService.unregisterServer(server.serverInfo(), server.family().name(), true);
                     } catch (NullPointerException ignore) {}
                     catch (Exception e) {
                         e.printStackTrace();
                     }
-                });
+            } catch (Exception ignore) {}
+        }, precision, precision, TimeUnit.MILLISECONDS);
 
-                serverService.servers().removeIf(server -> {
-                    if(server.get() == null) return true;
-                    try {
-                        if (Objects.requireNonNull(server.get()).stale()) return true;
-                    } catch (Exception ignore) {}
+        this.scheduleRecurring(this::saveSnapshot, SNAPSHOT_INTERVAL, SNAPSHOT_INTERVAL);
+    }
 
-                    return false;
-                });
-            } catch (Exception ignore) {}
-        }, 1, 5);
+    /**
+     * Save a snapshot of every registered server, so that they can be restored if the proxy restarts.
+     */
+    public void saveSnapshot() {
+        try {
+            ServerRegistrySnapshot.capture(Tinder.get().services().familyService()).write(this.snapshotFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Restore the servers from the last saved snapshot.
+     * Restored servers are provisional until they ping the proxy.
+     * @param serverService The server service to restore the servers into.
+     * @return The number of servers that were restored.
+     */
+    public int restoreSnapshot(ServerService serverService) {
+        return ServerRegistrySnapshot.read(this.snapshotFile)
+                .map(snapshot -> snapshot.restore(serverService))
+                .orElse(0);
     }
 }
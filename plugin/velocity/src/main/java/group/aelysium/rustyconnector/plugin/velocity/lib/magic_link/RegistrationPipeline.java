@@ -0,0 +1,213 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.magic_link;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.core.lib.messenger.MessengerConnection;
+import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
+import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
+import group.aelysium.rustyconnector.core.lib.packets.PacketType;
+import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingPacket;
+import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingResponsePacket;
+import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
+import group.aelysium.rustyconnector.plugin.velocity.lib.magic_link.handlers.MagicLinkPingHandler;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.ServerService;
+import group.aelysium.rustyconnector.plugin.velocity.lib.webhook.DiscordWebhookMessage;
+import group.aelysium.rustyconnector.plugin.velocity.lib.webhook.WebhookAlertFlag;
+import group.aelysium.rustyconnector.plugin.velocity.lib.webhook.WebhookEventManager;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Registers servers which are trying to connect to the proxy, in batches.
+ * When the proxy restarts, every server tries to connect at the same time.
+ * Instead of registering each one on the thread that received it's ping, connect requests are queued up and registered together.
+ * One webhook is sent for each batch, and every server in the batch is answered once the batch is done.
+ * <p>
+ * If too many servers are already waiting, new ones are told to try again after a short wait.
+ */
+public class RegistrationPipeline {
+    /**
+     * The most servers that will be registered in a single batch.
+     */
+    protected static final int BATCH_SIZE = 250;
+
+    /**
+     * How long, in milliseconds, to wait for more servers to show up before registering a batch.
+     */
+    protected static final long BATCH_WINDOW = 50;
+
+    /**
+     * The most servers that can be waiting to be registered at once.
+     */
+    protected static final int MAX_PENDING = 4096;
+
+    /**
+     * How long, in seconds, a server that was turned away should wait before trying again.
+     */
+    protected static final int RETRY_DELAY = 5;
+
+    private final ScheduledExecutorService executorService;
+    private final Map<ServerInfo, ServerPingPacket> pending = new ConcurrentHashMap<>();
+    private final Queue<ServerInfo> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public RegistrationPipeline(ScheduledExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Queue a server to be registered.
+     * If the server is already queued, it's newest ping replaces the old one.
+     * If the queue is full, the server is told to try again soon.
+     * @param serverInfo The server to register.
+     * @param packet The ping that the server sent.
+     */
+    public void offer(ServerInfo serverInfo, ServerPingPacket packet) {
+        if(this.pending.size() >= MAX_PENDING && !this.pending.containsKey(serverInfo)) {
+            publish(denied(serverInfo, "The proxy is busy registering other servers!", RETRY_DELAY));
+            return;
+        }
+
+        if(this.pending.put(serverInfo, packet) == null) this.queue.add(serverInfo);
+        this.schedule();
+    }
+
+    /**
+     * Get the number of servers that are waiting to be registered.
+     * @return The number of waiting servers.
+     */
+    public int pending() {
+        return this.pending.size();
+    }
+
+    private void schedule() {
+        if(!this.scheduled.compareAndSet(false, true)) return;
+
+        try {
+            this.executorService.schedule(this::drain, BATCH_WINDOW, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignore) {} // The service has been killed
+    }
+
+    private void drain() {
+        try {
+            List<Map.Entry<ServerInfo, ServerPingPacket>> batch = new ArrayList<>(BATCH_SIZE);
+            do {
+                batch.clear();
+
+                ServerInfo serverInfo;
+                while (batch.size() < BATCH_SIZE && (serverInfo = this.queue.poll()) != null) {
+                    ServerPingPacket packet = this.pending.remove(serverInfo);
+                    if(packet != null) batch.add(Map.entry(serverInfo, packet));
+                }
+
+                if(!batch.isEmpty()) this.register(batch);
+            } while (!batch.isEmpty());
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            this.scheduled.set(false);
+            if(!this.queue.isEmpty()) this.schedule(); // Something was queued after we finished draining
+        }
+    }
+
+    private void register(List<Map.Entry<ServerInfo, ServerPingPacket>> batch) {
+        ServerService serverService = Tinder.get().services().serverService();
+
+        List<PlayerServer> registered = new ArrayList<>();
+        List<ServerPingResponsePacket> responses = new ArrayList<>();
+
+        for (Map.Entry<ServerInfo, ServerPingPacket> entry : batch) {
+            ServerInfo serverInfo = entry.getKey();
+            ServerPingPacket packet = entry.getValue();
+
+            try {
+                PlayerServer server = new ServerService.ServerBuilder()
+                        .setServerInfo(serverInfo)
+                        .setFamilyName(packet.familyName())
+                        .setSoftPlayerCap(packet.softCap())
+                        .setHardPlayerCap(packet.hardCap())
+                        .setWeight(packet.weight())
+                        .build();
+
+                MagicLinkPingHandler.updatePerformance(server, packet);
+                server.register(packet.familyName(), false);
+                registered.add(server);
+
+                responses.add(accepted(server, serverService));
+            } catch (Exception e) {
+                responses.add(denied(serverInfo, "Attempt to connect to proxy failed! " + e.getMessage(), null));
+            }
+        }
+
+        announce(registered);
+        responses.forEach(RegistrationPipeline::publish);
+    }
+
+    /**
+     * Send one webhook for the whole batch, and one for each family that servers were registered into.
+     */
+    private static void announce(List<PlayerServer> servers) {
+        if(servers.isEmpty()) return;
+
+        if(servers.size() == 1) {
+            PlayerServer server = servers.get(0);
+            WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, DiscordWebhookMessage.PROXY__SERVER_REGISTER.build(server, server.family().name()));
+            WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, server.family().name(), DiscordWebhookMessage.FAMILY__SERVER_REGISTER.build(server, server.family().name()));
+            return;
+        }
+
+        WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, DiscordWebhookMessage.PROXY__SERVER_REGISTER_BATCH.build(servers));
+
+        Map<String, List<PlayerServer>> families = servers.stream().collect(Collectors.groupingBy(server -> server.family().name()));
+        families.forEach((familyName, familyServers) ->
+                WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, familyName, DiscordWebhookMessage.FAMILY__SERVER_REGISTER_BATCH.build(familyName, familyServers))
+        );
+    }
+
+    /**
+     * Let a server know that it's registered to the proxy.
+     * @param server The server to acknowledge.
+     */
+    public static void acknowledge(PlayerServer server) {
+        publish(accepted(server, Tinder.get().services().serverService()));
+    }
+
+    private static ServerPingResponsePacket accepted(PlayerServer server, ServerService serverService) {
+        return (ServerPingResponsePacket) new GenericPacket.Builder()
+                .setType(PacketType.PING_RESPONSE)
+                .setAddress(server.serverInfo().getAddress())
+                .setOrigin(PacketOrigin.PROXY)
+                .setParameter(ServerPingResponsePacket.ValidParameters.STATUS, String.valueOf(ServerPingResponsePacket.PingResponseStatus.ACCEPTED))
+                .setParameter(ServerPingResponsePacket.ValidParameters.MESSAGE, "Connected to the proxy! Registered as `"+server.serverInfo().getName()+"` into the family `"+server.family().name()+"`.")
+                .setParameter(ServerPingResponsePacket.ValidParameters.COLOR, NamedTextColor.GREEN.toString())
+                .setParameter(ServerPingResponsePacket.ValidParameters.INTERVAL_OPTIONAL, String.valueOf(serverService.serverInterval()))
+                .buildSendable();
+    }
+
+    private static ServerPingResponsePacket denied(ServerInfo serverInfo, String message, Integer retryDelay) {
+        GenericPacket.Builder builder = new GenericPacket.Builder()
+                .setType(PacketType.PING_RESPONSE)
+                .setAddress(serverInfo.getAddress())
+                .setOrigin(PacketOrigin.PROXY)
+                .setParameter(ServerPingResponsePacket.ValidParameters.STATUS, String.valueOf(ServerPingResponsePacket.PingResponseStatus.DENIED))
+                .setParameter(ServerPingResponsePacket.ValidParameters.MESSAGE, message)
+                .setParameter(ServerPingResponsePacket.ValidParameters.COLOR, NamedTextColor.RED.toString());
+        if(retryDelay != null)
+            builder.setParameter(ServerPingResponsePacket.ValidParameters.INTERVAL_OPTIONAL, String.valueOf(retryDelay));
+
+        return (ServerPingResponsePacket) builder.buildSendable();
+    }
+
+    private static void publish(ServerPingResponsePacket packet) {
+        try {
+            MessengerConnection backboneMessenger = Tinder.get().flame().backbone().connection().orElseThrow();
+            backboneMessenger.publish(packet);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
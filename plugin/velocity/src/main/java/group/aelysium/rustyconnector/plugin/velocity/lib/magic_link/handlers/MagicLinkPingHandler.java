@@ -1,19 +1,15 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.magic_link.handlers;
 
 import com.velocitypowered.api.proxy.server.ServerInfo;
-import group.aelysium.rustyconnector.core.lib.messenger.MessengerConnection;
 import group.aelysium.rustyconnector.core.lib.packets.PacketHandler;
 import group.aelysium.rustyconnector.core.lib.packets.GenericPacket;
-import group.aelysium.rustyconnector.core.lib.packets.PacketOrigin;
-import group.aelysium.rustyconnector.core.lib.packets.PacketType;
 import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingPacket;
-import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingResponsePacket;
 import group.aelysium.rustyconnector.core.lib.lang.log_gate.GateKey;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
 import group.aelysium.rustyconnector.plugin.velocity.lib.lang.VelocityLang;
+import group.aelysium.rustyconnector.plugin.velocity.lib.magic_link.RegistrationPipeline;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.ServerService;
-import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.net.InetSocketAddress;
 
@@ -39,44 +35,11 @@ public class MagicLinkPingHandler extends PacketHandler {
             disconnectServer(serverInfo, packet);
     }
 
+    /**
+     * Servers aren't registered right away. They're queued up and registered in batches.
+     */
     private static void connectServer(ServerInfo serverInfo, ServerPingPacket packet) {
-        Tinder api = Tinder.get();
-        ServerService serverService = api.services().serverService();
-        MessengerConnection backboneMessenger = api.flame().backbone().connection().orElseThrow();
-
-        try {
-            PlayerServer server = new ServerService.ServerBuilder()
-                    .setServerInfo(serverInfo)
-                    .setFamilyName(packet.familyName())
-                    .setSoftPlayerCap(packet.softCap())
-                    .setHardPlayerCap(packet.hardCap())
-                    .setWeight(packet.weight())
-                    .build();
-
-            server.register(packet.familyName());
-
-            ServerPingResponsePacket message = (ServerPingResponsePacket) new GenericPacket.Builder()
-                    .setType(PacketType.PING_RESPONSE)
-                    .setAddress(serverInfo.getAddress())
-                    .setOrigin(PacketOrigin.PROXY)
-                    .setParameter(ServerPingResponsePacket.ValidParameters.STATUS, String.valueOf(ServerPingResponsePacket.PingResponseStatus.ACCEPTED))
-                    .setParameter(ServerPingResponsePacket.ValidParameters.MESSAGE, "Connected to the proxy! Registered as `"+server.serverInfo().getName()+"` into the family `"+server.family().name()+"`.")
-                    .setParameter(ServerPingResponsePacket.ValidParameters.COLOR, NamedTextColor.GREEN.toString())
-                    .setParameter(ServerPingResponsePacket.ValidParameters.INTERVAL_OPTIONAL, String.valueOf(serverService.serverInterval()))
-                    .buildSendable();
-            backboneMessenger.publish(message);
-
-        } catch(Exception e) {
-            ServerPingResponsePacket message = (ServerPingResponsePacket) new GenericPacket.Builder()
-                    .setType(PacketType.PING_RESPONSE)
-                    .setAddress(serverInfo.getAddress())
-                    .setOrigin(PacketOrigin.PROXY)
-                    .setParameter(ServerPingResponsePacket.ValidParameters.STATUS, String.valueOf(ServerPingResponsePacket.PingResponseStatus.DENIED))
-                    .setParameter(ServerPingResponsePacket.ValidParameters.MESSAGE, "Attempt to connect to proxy failed! " + e.getMessage())
-                    .setParameter(ServerPingResponsePacket.ValidParameters.COLOR, NamedTextColor.RED.toString())
-                    .buildSendable();
-            backboneMessenger.publish(message);
-        }
+        Tinder.get().services().magicLinkService().registrations().offer(serverInfo, packet);
     }
 
     private static void disconnectServer(ServerInfo serverInfo, ServerPingPacket packet) throws Exception {
@@ -95,7 +58,26 @@ public class MagicLinkPingHandler extends PacketHandler {
             return;
         }
 
-        server.setTimeout(serverService.serverTimeout());
+        if(server.provisional()) { // The server was restored from a snapshot, now we know it's really there.
+            server.setTimeout(serverService.serverTimeout());
+            server.setProvisional(false);
+            RegistrationPipeline.acknowledge(server);
+        }
+
+        serverService.refreshTimeout(server);
+        updatePerformance(server, packet);
         server.setPlayerCount(packet.playerCount());
     }
+
+    /**
+     * Store any performance metrics the server sent along with it's ping.
+     * Servers running older versions of RustyConnector won't send them, in which case the last known values are kept.
+     */
+    public static void updatePerformance(PlayerServer server, ServerPingPacket packet) {
+        packet.tps().ifPresent(server::setTps);
+        packet.mspt().ifPresent(server::setMspt);
+        packet.usedHeap().ifPresent(server::setUsedHeap);
+        packet.maxHeap().ifPresent(server::setMaxHeap);
+        packet.loadedChunks().ifPresent(server::setLoadedChunks);
+    }
 }
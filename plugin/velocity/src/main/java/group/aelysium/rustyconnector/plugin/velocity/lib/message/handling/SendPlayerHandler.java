@@ -9,6 +9,7 @@ import group.aelysium.rustyconnector.core.lib.packets.variants.ServerPingRespons
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.FamilyService;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocusedServerFamily;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 import net.kyori.adventure.text.Component;
 
 import java.security.InvalidAlgorithmParameterException;
@@ -28,7 +29,10 @@ public class SendPlayerHandler extends PacketHandler {
             PlayerFocusedServerFamily family = (PlayerFocusedServerFamily) familyService.find(packet.targetFamilyName());
             if (family == null) throw new InvalidAlgorithmParameterException("A family with the name `"+packet.targetFamilyName()+"` doesn't exist!");
 
-            family.connect(player);
+            family.connectAsync(player).exceptionally(throwable -> {
+                player.sendMessage(Component.text(PlayerServer.unwrap(throwable).getMessage()));
+                return null;
+            });
         } catch (Exception e) {
             player.sendMessage(Component.text(e.getMessage()));
         }
@@ -9,8 +9,10 @@ import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.lang.ref.WeakReference;
 import java.rmi.ConnectException;
+import java.util.List;
 import java.util.Objects;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 public class Party {
     private final Vector<Player> players;
@@ -108,39 +110,83 @@ public class Party {
         this.leader = null;
     }
 
-    public synchronized void connect(PlayerServer server) {
+    /**
+     * Bring every member of the party over to a server.
+     * @see #connect(PlayerServer, Player, boolean)
+     */
+    public CompletableFuture<List<MemberOutcome>> connect(PlayerServer server) {
+        return this.connect(server, null, false);
+    }
+
+    /**
+     * Bring the party over to a server.
+     * Room is reserved on the server for every member up front, including the initiator, so the party either follows as a whole or not at all.
+     * Once the room has been reserved, every member is connected at the same time.
+     * The initiator's slot is held until the rest of the party has finished connecting, so nobody else can take it in the meantime.
+     * Members who couldn't follow are kicked from the party.
+     * @param server The server to bring the party to.
+     * @param initiator The member who is switching servers, they're expected to connect on their own. Can be `null`.
+     * @param reserved Whether the initiator already holds a reserved slot on the server, like a load balancer's lease. If they do, no more room is reserved for them.
+     * @return A future which completes with how each member's connection went.
+     */
+    public CompletableFuture<List<MemberOutcome>> connect(PlayerServer server, Player initiator, boolean reserved) {
         SwitchPower switchPower = Tinder.get().services().partyService().orElseThrow().settings().switchPower();
+        return this.connect(server, initiator, reserved, switchPower);
+    }
+
+    /**
+     * Bring the party over to a server, using the given switch power instead of the one that's configured.
+     * @see #connect(PlayerServer, Player, boolean)
+     */
+    protected synchronized CompletableFuture<List<MemberOutcome>> connect(PlayerServer server, Player initiator, boolean reserved, SwitchPower switchPower) {
         this.setServer(server);
-        Vector<Player> kickedPlayers = new Vector<>();
-
-        Tinder.get().services().partyService().orElseThrow().queueConnector(() -> {
-            for (Player player : this.players)
-                try {
-                    switch (switchPower) {
-                        case MINIMAL -> {
-                            if(server.full()) {
-                                kickedPlayers.add(player);
-                                return;
-                            }
-                            server.directConnect(player);
-                        }
-                        case MODERATE -> {
-                            if(server.maxed()) {
-                                kickedPlayers.add(player);
-                                return;
-                            }
-                            server.directConnect(player);
-                        }
-                        case AGGRESSIVE -> server.directConnect(player);
-                    }
-                } catch (ConnectException e) {
-                    kickedPlayers.add(player);
-                }
-
-            kickedPlayers.forEach(player -> {
-                player.sendMessage(VelocityLang.PARTY_FOLLOWING_KICKED);
-                this.leave(player);
-            });
+
+        List<Player> members = this.players.stream()
+                .filter(player -> !player.equals(initiator))
+                .filter(player -> player.getCurrentServer().map(connection -> !connection.getServer().equals(server.registeredServer())).orElse(true))
+                .toList();
+        if(members.isEmpty()) return CompletableFuture.completedFuture(List.of());
+
+        int limit = switch (switchPower) {
+            case MINIMAL -> server.softPlayerCap();
+            case MODERATE -> server.hardPlayerCap();
+            case AGGRESSIVE -> Integer.MAX_VALUE;
+        };
+
+        boolean holdInitiator = initiator != null && !reserved;
+        int slots = members.size() + (holdInitiator ? 1 : 0);
+        if(!server.reserve(slots, limit)) {
+            ConnectException failure = new ConnectException("There isn't enough room on that server for the whole party!");
+            List<MemberOutcome> outcomes = members.stream().map(member -> new MemberOutcome(member, failure)).toList();
+
+            this.kick(outcomes);
+            return CompletableFuture.completedFuture(outcomes);
+        }
+
+        List<CompletableFuture<MemberOutcome>> connections = members.stream().map(member ->
+                server.directConnectAsync(member).handle((ignore, throwable) -> {
+                    server.release();
+                    return new MemberOutcome(member, throwable == null ? null : PlayerServer.unwrap(throwable));
+                })
+        ).toList();
+
+        return CompletableFuture.allOf(connections.toArray(new CompletableFuture[0])).thenApply(ignore -> {
+            if(holdInitiator) server.release();
+
+            List<MemberOutcome> outcomes = connections.stream().map(CompletableFuture::join).toList();
+
+            this.kick(outcomes);
+            return outcomes;
+        });
+    }
+
+    /**
+     * Kick every member who wasn't able to follow the party.
+     */
+    private void kick(List<MemberOutcome> outcomes) {
+        outcomes.stream().filter(outcome -> !outcome.connected()).forEach(outcome -> {
+            outcome.member().sendMessage(VelocityLang.PARTY_FOLLOWING_KICKED);
+            this.leave(outcome.member());
         });
     }
 
@@ -152,4 +198,15 @@ public class Party {
             return "<Party players=" + this.players.size() + " leader=null>";
         }
     }
+
+    /**
+     * How connecting a party member to the party's new server went.
+     * @param member The party member.
+     * @param failure Why the member wasn't able to follow the party. `null` if they connected.
+     */
+    public record MemberOutcome(Player member, Throwable failure) {
+        public boolean connected() {
+            return this.failure == null;
+        }
+    }
 }
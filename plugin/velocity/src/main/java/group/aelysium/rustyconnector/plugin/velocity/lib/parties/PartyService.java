@@ -16,19 +16,14 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import java.util.List;
 import java.util.Optional;
 import java.util.Vector;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class PartyService extends Service {
     private final Vector<Party> parties = new Vector<>();
     private final Vector<PartyInvite> invites = new Vector<>();
     private final PartySettings settings;
-    private final ExecutorService connector;
 
     public PartyService(PartySettings settings) {
         this.settings = settings;
-
-        this.connector = Executors.newFixedThreadPool(10);
     }
 
     public void initCommand(List<Component> bootOutput) {
@@ -50,10 +45,6 @@ public class PartyService extends Service {
         bootOutput.add(Component.text("Finished building party service commands.", NamedTextColor.GREEN));
     }
 
-    public void queueConnector(Runnable runnable) {
-        this.connector.submit(runnable);
-    }
-
     public PartySettings settings() {
         return this.settings;
     }
@@ -133,7 +124,6 @@ public class PartyService extends Service {
     public void kill() {
         this.parties.clear();
         this.invites.clear();
-        this.connector.shutdown();
 
         CommandManager commandManager = Tinder.get().velocityServer().getCommandManager();
         commandManager.unregister("party");
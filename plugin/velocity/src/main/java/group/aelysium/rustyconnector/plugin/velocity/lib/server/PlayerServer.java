@@ -7,33 +7,51 @@ import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import group.aelysium.rustyconnector.core.lib.hash.MD5;
+import group.aelysium.rustyconnector.core.lib.model.ExponentialMovingAverage;
+import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
 import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.BaseServerFamily;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocusedServerFamily;
 import group.aelysium.rustyconnector.plugin.velocity.lib.Permission;
 import group.aelysium.rustyconnector.plugin.velocity.lib.lang.VelocityLang;
 import group.aelysium.rustyconnector.plugin.velocity.lib.parties.Party;
 import group.aelysium.rustyconnector.plugin.velocity.lib.parties.PartyService;
-import group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport.events.ServerPlayerCountEvent;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 
 import java.rmi.ConnectException;
 import java.security.InvalidAlgorithmParameterException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
 
 public class PlayerServer implements group.aelysium.rustyconnector.core.lib.model.PlayerServer {
     private final UUID id = UUID.randomUUID();
     private RegisteredServer registeredServer = null;
     private final ServerInfo serverInfo;
     private BaseServerFamily family;
-    private int playerCount = 0;
+    private final AtomicInteger playerCount = new AtomicInteger(0);
+    private LongAdder familyPlayerCount = null;
+    private final AtomicInteger reservations = new AtomicInteger(0);
     private int weight;
     private int softPlayerCap;
     private int hardPlayerCap;
 
     private AtomicInteger timeout;
+    private volatile boolean provisional = false;
+
+    private final ExponentialMovingAverage connectLatency = new ExponentialMovingAverage(0.2);
+    private final ExponentialMovingAverage connectFailureRate = new ExponentialMovingAverage(0.2, 0);
+
+    private volatile double tps = 20;
+    private volatile double mspt = 0;
+    private volatile long usedHeap = 0;
+    private volatile long maxHeap = 0;
+    private volatile int loadedChunks = 0;
 
     public PlayerServer(ServerInfo serverInfo, int softPlayerCap, int hardPlayerCap, int weight, int timeout) {
         this.serverInfo = serverInfo;
@@ -49,8 +67,25 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
         this.timeout = new AtomicInteger(timeout);
     }
 
-    public boolean stale() {
-        return this.timeout.get() <= 0;
+    /**
+     * Get how long, in seconds, this server can go without pinging the proxy before it's unregistered.
+     * @return The server's timeout.
+     */
+    public int timeout() {
+        return this.timeout.get();
+    }
+
+    /**
+     * Is this server provisional?
+     * Provisional servers were restored from a {@link ServerRegistrySnapshot} and haven't pinged the proxy since.
+     * @return `true` if the server is provisional. `false` otherwise.
+     */
+    public boolean provisional() {
+        return this.provisional;
+    }
+
+    public void setProvisional(boolean provisional) {
+        this.provisional = provisional;
     }
 
     public void setTimeout(int newTimeout) {
@@ -62,13 +97,6 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
         return this.id;
     }
 
-    public int decreaseTimeout() {
-        this.timeout.decrementAndGet();
-        if(this.timeout.get() < 0) this.timeout.set(0);
-
-        return this.timeout.get();
-    }
-
     public String address() {
         return this.serverInfo().getAddress().getHostName() + ":" + this.serverInfo().getAddress().getPort();
     }
@@ -97,30 +125,84 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
      * @throws InvalidAlgorithmParameterException If the family doesn't exist.
      */
     public void register(String familyName) throws Exception {
+        this.register(familyName, true);
+    }
+
+    /**
+     * Registers a server to the proxy.
+     * @param familyName The family to associate the server with.
+     * @param announce Should webhooks be fired for this registration?
+     * @throws DuplicateRequestException If the server has already been registered to the proxy.
+     * @throws InvalidAlgorithmParameterException If the family doesn't exist.
+     */
+    public void register(String familyName, boolean announce) throws Exception {
         Tinder api = Tinder.get();
 
         BaseServerFamily family = api.services().familyService().find(familyName);
         if(family == null) throw new InvalidAlgorithmParameterException("A family with the name `"+familyName+"` doesn't exist!");
 
-        this.registeredServer = api.services().serverService().registerServer(this, family);
+        this.registeredServer = api.services().serverService().registerServer(this, family, announce);
 
         this.family = family;
     }
 
     /**
      * Is the server full? Will return `true` if and only if `soft-player-cap` has been reached or surpassed.
+     * Players that are still connecting to this server are counted as well.
      * @return `true` if the server is full
      */
     public boolean full() {
-        return this.playerCount >= softPlayerCap;
+        return this.sortIndex() >= softPlayerCap;
     }
 
     /**
      * Is the server maxed out? Will return `true` if and only if `hard-player-cap` has been reached or surpassed.
+     * Players that are still connecting to this server are counted as well.
      * @return `true` if the server is maxed out
      */
     public boolean maxed() {
-        return this.playerCount >= hardPlayerCap;
+        return this.sortIndex() >= hardPlayerCap;
+    }
+
+    /**
+     * Get the number of players that are still connecting to this server.
+     * @return The number of reserved slots.
+     */
+    public int reservations() {
+        return this.reservations.get();
+    }
+
+    /**
+     * Reserve a slot on this server for a player that is still connecting.
+     * You should probably be using {@link group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing.LoadBalancer#reserve LoadBalancer#reserve} instead.
+     */
+    public void reserve() {
+        this.reservations.incrementAndGet();
+        this.updateLoadBalancer();
+    }
+
+    /**
+     * Reserve several slots on this server at once. Either every slot is reserved, or none of them are.
+     * Each slot should be given back using {@link #release()} once it's player has finished connecting.
+     * @param slots The number of slots to reserve.
+     * @param limit The player count that the reservation isn't allowed to go over.
+     * @return `true` if the slots were reserved. `false` if there wasn't enough room.
+     */
+    public boolean reserve(int slots, int limit) {
+        synchronized (this) {
+            if((long) this.sortIndex() + slots > limit) return false;
+            this.reservations.addAndGet(slots);
+        }
+        this.updateLoadBalancer();
+        return true;
+    }
+
+    /**
+     * Release a slot that was reserved using {@link #reserve()}.
+     */
+    public void release() {
+        if(this.reservations.decrementAndGet() < 0) this.reservations.set(0);
+        this.updateLoadBalancer();
     }
 
 
@@ -150,40 +232,94 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
 
     @Override
     public int playerCount() {
-        //return 0;
-        return this.playerCount;
+        return this.playerCount.get();
     }
 
     public void setPlayerCount(int playerCount) {
-        this.playerCount = playerCount;
-
-        try {
-            Tinder.get().services().viewportService().orElseThrow().services().api().websocket()
-                    .fire(new ServerPlayerCountEvent(this, this.playerCount));
-        } catch (Exception ignore) {}
+        this.updatePlayerCount(count -> playerCount);
     }
 
     public void playerLeft() {
-        if(this.playerCount > 0) this.playerCount -= 1;
-
-        try {
-            Tinder.get().services().viewportService().orElseThrow().services().api().websocket()
-                    .fire(new ServerPlayerCountEvent(this, this.playerCount));
-        } catch (Exception ignore) {}
+        this.updatePlayerCount(count -> count > 0 ? count - 1 : 0);
     }
 
     public void playerJoined() {
-        this.playerCount += 1;
+        this.updatePlayerCount(count -> count + 1);
+    }
 
-        try {
-            Tinder.get().services().viewportService().orElseThrow().services().api().websocket()
-                    .fire(new ServerPlayerCountEvent(this, this.playerCount));
-        } catch (Exception ignore) {}
+    /**
+     * Change the player count, and pass the difference on to the total of the family this server counts towards.
+     * Changes are made one at a time so that the family's total can never drift away from the sum of it's servers.
+     */
+    private void updatePlayerCount(IntUnaryOperator update) {
+        synchronized (this) {
+            int previous = this.playerCount.get();
+            int playerCount = update.applyAsInt(previous);
+            this.playerCount.set(playerCount);
+
+            if(this.familyPlayerCount != null) this.familyPlayerCount.add(playerCount - previous);
+        }
+        this.updateLoadBalancer();
+        this.markViewport();
+    }
+
+    /**
+     * Let the viewport know that this server's player count has changed.
+     * Does nothing if the viewport isn't running, or if RustyConnector itself isn't, like in benchmarks.
+     */
+    private void markViewport() {
+        Tinder api = Tinder.get();
+        if(api == null || api.flame() == null) return;
+
+        api.services().viewportService().ifPresent(viewport ->
+                viewport.services().api().websocket().playerCounts().mark(this)
+        );
+    }
+
+    /**
+     * Start adding this server's player count to a family's total.
+     * The server's current player count is moved out of the total it was counting towards before, and into the new one.
+     * @param total The family's total. Or `null` if the server shouldn't count towards any family.
+     */
+    public void countTowards(LongAdder total) {
+        synchronized (this) {
+            if(this.familyPlayerCount != null) this.familyPlayerCount.add(-this.playerCount.get());
+            this.familyPlayerCount = total;
+            if(total != null) total.add(this.playerCount.get());
+        }
     }
 
+    /**
+     * Take a snapshot of this server's current state.
+     * @return A snapshot of the server.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(
+                this.id,
+                this.serverInfo.getName(),
+                AddressUtil.addressToString(this.serverInfo.getAddress()),
+                this.playerCount(),
+                this.reservations(),
+                this.softPlayerCap,
+                this.hardPlayerCap,
+                this.weight
+        );
+    }
+
+    /**
+     * Let the load balancer of this server's family know that this server's player count has changed.
+     */
+    private void updateLoadBalancer() {
+        if(!(this.family instanceof PlayerFocusedServerFamily)) return;
+        ((PlayerFocusedServerFamily) this.family).loadBalancer().update(this);
+    }
+
+    /**
+     * The sort index of a server is it's player count, including any players that are still connecting.
+     */
     @Override
     public int sortIndex() {
-        return this.playerCount;
+        return this.playerCount.get() + this.reservations.get();
     }
 
     @Override
@@ -218,6 +354,54 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
     }
 
     public boolean connect(Player player) throws ConnectException {
+        return this.connect(player, false);
+    }
+
+    /**
+     * Connect a player to this server.
+     * If the player is in a party, the party will follow them.
+     * @param player The player to connect.
+     * @param reserved Whether the player already holds a reserved slot on this server, like a load balancer's lease.
+     * @return `true` if the player connected. `false` otherwise.
+     */
+    public boolean connect(Player player, boolean reserved) throws ConnectException {
+        if(!this.connectParty(player, reserved)) return false;
+
+        return directConnect(player);
+    }
+
+    /**
+     * Connect a player to this server without blocking the calling thread.
+     * If the player is in a party, the party will follow them.
+     * @param player The player to connect.
+     * @return A future which completes with this server once the player has connected.
+     *         If the connection fails or times out, the future completes exceptionally.
+     */
+    public CompletableFuture<PlayerServer> connectAsync(Player player) {
+        return this.connectAsync(player, false);
+    }
+
+    /**
+     * Connect a player to this server without blocking the calling thread.
+     * If the player is in a party, the party will follow them.
+     * @param player The player to connect.
+     * @param reserved Whether the player already holds a reserved slot on this server, like a load balancer's lease.
+     * @return A future which completes with this server once the player has connected.
+     *         If the connection fails or times out, the future completes exceptionally.
+     */
+    public CompletableFuture<PlayerServer> connectAsync(Player player, boolean reserved) {
+        if(!this.connectParty(player, reserved))
+            return CompletableFuture.failedFuture(new ConnectException("Only the party leader can switch servers!"));
+
+        return directConnectAsync(player);
+    }
+
+    /**
+     * If the player is in a party, bring the party along to this server.
+     * @param reserved Whether the player already holds a reserved slot on this server. If they don't, one is reserved for them along with the party.
+     * @return `false` if the player isn't allowed to switch servers because of their party. `true` otherwise.
+     */
+    private boolean connectParty(Player player, boolean reserved) {
         try {
             PartyService partyService = Tinder.get().services().partyService().orElseThrow();
             Party party = partyService.find(player).orElseThrow();
@@ -229,31 +413,161 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
                         return false;
                     }
 
-                party.connect(this);
+                party.connect(this, player, reserved).exceptionally(throwable -> {
+                    throwable.printStackTrace();
+                    return null;
+                });
             } catch (Exception e) {
                 e.printStackTrace();
             }
         } catch (Exception ignore) {}
 
-        return directConnect(player);
+        return true;
     }
 
     public boolean directConnect(Player player) throws ConnectException {
         ConnectionRequestBuilder connection = player.createConnectionRequest(this.registeredServer());
+        long start = System.nanoTime();
         try {
             ConnectionRequestBuilder.Result result = connection.connect().orTimeout(5, TimeUnit.SECONDS).get();
+            this.recordConnect(System.nanoTime() - start, !result.isSuccessful());
 
             if(result.isSuccessful()) {
                 this.playerJoined();
                 return true;
             }
         } catch (Exception e) {
+            this.recordConnect(System.nanoTime() - start, true);
             throw new ConnectException("Unable to connect to that server!", e);
         }
 
         return false;
     }
 
+    /**
+     * Connect a player directly to this server without blocking the calling thread.
+     * @param player The player to connect.
+     * @return A future which completes with this server once the player has connected.
+     *         If the connection fails or times out, the future completes exceptionally.
+     */
+    public CompletableFuture<PlayerServer> directConnectAsync(Player player) {
+        long start = System.nanoTime();
+
+        return player.createConnectionRequest(this.registeredServer()).connect()
+                .orTimeout(5, TimeUnit.SECONDS)
+                .handle((result, throwable) -> {
+                    // A server which refuses the player, because it's full or whitelisted for example, counts as a failure too.
+                    this.recordConnect(System.nanoTime() - start, throwable != null || !result.isSuccessful());
+
+                    if(throwable != null) {
+                        Throwable cause = unwrap(throwable);
+                        if(cause instanceof Exception exception)
+                            throw new CompletionException(new ConnectException("Unable to connect to that server!", exception));
+                        throw new CompletionException(cause);
+                    }
+                    if(!result.isSuccessful())
+                        throw new CompletionException(new ConnectException("There was an issue connecting you to the server!"));
+
+                    this.playerJoined();
+                    return this;
+                });
+    }
+
+    /**
+     * Get the real cause of a failed future.
+     * @param throwable The throwable that a future completed with.
+     * @return The throwable, with any {@link CompletionException} wrappers removed.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        while(throwable instanceof CompletionException && throwable.getCause() != null)
+            throwable = throwable.getCause();
+        return throwable;
+    }
+
+    /**
+     * Record how a connection attempt to this server went.
+     * @param nanos How long the attempt took, in nanoseconds.
+     * @param failed Whether the attempt failed, timed out, or was refused by the server.
+     */
+    public void recordConnect(long nanos, boolean failed) {
+        this.connectLatency.add(nanos / 1_000_000D);
+        this.connectFailureRate.add(failed ? 1 : 0);
+
+        if(!failed && this.family instanceof PlayerFocusedServerFamily family)
+            family.loadBalancer().recordConnect(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Get the moving average of how long it takes players to connect to this server.
+     * @return The average connect latency in milliseconds. `0` if no players have connected yet.
+     */
+    public double connectLatency() {
+        return this.connectLatency.get();
+    }
+
+    /**
+     * Get the moving average of how often connecting to this server fails.
+     * @return The failure rate, between `0` and `1`.
+     */
+    public double connectFailureRate() {
+        return this.connectFailureRate.get();
+    }
+
+    /**
+     * Get the server's ticks per second, as of it's last ping.
+     * @return The server's TPS. `20` if the server hasn't reported it.
+     */
+    public double tps() {
+        return this.tps;
+    }
+    public void setTps(double tps) {
+        this.tps = tps;
+    }
+
+    /**
+     * Get the average number of milliseconds that the server's ticks were taking, as of it's last ping.
+     * @return The server's MSPT. `0` if the server hasn't reported it.
+     */
+    public double mspt() {
+        return this.mspt;
+    }
+    public void setMspt(double mspt) {
+        this.mspt = mspt;
+    }
+
+    /**
+     * Get how much heap the server was using, as of it's last ping.
+     * @return The used heap in bytes. `0` if the server hasn't reported it.
+     */
+    public long usedHeap() {
+        return this.usedHeap;
+    }
+    public void setUsedHeap(long usedHeap) {
+        this.usedHeap = usedHeap;
+    }
+
+    /**
+     * Get the most heap the server is allowed to use, as of it's last ping.
+     * @return The max heap in bytes. `0` if the server hasn't reported it.
+     */
+    public long maxHeap() {
+        return this.maxHeap;
+    }
+    public void setMaxHeap(long maxHeap) {
+        this.maxHeap = maxHeap;
+    }
+
+    /**
+     * Get the number of chunks the server had loaded, as of it's last ping.
+     * @return The number of loaded chunks. `0` if the server hasn't reported it.
+     */
+    public int loadedChunks() {
+        return this.loadedChunks;
+    }
+    public void setLoadedChunks(int loadedChunks) {
+        this.loadedChunks = loadedChunks;
+    }
+
     /**
      * Set's a connections initial server to the server.
      * @param event The connection to set.
@@ -279,4 +593,9 @@ public class PlayerServer implements group.aelysium.rustyconnector.core.lib.mode
     public boolean equals(PlayerServer server) {
         return this.serverInfo.equals(server.serverInfo());
     }
+
+    /**
+     * A point in time view of a server, which won't change as players come and go.
+     */
+    public record Snapshot(UUID id, String name, String address, int playerCount, int reservations, int softPlayerCap, int hardPlayerCap, int weight) {}
 }
@@ -31,9 +31,7 @@ public class ResolvableServer {
     }
 
     public Optional<PlayerServer> resolve() {
-        PlayerServer potentialPlayerServer = Tinder.get().services().serverService().search(this.serverInfo);
-        if(potentialPlayerServer == null) return Optional.empty();
-        return Optional.of(potentialPlayerServer);
+        return Optional.ofNullable(Tinder.get().services().serverService().search(this.serverInfo));
     }
 
     @Override
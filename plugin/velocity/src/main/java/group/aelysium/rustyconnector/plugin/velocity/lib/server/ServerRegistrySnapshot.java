@@ -0,0 +1,183 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.FamilyService;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.BaseServerFamily;
+import group.aelysium.rustyconnector.plugin.velocity.lib.family.bases.PlayerFocusedServerFamily;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A record of every server that was registered to the proxy, so that they can be brought back as soon as the proxy restarts.
+ * Without it, players can't be sent anywhere until each server pings the proxy again.
+ * <p>
+ * Restored servers are provisional. They're routable right away, but are only given a short timeout.
+ * If a restored server pings the proxy it's confirmed, and if it doesn't it's unregistered like any other stale server.
+ */
+public class ServerRegistrySnapshot {
+    protected static final int VERSION = 1;
+
+    /**
+     * Snapshots older than this, in milliseconds, are ignored. Too much could've changed since it was taken.
+     */
+    protected static final long MAX_AGE = TimeUnit.MINUTES.toMillis(5);
+
+    private final long timestamp;
+    private final List<Entry> entries;
+
+    protected ServerRegistrySnapshot(long timestamp, List<Entry> entries) {
+        this.timestamp = timestamp;
+        this.entries = entries;
+    }
+
+    public long timestamp() {
+        return this.timestamp;
+    }
+
+    public List<Entry> entries() {
+        return this.entries;
+    }
+
+    /**
+     * Take a snapshot of every server in every player-focused family.
+     * @param familyService The families to snapshot.
+     * @return A snapshot.
+     */
+    public static ServerRegistrySnapshot capture(FamilyService familyService) {
+        List<Entry> entries = new ArrayList<>();
+
+        for (BaseServerFamily<?> family : familyService.dump()) {
+            if(!(family instanceof PlayerFocusedServerFamily playerFocusedFamily)) continue;
+
+            PlayerFocusedServerFamily.Snapshot snapshot = playerFocusedFamily.snapshot();
+            snapshot.unlockedServers().forEach(server -> entries.add(Entry.from(server, family.name(), false)));
+            snapshot.lockedServers().forEach(server -> entries.add(Entry.from(server, family.name(), true)));
+        }
+
+        return new ServerRegistrySnapshot(System.currentTimeMillis(), entries);
+    }
+
+    /**
+     * Write the snapshot to a file.
+     * The snapshot is written next to the file first and then moved into place, so a crash mid-write can't leave a broken snapshot behind.
+     * @param file The file to write to.
+     */
+    public void write(File file) throws IOException {
+        JsonArray servers = new JsonArray();
+        this.entries.forEach(entry -> servers.add(entry.toJSON()));
+
+        JsonObject object = new JsonObject();
+        object.addProperty("v", VERSION);
+        object.addProperty("t", this.timestamp);
+        object.add("s", servers);
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporary), StandardCharsets.UTF_8)) {
+            writer.write(object.toString());
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot from a file.
+     * @param file The file to read.
+     * @return The snapshot. Or an empty optional if there isn't one, it can't be read, or it's too old to be trusted.
+     */
+    public static Optional<ServerRegistrySnapshot> read(File file) {
+        if(!file.exists()) return Optional.empty();
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            JsonObject object = new Gson().fromJson(reader, JsonObject.class);
+            if(object.get("v").getAsInt() != VERSION) return Optional.empty();
+
+            long timestamp = object.get("t").getAsLong();
+            if(System.currentTimeMillis() - timestamp > MAX_AGE) return Optional.empty();
+
+            List<Entry> entries = new ArrayList<>();
+            for (JsonElement element : object.getAsJsonArray("s"))
+                entries.add(Entry.fromJSON(element.getAsJsonObject()));
+
+            return Optional.of(new ServerRegistrySnapshot(timestamp, entries));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Register every server in the snapshot as a provisional server.
+     * Servers which can't be registered, for example because their family no longer exists, are skipped.
+     * @param serverService The server service to register the servers into.
+     * @return The number of servers that were restored.
+     */
+    public int restore(ServerService serverService) {
+        // Servers ping once every interval, so a server that's still alive will have pinged well before this runs out.
+        int timeout = Math.min(serverService.serverInterval() + 5, serverService.serverTimeout());
+        int restored = 0;
+
+        for (Entry entry : this.entries) {
+            try {
+                ServerInfo serverInfo = new ServerInfo(entry.name(), AddressUtil.stringToAddress(entry.address()));
+                if(serverService.contains(serverInfo)) continue;
+
+                PlayerServer server = new PlayerServer(serverInfo, entry.softPlayerCap(), entry.hardPlayerCap(), entry.weight(), timeout);
+                server.setProvisional(true);
+                server.setPlayerCount(entry.playerCount());
+                server.register(entry.family(), false);
+
+                if(entry.locked() && server.family() instanceof PlayerFocusedServerFamily family)
+                    family.lockServer(server);
+
+                restored++;
+            } catch (Exception ignore) {}
+        }
+
+        return restored;
+    }
+
+    /**
+     * A single server in the snapshot.
+     */
+    public record Entry(String name, String address, String family, int softPlayerCap, int hardPlayerCap, int weight, boolean locked, int playerCount) {
+        protected static Entry from(PlayerServer.Snapshot server, String family, boolean locked) {
+            return new Entry(server.name(), server.address(), family, server.softPlayerCap(), server.hardPlayerCap(), server.weight(), locked, server.playerCount());
+        }
+
+        protected JsonObject toJSON() {
+            JsonObject object = new JsonObject();
+            object.addProperty("n", this.name);
+            object.addProperty("a", this.address);
+            object.addProperty("f", this.family);
+            object.addProperty("sc", this.softPlayerCap);
+            object.addProperty("hc", this.hardPlayerCap);
+            object.addProperty("w", this.weight);
+            object.addProperty("l", this.locked);
+            object.addProperty("p", this.playerCount);
+            return object;
+        }
+
+        protected static Entry fromJSON(JsonObject object) {
+            return new Entry(
+                    object.get("n").getAsString(),
+                    object.get("a").getAsString(),
+                    object.get("f").getAsString(),
+                    object.get("sc").getAsInt(),
+                    object.get("hc").getAsInt(),
+                    object.get("w").getAsInt(),
+                    object.get("l").getAsBoolean(),
+                    object.get("p").getAsInt()
+            );
+        }
+    }
+}
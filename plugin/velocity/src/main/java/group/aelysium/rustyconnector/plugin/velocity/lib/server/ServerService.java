@@ -4,6 +4,7 @@ import com.sun.jdi.request.DuplicateRequestException;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import group.aelysium.rustyconnector.core.lib.lang.log_gate.GateKey;
+import group.aelysium.rustyconnector.core.lib.model.TimingWheel;
 import group.aelysium.rustyconnector.core.lib.serviceable.Service;
 import group.aelysium.rustyconnector.core.lib.util.AddressUtil;
 import group.aelysium.rustyconnector.plugin.velocity.PluginLogger;
@@ -14,21 +15,37 @@ import group.aelysium.rustyconnector.plugin.velocity.lib.webhook.DiscordWebhookM
 import group.aelysium.rustyconnector.plugin.velocity.lib.webhook.WebhookAlertFlag;
 import group.aelysium.rustyconnector.plugin.velocity.lib.webhook.WebhookEventManager;
 
-import java.lang.ref.Reference;
-import java.lang.ref.WeakReference;
 import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class ServerService extends Service {
-    private final Vector<WeakReference<PlayerServer>> servers =  new Vector<>();
+    /*
+     * Every server that's in a family, indexed so that it can be found without walking every family.
+     * Locking a server doesn't take it out of it's family, so locked servers stay indexed.
+     */
+    private final Map<ServerInfo, PlayerServer> serversByInfo = new ConcurrentHashMap<>();
+    private final Map<String, PlayerServer> serversByName = new ConcurrentHashMap<>();
 
     private final int serverTimeout;
     private final int serverInterval;
+    private final int timeoutPrecision;
+    private final TimingWheel<PlayerServer> timeouts;
+
+    /**
+     * The number of buckets on the timeout wheel.
+     * With the default precision of 1 second, one turn of the wheel covers a little over 8 minutes.
+     */
+    protected static final int TIMEOUT_WHEEL_SIZE = 512;
 
-    protected ServerService(int serverTimeout, int serverInterval) {
+    protected ServerService(int serverTimeout, int serverInterval, int timeoutPrecision) {
         this.serverTimeout = serverTimeout;
         this.serverInterval = serverInterval;
+        this.timeoutPrecision = timeoutPrecision;
+        this.timeouts = new TimingWheel<>(timeoutPrecision, TimeUnit.MILLISECONDS, TIMEOUT_WHEEL_SIZE);
     }
 
     public int serverTimeout() {
@@ -39,30 +56,73 @@ public class ServerService extends Service {
         return this.serverInterval;
     }
 
+    /**
+     * Get how often, in milliseconds, servers are checked for having timed out.
+     * @return The timeout precision.
+     */
+    public int timeoutPrecision() {
+        return this.timeoutPrecision;
+    }
+
+    /**
+     * Give a server it's full timeout again. This should be called every time the server pings the proxy.
+     * @param server The server to refresh.
+     */
+    public void refreshTimeout(PlayerServer server) {
+        this.timeouts.schedule(server, server.timeout(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Find every server which has gone longer than it's timeout without pinging the proxy.
+     * Each server is only returned once, and won't be returned again unless it's timeout is refreshed.
+     * @return The servers that have timed out.
+     */
+    public List<PlayerServer> staleServers() {
+        return this.timeouts.advance();
+    }
+
     /**
      * Search for a server.
      * @param serverInfo The server info to search for.
      * @return A server or `null`
      */
     public PlayerServer search(ServerInfo serverInfo) {
-        for(BaseServerFamily<?> family : Tinder.get().services().familyService().dump()) {
-            PlayerServer server = family.findServer(serverInfo);
-            if(server == null) continue;
+        return this.serversByInfo.get(serverInfo);
+    }
 
-            return server;
-        }
-        return null;
+    /**
+     * Search for a server by it's name.
+     * @param name The name of the server to search for.
+     * @return A server or `null`
+     */
+    public PlayerServer search(String name) {
+        return this.serversByName.get(name);
     }
 
-    public Vector<WeakReference<PlayerServer>> servers() {
-        return this.servers;
+    public List<PlayerServer> servers() {
+        return List.copyOf(this.serversByInfo.values());
     }
 
     public boolean contains(ServerInfo serverInfo) {
-        for(BaseServerFamily family : Tinder.get().services().familyService().dump()) {
-            if(family.containsServer(serverInfo)) return true;
-        }
-        return false;
+        return this.serversByInfo.containsKey(serverInfo);
+    }
+
+    /**
+     * Index a server by it's ServerInfo, unless a server with that ServerInfo is already indexed.
+     * @return `true` if the server was claimed. `false` if it's already taken.
+     */
+    private boolean claim(PlayerServer server) {
+        return this.serversByInfo.putIfAbsent(server.serverInfo(), server) == null;
+    }
+
+    private void index(PlayerServer server) {
+        this.serversByInfo.put(server.serverInfo(), server);
+        this.serversByName.put(server.serverInfo().getName(), server);
+    }
+
+    private void unindex(PlayerServer server) {
+        this.serversByInfo.remove(server.serverInfo(), server);
+        this.serversByName.remove(server.serverInfo().getName(), server);
     }
 
     /**
@@ -88,6 +148,7 @@ public class ServerService extends Service {
                     server.setRegisteredServer(registeredServer);
 
                     family.addServer(server);
+                    this.index(server);
 
                     logger.log("-----| Added: " + server.serverInfo() + " to " + family.name());
                 } catch (Exception ignore) {}
@@ -102,6 +163,17 @@ public class ServerService extends Service {
      * @return A RegisteredServer node.
      */
     public RegisteredServer registerServer(PlayerServer server, BaseServerFamily family) throws Exception {
+        return this.registerServer(server, family, true);
+    }
+
+    /**
+     * Register a server to the proxy.
+     * @param server The server to be registered.
+     * @param family The family to register the server into.
+     * @param announce Should webhooks be fired for this registration? Servers that are registered in batches are announced once for the whole batch instead.
+     * @return A RegisteredServer node.
+     */
+    public RegisteredServer registerServer(PlayerServer server, BaseServerFamily family, boolean announce) throws Exception {
         Tinder api = Tinder.get();
         PluginLogger logger = api.logger();
 
@@ -109,20 +181,30 @@ public class ServerService extends Service {
             if(logger.loggerGate().check(GateKey.REGISTRATION_ATTEMPT))
                 VelocityLang.REGISTRATION_REQUEST.send(logger, server.serverInfo(), family.name());
 
-            if(this.contains(server.serverInfo())) throw new DuplicateRequestException("Server ["+server.serverInfo().getName()+"]("+server.serverInfo().getAddress()+":"+server.serverInfo().getAddress().getPort()+") can't be registered twice!");
+            // Claim the server first, so that two registrations racing each other can't both add it to the family.
+            if(!this.claim(server)) throw new DuplicateRequestException("Server ["+server.serverInfo().getName()+"]("+server.serverInfo().getAddress()+":"+server.serverInfo().getAddress().getPort()+") can't be registered twice!");
 
-            RegisteredServer registeredServer = api.registerServer(server.serverInfo());
-            if(registeredServer == null) throw new NullPointerException("Unable to register the server to the proxy.");
+            RegisteredServer registeredServer;
+            try {
+                registeredServer = api.registerServer(server.serverInfo());
+                if(registeredServer == null) throw new NullPointerException("Unable to register the server to the proxy.");
 
-            family.addServer(server);
+                family.addServer(server);
+                this.index(server);
+            } catch (Exception e) {
+                this.unindex(server);
+                throw e;
+            }
 
-            this.servers.add(new WeakReference<>(server));
+            this.refreshTimeout(server);
 
             if(logger.loggerGate().check(GateKey.REGISTRATION_ATTEMPT))
                 VelocityLang.REGISTERED.send(logger, server.serverInfo(), family.name());
 
-            WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, DiscordWebhookMessage.PROXY__SERVER_REGISTER.build(server, family.name()));
-            WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, family.name(), DiscordWebhookMessage.FAMILY__SERVER_REGISTER.build(server, family.name()));
+            if(announce) {
+                WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, DiscordWebhookMessage.PROXY__SERVER_REGISTER.build(server, family.name()));
+                WebhookEventManager.fire(WebhookAlertFlag.SERVER_REGISTER, family.name(), DiscordWebhookMessage.FAMILY__SERVER_REGISTER.build(server, family.name()));
+            }
             return registeredServer;
         } catch (Exception error) {
             if(logger.loggerGate().check(GateKey.REGISTRATION_ATTEMPT))
@@ -150,8 +232,11 @@ public class ServerService extends Service {
             BaseServerFamily family = server.family();
 
             api.unregisterServer(server.serverInfo());
-            if(removeFromFamily)
+            this.timeouts.cancel(server);
+            if(removeFromFamily) {
                 family.removeServer(server);
+                this.unindex(server);
+            }
 
             if(logger.loggerGate().check(GateKey.UNREGISTRATION_ATTEMPT))
                 VelocityLang.UNREGISTERED.send(logger, serverInfo, familyName);
@@ -171,13 +256,15 @@ public class ServerService extends Service {
 
     @Override
     public void kill() {
-        this.servers.forEach(Reference::clear);
-        this.servers.clear();
+        this.timeouts.clear();
+        this.serversByInfo.clear();
+        this.serversByName.clear();
     }
 
     public static class Builder {
         protected int timeout = 15;
         protected int interval = 10;
+        protected int timeoutPrecision = 1000;
 
         public ServerService.Builder setServerTimeout(int timeout) {
             this.timeout = timeout;
@@ -189,8 +276,13 @@ public class ServerService extends Service {
             return this;
         }
 
+        public ServerService.Builder setTimeoutPrecision(int timeoutPrecision) {
+            this.timeoutPrecision = timeoutPrecision;
+            return this;
+        }
+
         public ServerService build() {
-            return new ServerService(timeout, interval);
+            return new ServerService(timeout, interval, timeoutPrecision);
         }
     }
 
@@ -0,0 +1,76 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport;
+
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport.events.ServerPlayerCountEvent;
+import group.aelysium.rustyconnector.plugin.velocity.lib.viewport.websocket.WebSocketService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects player count changes and sends them to the viewport as one {@link ServerPlayerCountEvent} per tick.
+ * Only the latest count of each server is sent, no matter how many times it changed during the tick.
+ * Servers are only marked as changed, their counts are read when the tick is sent.
+ * <p>
+ * If no one is subscribed to player counts, changes aren't even recorded.
+ */
+public class PlayerCountCoalescer {
+    /**
+     * How often, in milliseconds, player counts are sent to the viewport.
+     */
+    protected static final long TICK = 250;
+
+    private final WebSocketService websocket;
+    private final Set<PlayerServer> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    private volatile boolean active = false;
+
+    public PlayerCountCoalescer(WebSocketService websocket) {
+        this.websocket = websocket;
+        this.executorService.scheduleAtFixedRate(this::flush, TICK, TICK, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mark a server's player count as changed. It'll be sent on the next tick.
+     * @param server The server whose player count changed.
+     */
+    public void mark(PlayerServer server) {
+        if(!this.active) return;
+        this.dirty.add(server);
+    }
+
+    private void flush() {
+        try {
+            this.active = this.websocket.subscribed(ServerPlayerCountEvent.class);
+            if(!this.active) {
+                this.dirty.clear();
+                return;
+            }
+            if(this.dirty.isEmpty()) return;
+
+            List<ServerPlayerCountEvent.Count> counts = new ArrayList<>(this.dirty.size());
+            Iterator<PlayerServer> iterator = this.dirty.iterator();
+            while (iterator.hasNext()) {
+                PlayerServer server = iterator.next();
+                iterator.remove(); // Removed before it's read, so a change made while we're flushing gets marked again.
+
+                counts.add(new ServerPlayerCountEvent.Count(server.id(), server.serverInfo().getName(), server.playerCount()));
+            }
+
+            if(!counts.isEmpty()) this.websocket.fire(new ServerPlayerCountEvent(counts));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void kill() {
+        this.executorService.shutdownNow();
+        this.dirty.clear();
+    }
+}
@@ -1,42 +1,45 @@
 package group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport.events;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
-import com.velocitypowered.api.proxy.Player;
-import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
-import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
-import group.aelysium.rustyconnector.plugin.velocity.lib.server.ServerService;
 import group.aelysium.rustyconnector.plugin.velocity.lib.viewport.websocket.ViewportEvent;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * The latest player counts of every server whose player count changed since the last event.
+ */
 public class ServerPlayerCountEvent extends ViewportEvent {
-    private final PlayerServer server;
-    private final int playerCount; // We specifically use a separate param here because we don't want the reference to change before the event can be sent.
+    private final List<Count> counts; // We specifically copy the counts here because we don't want them to change before the event can be sent.
 
-    public ServerPlayerCountEvent(PlayerServer server, int playerCount) {
-        this.playerCount = playerCount;
-        this.server = server;
+    public ServerPlayerCountEvent(List<Count> counts) {
+        this.counts = List.copyOf(counts);
     }
 
     @Override
     public String toJsonPacket() {
-        JsonObject object = new JsonObject();
+        JsonArray servers = new JsonArray();
+        for (Count count : this.counts) {
+            JsonObject object = new JsonObject();
+
+            object.add("id", new JsonPrimitive(count.id().toString()));
+            object.add("name", new JsonPrimitive(count.name()));
+            object.add("player_count", new JsonPrimitive(count.playerCount()));
 
-        object.add("id", new JsonPrimitive(server.id().toString()));
-        object.add("name", new JsonPrimitive(server.serverInfo().getName()));
-        object.add("player_count", new JsonPrimitive(playerCount));
+            servers.add(object);
+        }
+
+        JsonObject object = new JsonObject();
+        object.add("servers", servers);
 
         return object.toString();
     }
 
-    public PlayerServer server() {
-        return this.server;
+    public List<Count> counts() {
+        return this.counts;
     }
 
-    public int playerCount() {
-        return this.playerCount;
-    }
+    public record Count(UUID id, String name, int playerCount) {}
 }
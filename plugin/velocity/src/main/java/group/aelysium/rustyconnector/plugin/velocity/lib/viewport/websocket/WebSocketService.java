@@ -3,8 +3,10 @@ package group.aelysium.rustyconnector.plugin.velocity.lib.viewport.websocket;
 import group.aelysium.rustyconnector.core.lib.hash.MD5;
 import group.aelysium.rustyconnector.core.lib.serviceable.Service;
 import group.aelysium.rustyconnector.plugin.velocity.central.Tinder;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport.PlayerCountCoalescer;
 import group.aelysium.rustyconnector.plugin.velocity.lib.viewport.rest.APIService;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport.events.ServerChatEvent;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.viewport.events.ServerPlayerCountEvent;
 import org.eclipse.jetty.websocket.api.Session;
 
 import java.util.*;
@@ -13,6 +15,7 @@ public class WebSocketService extends Service {
     private final spark.Service spark;
     private final String listenerEndpoint;
     private final WebSocketGateway gateway = new WebSocketGateway();
+    private final PlayerCountCoalescer playerCounts = new PlayerCountCoalescer(this);
 
     public WebSocketService(spark.Service spark) {
         this.spark = spark;
@@ -26,6 +29,23 @@ public class WebSocketService extends Service {
     }
 
     public WebSocketGateway gateway() { return this.gateway; }
+    public PlayerCountCoalescer playerCounts() { return this.playerCounts; }
+
+    /**
+     * Check if any listening session is subscribed to an event.
+     * @param event The event to check.
+     * @return `true` if at least one session will receive the event. `false` otherwise.
+     */
+    public boolean subscribed(Class<? extends ViewportEvent> event) {
+        APIService api = Tinder.get().services().viewportService().orElseThrow().services().api();
+
+        for (APIService.Session session : api.sessions()) {
+            if(session.websocketClient().isEmpty()) continue;
+            if(session.subscriptions().stream().anyMatch(mapping -> mapping.clazz() == event)) return true;
+        }
+
+        return false;
+    }
 
     /**
      * Fire an event to all listening sessions.
@@ -38,7 +58,7 @@ public class WebSocketService extends Service {
             Session client = session.websocketClient().orElse(null);
             if(client == null)
                 continue;
-            if(!session.subscriptions().contains(event.getClass()))
+            if(session.subscriptions().stream().noneMatch(mapping -> mapping.clazz() == event.getClass()))
                 continue;
 
             try {
@@ -51,6 +71,7 @@ public class WebSocketService extends Service {
 
     @Override
     public void kill() {
+        this.playerCounts.kill();
         try {
             this.spark.stop();
         } catch (Exception ignore) {}
@@ -58,10 +79,12 @@ public class WebSocketService extends Service {
 
     public class Events {
         public static Mapping SERVER_CHAT_EVENT = new Mapping(ServerChatEvent.class, "SERVER_CHAT");
+        public static Mapping SERVER_PLAYER_COUNT_EVENT = new Mapping(ServerPlayerCountEvent.class, "SERVER_PLAYER_COUNT");
 
         public static List<Mapping> toList() {
             List<Mapping> list = new ArrayList<>();
             list.add(SERVER_CHAT_EVENT);
+            list.add(SERVER_PLAYER_COUNT_EVENT);
 
             return list;
         }
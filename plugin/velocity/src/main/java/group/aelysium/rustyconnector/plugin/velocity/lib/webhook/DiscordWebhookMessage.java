@@ -5,6 +5,9 @@ import club.minnced.discord.webhook.send.WebhookEmbedBuilder;
 import com.velocitypowered.api.proxy.Player;
 import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
 
+import java.util.List;
+import java.util.function.Function;
+
 public interface DiscordWebhookMessage {
     String IMAGE_PROXY__REGISTER_ALL = "https://cdn.discordapp.com/attachments/1098811303679774851/1100480087037591653/PROXY__REGISTER_ALL.png";
     String IMAGE_PROXY__SERVER_REGISTER = "https://cdn.discordapp.com/attachments/1098811303679774851/1100480087289237537/PROXY__SERVER_REGISTER.png";
@@ -53,6 +56,21 @@ public interface DiscordWebhookMessage {
                     .setColor(COLOR_GREEN)
                     .build();
 
+    ParameterizedEmbed1<List<PlayerServer>> PROXY__SERVER_REGISTER_BATCH = (servers) ->
+            new WebhookEmbedBuilder()
+                    .setAuthor(
+                            new WebhookEmbed.EmbedAuthor(
+                                    "Servers: " + servers.size(),
+                                    IMAGE_PROXY__SERVER_REGISTER, null
+                            )
+                    )
+                    .setTitle(
+                            new WebhookEmbed.EmbedTitle("Were registered", null)
+                    )
+                    .setDescription(listServers(servers, server -> server.serverInfo().getName() + " -> " + server.family().name()))
+                    .setColor(COLOR_GREEN)
+                    .build();
+
     ParameterizedEmbed1<PlayerServer> PROXY__SERVER_UNREGISTER = (server) ->
             new WebhookEmbedBuilder()
                     .setAuthor(
@@ -214,6 +232,18 @@ public interface DiscordWebhookMessage {
                     .addField(new WebhookEmbed.EmbedField(false, "Family", familyName))
                     .setColor(COLOR_GREEN)
                     .build();
+    ParameterizedEmbed2<String, List<PlayerServer>> FAMILY__SERVER_REGISTER_BATCH = (familyName, servers) ->
+            new WebhookEmbedBuilder()
+                    .setAuthor(
+                            new WebhookEmbed.EmbedAuthor(
+                                    "Registered " + servers.size() + " servers",
+                                    IMAGE_FAMILY__SERVER_REGISTER, null
+                            )
+                    )
+                    .setDescription(listServers(servers, server -> server.serverInfo().getName()))
+                    .addField(new WebhookEmbed.EmbedField(false, "Family", familyName))
+                    .setColor(COLOR_GREEN)
+                    .build();
     ParameterizedEmbed1<PlayerServer> FAMILY__SERVER_UNREGISTER = (server) ->
             new WebhookEmbedBuilder()
                     .setAuthor(
@@ -276,6 +306,19 @@ public interface DiscordWebhookMessage {
                     .setColor(COLOR_PINK)
                     .build();
 
+    /**
+     * The most servers that will be listed in a single embed. Discord cuts off embeds that are too long.
+     */
+    int MAX_LISTED_SERVERS = 40;
+
+    static String listServers(List<PlayerServer> servers, Function<PlayerServer, String> line) {
+        StringBuilder list = new StringBuilder();
+        servers.stream().limit(MAX_LISTED_SERVERS).forEach(server -> list.append(line.apply(server)).append("\n"));
+        if(servers.size() > MAX_LISTED_SERVERS)
+            list.append("...and ").append(servers.size() - MAX_LISTED_SERVERS).append(" more");
+        return list.toString();
+    }
+
     interface ParameterizedEmbed1<A1> {
         WebhookEmbed build(A1 arg1);
     }
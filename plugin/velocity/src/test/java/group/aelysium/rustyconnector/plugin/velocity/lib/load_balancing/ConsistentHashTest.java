@@ -0,0 +1,103 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.core.lib.LoadBalancer.Lease;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashTest {
+    private static List<PlayerServer> servers(int count) {
+        List<PlayerServer> servers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ServerInfo info = new ServerInfo("lobby-" + i, InetSocketAddress.createUnresolved("localhost", 25565 + i));
+            servers.add(new PlayerServer(info, 1000, 1000, 0, 15));
+        }
+        return servers;
+    }
+
+    private static ConsistentHash loadBalancer(List<PlayerServer> servers) {
+        ConsistentHash loadBalancer = new ConsistentHash();
+        servers.forEach(loadBalancer::add);
+        return loadBalancer;
+    }
+
+    /**
+     * Find out which server a key lands on, without leaving a reservation behind.
+     */
+    private static PlayerServer owner(ConsistentHash loadBalancer, UUID key) {
+        Lease<PlayerServer> lease = loadBalancer.reserve(key, server -> true).orElseThrow();
+        lease.rollback();
+        return lease.item();
+    }
+
+    @Test
+    public void returningPlayersLandOnTheSameServer() {
+        List<PlayerServer> servers = servers(5);
+        ConsistentHash loadBalancer = loadBalancer(servers);
+
+        for (int i = 0; i < 100; i++) {
+            UUID key = UUID.randomUUID();
+            assertSame(owner(loadBalancer, key), owner(loadBalancer, key));
+        }
+    }
+
+    @Test
+    public void playersOnAnOverloadedServerFallBackToAnother() {
+        List<PlayerServer> servers = servers(4);
+        ConsistentHash loadBalancer = loadBalancer(servers);
+        UUID key = UUID.randomUUID();
+        PlayerServer home = owner(loadBalancer, key);
+
+        // 100 players out of 101 is far over 1.25 times the average, so the home server is walked past.
+        home.setPlayerCount(100);
+        PlayerServer fallback = owner(loadBalancer, key);
+        assertNotSame(home, fallback);
+        assertSame(fallback, owner(loadBalancer, key));
+
+        home.setPlayerCount(0);
+        assertSame(home, owner(loadBalancer, key));
+    }
+
+    @Test
+    public void noServerGoesOverItsLoadBound() {
+        List<PlayerServer> servers = servers(4);
+        ConsistentHash loadBalancer = loadBalancer(servers);
+
+        for (int i = 1; i <= 400; i++) {
+            loadBalancer.reserve(UUID.randomUUID(), server -> true).orElseThrow();
+
+            long bound = (long) Math.ceil((1 + ConsistentHash.EPSILON) * i / servers.size());
+            for (PlayerServer server : servers)
+                assertTrue(server.sortIndex() <= bound, server.sortIndex() + " is over the bound of " + bound);
+        }
+    }
+
+    @Test
+    public void excludedAndRefusedServersAreWalkedPast() {
+        List<PlayerServer> servers = servers(3);
+        ConsistentHash loadBalancer = loadBalancer(servers);
+        UUID key = UUID.randomUUID();
+        PlayerServer home = owner(loadBalancer, key);
+
+        Lease<PlayerServer> excluded = loadBalancer.reserve(key, Set.of(home), server -> true).orElseThrow();
+        assertNotSame(home, excluded.item());
+        excluded.rollback();
+
+        Lease<PlayerServer> refused = loadBalancer.reserve(key, server -> server != home).orElseThrow();
+        assertSame(excluded.item(), refused.item()); // Both walk clockwise to the same next server.
+        assertEquals(0, home.reservations());
+        refused.rollback();
+
+        assertTrue(loadBalancer.reserve(key, server -> false).isEmpty());
+        assertTrue(loadBalancer.reserve(key, Set.copyOf(servers), server -> true).isEmpty());
+        servers.forEach(server -> assertEquals(0, server.reservations()));
+    }
+}
@@ -0,0 +1,160 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.proxy.server.ServerPing;
+import group.aelysium.rustyconnector.core.lib.LoadBalancer.Lease;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Probes are answered by hand, so each test decides which server wins the race.
+ */
+public class HedgedReservationTest {
+    private final List<PlayerServer> servers = new ArrayList<>();
+    private final Map<PlayerServer, BlockingQueue<CompletableFuture<ServerPing>>> probes = new HashMap<>();
+
+    private LoadBalancer loadBalancer(int hedgeDelay) {
+        LoadBalancer loadBalancer = new LoadBalancer();
+        loadBalancer.setPersistence(true, 3);
+        loadBalancer.setHedging(true, hedgeDelay);
+
+        for (int i = 0; i < 3; i++) {
+            ServerInfo info = new ServerInfo("lobby-" + i, InetSocketAddress.createUnresolved("localhost", 25565 + i));
+            PlayerServer server = new PlayerServer(info, 10, 10, 0, 15);
+            BlockingQueue<CompletableFuture<ServerPing>> probes = new LinkedBlockingQueue<>();
+
+            server.setRegisteredServer((RegisteredServer) Proxy.newProxyInstance(
+                    RegisteredServer.class.getClassLoader(),
+                    new Class[]{ RegisteredServer.class },
+                    (self, method, args) -> {
+                        if(!method.getName().equals("ping")) return null;
+                        CompletableFuture<ServerPing> probe = new CompletableFuture<>();
+                        probes.add(probe);
+                        return probe;
+                    }
+            ));
+
+            this.servers.add(server);
+            this.probes.put(server, probes);
+            loadBalancer.add(server);
+        }
+
+        return loadBalancer;
+    }
+
+    private CompletableFuture<ServerPing> probe(int server) throws InterruptedException {
+        CompletableFuture<ServerPing> probe = this.probes.get(this.servers.get(server)).poll(5, TimeUnit.SECONDS);
+        assertNotNull(probe);
+        return probe;
+    }
+
+    private int reservations(int server) {
+        return this.servers.get(server).reservations();
+    }
+
+    @Test
+    public void quickServersAreNotProbed() {
+        LoadBalancer loadBalancer = this.loadBalancer(250);
+        this.servers.get(0).recordConnect(TimeUnit.MILLISECONDS.toNanos(20), false);
+
+        Lease<PlayerServer> lease = loadBalancer.reserveAsync(UUID.randomUUID(), Set.of(), server -> true).join();
+
+        assertSame(this.servers.get(0), lease.item());
+        assertTrue(this.probes.get(this.servers.get(0)).isEmpty());
+        lease.commit();
+        assertEquals(0, reservations(0));
+    }
+
+    @Test
+    public void firstServerWinsIfItAnswersBeforeTheHedgeDelay() throws InterruptedException {
+        LoadBalancer loadBalancer = this.loadBalancer(60_000);
+
+        CompletableFuture<Lease<PlayerServer>> winner = loadBalancer.reserveAsync(UUID.randomUUID(), Set.of(), server -> true);
+        this.probe(0).complete(null);
+
+        assertSame(this.servers.get(0), winner.join().item());
+        assertEquals(1, reservations(0));
+        assertEquals(0, reservations(1));
+        assertTrue(this.probes.get(this.servers.get(1)).isEmpty());
+    }
+
+    @Test
+    public void slowServerGivesItsSlotBackWhenTheHedgeWins() throws InterruptedException {
+        LoadBalancer loadBalancer = this.loadBalancer(25);
+
+        CompletableFuture<Lease<PlayerServer>> winner = loadBalancer.reserveAsync(UUID.randomUUID(), Set.of(), server -> true);
+        CompletableFuture<ServerPing> slow = this.probe(0);
+        this.probe(1).complete(null); // Only asked for once the hedge delay has passed.
+
+        Lease<PlayerServer> lease = winner.join();
+        assertSame(this.servers.get(1), lease.item());
+        assertTrue(slow.isCancelled());
+        assertEquals(0, reservations(0));
+        assertEquals(1, reservations(1));
+
+        slow.complete(null); // A late answer changes nothing.
+        assertEquals(0, reservations(0));
+
+        lease.commit();
+        assertEquals(0, reservations(1));
+    }
+
+    @Test
+    public void failedProbeHedgesWithoutWaiting() throws InterruptedException {
+        LoadBalancer loadBalancer = this.loadBalancer(60_000);
+
+        CompletableFuture<Lease<PlayerServer>> winner = loadBalancer.reserveAsync(UUID.randomUUID(), Set.of(), server -> true);
+        this.probe(0).completeExceptionally(new RuntimeException("Connection refused"));
+        assertEquals(0, reservations(0));
+
+        this.probe(1).complete(null);
+        assertSame(this.servers.get(1), winner.join().item());
+        assertEquals(1, reservations(1));
+    }
+
+    @Test
+    public void everySlotIsGivenBackIfEveryProbeFails() throws InterruptedException {
+        LoadBalancer loadBalancer = this.loadBalancer(60_000);
+
+        CompletableFuture<Lease<PlayerServer>> winner = loadBalancer.reserveAsync(UUID.randomUUID(), Set.of(), server -> true);
+        this.probe(0).completeExceptionally(new RuntimeException("Connection refused"));
+        this.probe(1).completeExceptionally(new RuntimeException("Timed out"));
+
+        CompletionException failure = assertThrows(CompletionException.class, winner::join);
+        assertEquals("Timed out", failure.getCause().getMessage());
+        assertEquals(0, reservations(0));
+        assertEquals(0, reservations(1));
+        assertEquals(0, reservations(2)); // Only one hedge is ever made.
+        assertTrue(this.probes.get(this.servers.get(2)).isEmpty());
+    }
+
+    @Test
+    public void hedgeNeverLandsOnAnExcludedServer() throws InterruptedException {
+        LoadBalancer loadBalancer = this.loadBalancer(60_000);
+
+        CompletableFuture<Lease<PlayerServer>> winner = loadBalancer.reserveAsync(UUID.randomUUID(), Set.of(this.servers.get(1)), server -> true);
+        this.probe(0).completeExceptionally(new RuntimeException("Connection refused"));
+        this.probe(2).complete(null);
+
+        assertSame(this.servers.get(2), winner.join().item());
+        assertTrue(this.probes.get(this.servers.get(1)).isEmpty());
+        assertEquals(0, reservations(1));
+    }
+}
@@ -0,0 +1,153 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The servers in these tests aren't part of a family, so the load balancer is told about player count changes by hand.
+ */
+public class LeastConnectionTest {
+    private static List<PlayerServer> servers(int count) {
+        List<PlayerServer> servers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ServerInfo info = new ServerInfo("lobby-" + i, InetSocketAddress.createUnresolved("localhost", 25565 + i));
+            servers.add(new PlayerServer(info, 1000, 1000, 0, 15));
+        }
+        return servers;
+    }
+
+    private static LeastConnection loadBalancer(List<PlayerServer> servers) {
+        LeastConnection loadBalancer = new LeastConnection();
+        servers.forEach(loadBalancer::add);
+        return loadBalancer;
+    }
+
+    private static int leastLoad(List<PlayerServer> servers) {
+        return servers.stream().mapToInt(PlayerServer::sortIndex).min().orElseThrow();
+    }
+
+    /**
+     * Every parent must be at most as loaded as it's children, and every server must know where it is.
+     */
+    private static void assertHeap(LeastConnection loadBalancer, List<PlayerServer> servers) {
+        List<PlayerServer> items = loadBalancer.dump();
+        assertEquals(servers.size(), items.size());
+        assertEquals(new HashSet<>(servers), new HashSet<>(items));
+        assertEquals(servers.size(), loadBalancer.positions.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(i, (int) loadBalancer.positions.get(items.get(i)));
+            if(i > 0) assertTrue(items.get((i - 1) / 2).sortIndex() <= items.get(i).sortIndex());
+        }
+    }
+
+    @Test
+    public void leastLoadedServerIsAlwaysCurrent() {
+        List<PlayerServer> servers = servers(16);
+        LeastConnection loadBalancer = loadBalancer(servers);
+
+        for (int i = 0; i < 2000; i++) {
+            PlayerServer server = servers.get(ThreadLocalRandom.current().nextInt(servers.size()));
+            if(ThreadLocalRandom.current().nextBoolean()) server.playerJoined();
+            else server.playerLeft();
+            loadBalancer.update(server);
+
+            assertEquals(leastLoad(servers), loadBalancer.current().sortIndex());
+        }
+
+        assertHeap(loadBalancer, servers);
+    }
+
+    @Test
+    public void reservationsMoveServersDownTheHeap() {
+        List<PlayerServer> servers = servers(4);
+        LeastConnection loadBalancer = loadBalancer(servers);
+
+        for (int i = 0; i < 8; i++) {
+            PlayerServer current = loadBalancer.current();
+            current.reserve();
+            loadBalancer.update(current);
+        }
+
+        servers.forEach(server -> assertEquals(2, server.sortIndex()));
+        assertHeap(loadBalancer, servers);
+    }
+
+    @Test
+    public void heapSurvivesServersComingAndGoing() {
+        List<PlayerServer> servers = servers(12);
+        for (int i = 0; i < servers.size(); i++)
+            servers.get(i).setPlayerCount((i * 7) % 12);
+        LeastConnection loadBalancer = loadBalancer(servers);
+        assertHeap(loadBalancer, servers);
+
+        PlayerServer least = loadBalancer.current();
+        loadBalancer.remove(least);
+        servers.remove(least);
+        assertHeap(loadBalancer, servers);
+        assertEquals(leastLoad(servers), loadBalancer.current().sortIndex());
+
+        loadBalancer.remove(servers.get(5));
+        servers.remove(5);
+        loadBalancer.remove(servers.get(servers.size() - 1));
+        servers.remove(servers.size() - 1);
+        assertHeap(loadBalancer, servers);
+
+        PlayerServer returning = servers(1).get(0);
+        loadBalancer.add(returning);
+        loadBalancer.add(returning);
+        servers.add(returning);
+        assertHeap(loadBalancer, servers);
+        assertSame(returning, loadBalancer.current());
+    }
+
+    @Test
+    public void excludedServersAreSkipped() {
+        List<PlayerServer> servers = servers(3);
+        servers.get(0).setPlayerCount(1);
+        servers.get(1).setPlayerCount(2);
+        servers.get(2).setPlayerCount(3);
+        LeastConnection loadBalancer = loadBalancer(servers);
+
+        assertSame(servers.get(1), loadBalancer.current(Set.of(servers.get(0))));
+        assertSame(servers.get(2), loadBalancer.current(Set.of(servers.get(0), servers.get(1))));
+        assertNull(loadBalancer.current(Set.copyOf(servers)));
+    }
+
+    @Test
+    public void heapStaysWholeWhileCountsChangeConcurrently() throws InterruptedException {
+        List<PlayerServer> servers = servers(32);
+        LeastConnection loadBalancer = loadBalancer(servers);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    PlayerServer server = servers.get(ThreadLocalRandom.current().nextInt(servers.size()));
+                    if(ThreadLocalRandom.current().nextInt(3) == 0) server.playerLeft();
+                    else server.playerJoined();
+                    loadBalancer.update(server);
+                    loadBalancer.current();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        // Counts can change between a server being moved and it's neighbours being compared, so only a full sort is guaranteed to be in order afterwards.
+        loadBalancer.completeSort();
+        assertHeap(loadBalancer, servers);
+        assertEquals(leastLoad(servers), loadBalancer.current().sortIndex());
+    }
+}
@@ -0,0 +1,115 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.load_balancing;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.core.lib.LoadBalancer.Lease;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadBalancerTest {
+    private static List<PlayerServer> servers(int count) {
+        List<PlayerServer> servers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ServerInfo info = new ServerInfo("lobby-" + i, InetSocketAddress.createUnresolved("localhost", 25565 + i));
+            servers.add(new PlayerServer(info, 10, 10, 0, 15));
+        }
+        return servers;
+    }
+
+    private static LoadBalancer loadBalancer(List<PlayerServer> servers) {
+        LoadBalancer loadBalancer = new LoadBalancer();
+        servers.forEach(loadBalancer::add);
+        return loadBalancer;
+    }
+
+    @Test
+    public void reservingHoldsASlotUntilTheLeaseIsSettled() {
+        List<PlayerServer> servers = servers(2);
+        LoadBalancer loadBalancer = loadBalancer(servers);
+
+        Lease<PlayerServer> lease = loadBalancer.reserve(server -> true).orElseThrow();
+        assertSame(servers.get(0), lease.item());
+        assertEquals(1, lease.item().reservations());
+        assertEquals(1, loadBalancer.index());
+
+        lease.commit();
+        assertEquals(0, lease.item().reservations());
+    }
+
+    @Test
+    public void settlingALeaseTwiceOnlyGivesItsSlotBackOnce() {
+        List<PlayerServer> servers = servers(1);
+        LoadBalancer loadBalancer = loadBalancer(servers);
+
+        Lease<PlayerServer> committed = loadBalancer.reserve(server -> true).orElseThrow();
+        Lease<PlayerServer> rolledBack = loadBalancer.reserve(server -> true).orElseThrow();
+        Lease<PlayerServer> held = loadBalancer.reserve(server -> true).orElseThrow();
+        assertEquals(3, servers.get(0).reservations());
+
+        committed.commit();
+        committed.commit();
+        committed.rollback();
+        assertEquals(2, servers.get(0).reservations());
+
+        rolledBack.rollback();
+        rolledBack.commit();
+        assertEquals(1, servers.get(0).reservations()); // The slot that's still held isn't given back by somebody else's lease.
+
+        held.rollback();
+        assertEquals(0, servers.get(0).reservations());
+    }
+
+    @Test
+    public void refusedAdmissionReservesNothing() {
+        List<PlayerServer> servers = servers(2);
+        LoadBalancer loadBalancer = loadBalancer(servers);
+
+        assertTrue(loadBalancer.reserve(server -> false).isEmpty());
+        assertTrue(loadBalancer.reserve(UUID.randomUUID(), Set.of(servers.get(0)), server -> false).isEmpty());
+
+        servers.forEach(server -> assertEquals(0, server.reservations()));
+        assertEquals(0, loadBalancer.index());
+    }
+
+    @Test
+    public void excludedServersAreNeverReserved() {
+        List<PlayerServer> servers = servers(3);
+        LoadBalancer loadBalancer = loadBalancer(servers);
+        UUID key = UUID.randomUUID();
+
+        Lease<PlayerServer> lease = loadBalancer.reserve(key, Set.of(servers.get(0)), server -> true).orElseThrow();
+        assertSame(servers.get(1), lease.item());
+        lease.rollback();
+
+        // The index has moved on to the second server, so excluding it moves on to the third.
+        lease = loadBalancer.reserve(key, Set.of(servers.get(0), servers.get(1)), server -> true).orElseThrow();
+        assertSame(servers.get(2), lease.item());
+        lease.rollback();
+
+        Optional<Lease<PlayerServer>> none = loadBalancer.reserve(key, Set.copyOf(servers), server -> true);
+        assertTrue(none.isEmpty());
+        servers.forEach(server -> assertEquals(0, server.reservations()));
+    }
+
+    @Test
+    public void admissionOnlySeesServersThatArentExcluded() {
+        List<PlayerServer> servers = servers(3);
+        LoadBalancer loadBalancer = loadBalancer(servers);
+        List<PlayerServer> seen = new ArrayList<>();
+
+        loadBalancer.reserve(UUID.randomUUID(), Set.of(servers.get(0)), server -> {
+            seen.add(server);
+            return true;
+        }).orElseThrow().commit();
+
+        assertEquals(List.of(servers.get(1)), seen);
+    }
+}
@@ -0,0 +1,126 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.parties;
+
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import group.aelysium.rustyconnector.plugin.velocity.lib.server.PlayerServer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * None of these tests start RustyConnector, so the switch power is handed to the party directly.
+ */
+public class PartyTest {
+    private final List<CompletableFuture<ConnectionRequestBuilder.Result>> connections = new ArrayList<>();
+
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> answer) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class[]{ type }, (self, method, args) -> switch (method.getName()) {
+            case "equals" -> self == args[0];
+            case "hashCode" -> System.identityHashCode(self);
+            case "toString" -> type.getSimpleName();
+            default -> answer.apply(method.getName(), args);
+        });
+        return type.cast(proxy);
+    }
+
+    private Player player() {
+        UUID uuid = UUID.randomUUID();
+        ConnectionRequestBuilder request = stub(ConnectionRequestBuilder.class, (method, args) -> {
+            if(!method.equals("connect")) return null;
+            CompletableFuture<ConnectionRequestBuilder.Result> connection = new CompletableFuture<>();
+            this.connections.add(connection);
+            return connection;
+        });
+
+        return stub(Player.class, (method, args) -> switch (method) {
+            case "getUniqueId" -> uuid;
+            case "getUsername" -> uuid.toString();
+            case "getCurrentServer" -> Optional.empty();
+            case "createConnectionRequest" -> request;
+            default -> null;
+        });
+    }
+
+    private static PlayerServer server(int softPlayerCap, int hardPlayerCap) {
+        ServerInfo info = new ServerInfo("lobby-1", InetSocketAddress.createUnresolved("localhost", 25565));
+        PlayerServer server = new PlayerServer(info, softPlayerCap, hardPlayerCap, 0, 15);
+        server.setRegisteredServer(stub(RegisteredServer.class, (method, args) -> null));
+        return server;
+    }
+
+    private Party party(int size, PlayerServer server) {
+        Party party = new Party(size, this.player(), server);
+        for (int i = 1; i < size; i++)
+            party.players().add(this.player());
+        return party;
+    }
+
+    private void connectEveryone() {
+        ConnectionRequestBuilder.Result success = stub(ConnectionRequestBuilder.Result.class, (method, args) -> method.equals("isSuccessful") ? true : null);
+        this.connections.forEach(connection -> connection.complete(success));
+    }
+
+    @Test
+    public void partyFillsTheServerExactlyWhenTheLeaderHoldsALease() {
+        PlayerServer server = server(8, 8);
+        Party party = this.party(8, server);
+        Player leader = party.players().firstElement();
+
+        server.reserve(); // The leader's lease, handed out by the load balancer.
+
+        CompletableFuture<List<Party.MemberOutcome>> outcomes = party.connect(server, leader, true, SwitchPower.MODERATE);
+        assertEquals(7, this.connections.size());
+        assertEquals(8, server.reservations());
+
+        this.connectEveryone();
+
+        assertEquals(7, outcomes.join().size());
+        assertTrue(outcomes.join().stream().allMatch(Party.MemberOutcome::connected));
+        assertEquals(7, server.playerCount());
+        assertEquals(1, server.reservations()); // Only the leader's lease is left, for it's owner to give back.
+    }
+
+    @Test
+    public void partyFillsTheServerExactlyWhenTheLeaderHasNoLease() {
+        PlayerServer server = server(8, 8);
+        Party party = this.party(8, server);
+        Player leader = party.players().firstElement();
+
+        CompletableFuture<List<Party.MemberOutcome>> outcomes = party.connect(server, leader, false, SwitchPower.MODERATE);
+        assertEquals(8, server.reservations());
+
+        this.connectEveryone();
+
+        assertTrue(outcomes.join().stream().allMatch(Party.MemberOutcome::connected));
+        assertEquals(7, server.playerCount());
+        assertEquals(0, server.reservations());
+    }
+
+    @Test
+    public void wholePartyIsReservedForBeforeAnyoneConnects() {
+        PlayerServer server = server(4, 6);
+        server.setPlayerCount(2);
+        Party party = this.party(4, server);
+
+        CompletableFuture<List<Party.MemberOutcome>> outcomes = party.connect(server, null, false, SwitchPower.MODERATE);
+        assertEquals(4, server.reservations());
+        assertTrue(server.maxed());
+
+        this.connectEveryone();
+
+        assertEquals(4, outcomes.join().size());
+        assertEquals(6, server.playerCount());
+        assertEquals(0, server.reservations());
+    }
+}
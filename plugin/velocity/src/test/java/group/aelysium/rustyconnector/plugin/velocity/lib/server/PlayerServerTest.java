@@ -0,0 +1,86 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.server;
+
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * None of these tests start RustyConnector, so they also check that unregistered servers never reach for it.
+ */
+public class PlayerServerTest {
+    private static PlayerServer server(int softPlayerCap, int hardPlayerCap) {
+        ServerInfo info = new ServerInfo("lobby-1", InetSocketAddress.createUnresolved("localhost", 25565));
+        return new PlayerServer(info, softPlayerCap, hardPlayerCap, 0, 15);
+    }
+
+    @Test
+    public void playerCountsChangeWithoutRustyConnectorRunning() {
+        PlayerServer server = server(20, 30);
+
+        server.setPlayerCount(5);
+        server.playerJoined();
+        server.playerLeft();
+        server.playerLeft();
+
+        assertEquals(4, server.playerCount());
+        assertEquals(4, server.sortIndex());
+
+        server.setPlayerCount(0);
+        server.playerLeft();
+        assertEquals(0, server.playerCount());
+    }
+
+    @Test
+    public void reservationsCountTowardsCaps() {
+        PlayerServer server = server(2, 3);
+        server.setPlayerCount(1);
+
+        server.reserve();
+        assertEquals(2, server.sortIndex());
+        assertTrue(server.full());
+        assertFalse(server.maxed());
+
+        assertFalse(server.reserve(2, 3));
+        assertTrue(server.reserve(1, 3));
+        assertTrue(server.maxed());
+
+        server.release();
+        server.release();
+        server.release();
+        assertEquals(0, server.reservations());
+        assertEquals(1, server.sortIndex());
+    }
+
+    @Test
+    public void softCapIsNeverAboveHardCap() {
+        PlayerServer server = server(50, 30);
+
+        assertEquals(30, server.softPlayerCap());
+        assertEquals(30, server.hardPlayerCap());
+    }
+
+    @Test
+    public void countsTowardsOneFamilyTotalAtATime() {
+        PlayerServer server = server(20, 30);
+        LongAdder first = new LongAdder();
+        LongAdder second = new LongAdder();
+
+        server.setPlayerCount(3);
+        server.countTowards(first);
+        assertEquals(3, first.sum());
+
+        server.playerJoined();
+        assertEquals(4, first.sum());
+
+        server.countTowards(second);
+        assertEquals(0, first.sum());
+        assertEquals(4, second.sum());
+
+        server.countTowards(null);
+        assertEquals(0, second.sum());
+    }
+}
@@ -0,0 +1,92 @@
+package group.aelysium.rustyconnector.plugin.velocity.lib.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerRegistrySnapshotTest {
+    @TempDir
+    Path directory;
+
+    private static final List<ServerRegistrySnapshot.Entry> ENTRIES = List.of(
+            new ServerRegistrySnapshot.Entry("lobby-1", "127.0.0.1:25565", "lobby", 20, 30, 1, false, 7),
+            new ServerRegistrySnapshot.Entry("survival-1", "10.0.0.2:25566", "survival", 50, 60, 3, true, 0)
+    );
+
+    private File file() {
+        return this.directory.resolve("servers.json").toFile();
+    }
+
+    private void writeRaw(int version, long timestamp) throws IOException {
+        JsonArray servers = new JsonArray();
+        ENTRIES.forEach(entry -> servers.add(entry.toJSON()));
+
+        JsonObject object = new JsonObject();
+        object.addProperty("v", version);
+        object.addProperty("t", timestamp);
+        object.add("s", servers);
+
+        Files.writeString(this.file().toPath(), object.toString(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void readsWhatWasWritten() throws IOException {
+        long timestamp = System.currentTimeMillis();
+        new ServerRegistrySnapshot(timestamp, ENTRIES).write(this.file());
+
+        ServerRegistrySnapshot snapshot = ServerRegistrySnapshot.read(this.file()).orElseThrow();
+
+        assertEquals(timestamp, snapshot.timestamp());
+        assertEquals(ENTRIES, snapshot.entries());
+        assertFalse(new File(this.file().getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void writingReplacesAnOldSnapshot() throws IOException {
+        new ServerRegistrySnapshot(System.currentTimeMillis(), ENTRIES).write(this.file());
+        new ServerRegistrySnapshot(System.currentTimeMillis(), ENTRIES.subList(0, 1)).write(this.file());
+
+        assertEquals(ENTRIES.subList(0, 1), ServerRegistrySnapshot.read(this.file()).orElseThrow().entries());
+    }
+
+    @Test
+    public void missingSnapshotsAreEmpty() {
+        assertEquals(Optional.empty(), ServerRegistrySnapshot.read(this.file()));
+    }
+
+    @Test
+    public void staleSnapshotsAreIgnored() throws IOException {
+        new ServerRegistrySnapshot(System.currentTimeMillis() - ServerRegistrySnapshot.MAX_AGE - 1000, ENTRIES).write(this.file());
+
+        assertEquals(Optional.empty(), ServerRegistrySnapshot.read(this.file()));
+    }
+
+    @Test
+    public void otherVersionsAreIgnored() throws IOException {
+        this.writeRaw(ServerRegistrySnapshot.VERSION + 1, System.currentTimeMillis());
+        assertEquals(Optional.empty(), ServerRegistrySnapshot.read(this.file()));
+
+        this.writeRaw(ServerRegistrySnapshot.VERSION, System.currentTimeMillis());
+        assertTrue(ServerRegistrySnapshot.read(this.file()).isPresent());
+    }
+
+    @Test
+    public void brokenSnapshotsAreIgnored() throws IOException {
+        Files.writeString(this.file().toPath(), "{\"v\":1,\"t\":", StandardCharsets.UTF_8);
+        assertEquals(Optional.empty(), ServerRegistrySnapshot.read(this.file()));
+
+        Files.writeString(this.file().toPath(), "{\"v\":1,\"t\":" + System.currentTimeMillis() + ",\"s\":[{\"n\":\"lobby-1\"}]}", StandardCharsets.UTF_8);
+        assertEquals(Optional.empty(), ServerRegistrySnapshot.read(this.file()));
+    }
+}